@@ -1,7 +1,13 @@
 package com.app;
 
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.List;
 
+import com.app.load.ExpressionMix;
+import com.app.load.LoadConfig;
+import com.app.load.LoadGenerator;
+import com.app.load.ThreadModel;
 import com.app.parser.DiceEvaluator;
 import com.app.parser.DiceParser;
 import com.app.parser.Lexer;
@@ -11,7 +17,12 @@ import com.app.roll.DiceRoll;
 import com.app.roll.DiceRollResult;
 
 public class Main {
-    public static void main(String[] args) {
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length > 0 && args[0].equals("load")) {
+            runLoad(args);
+            return;
+        }
+
         // Teste Simples
         DiceRoll roll = DiceRoll.defaultRNG();
         DiceEvaluator evaluator = new DiceEvaluator(roll);
@@ -23,4 +34,40 @@ public class Main {
         DiceRollResult result = evaluator.evaluateWithDetails(expression, ast);
         System.out.println(result);
     }
-}
\ No newline at end of file
+
+    /**
+     * Modo de carga:
+     * <pre>
+     * load [--mix=default|heavy|light|arquivo] [--threads=platform|virtual]
+     *      [--concurrency=N] [--duration=10s] [--warmup=1s] [--seed=N]
+     * </pre>
+     */
+    private static void runLoad(String[] args) throws IOException, InterruptedException {
+        LoadConfig config = LoadConfig.defaults();
+
+        for (int i = 1; i < args.length; i++) {
+            String arg = args[i];
+            int eq = arg.indexOf('=');
+            if (!arg.startsWith("--") || eq < 0) {
+                throw new IllegalArgumentException("Expected --option=value, got: " + arg);
+            }
+            String name = arg.substring(2, eq);
+            String value = arg.substring(eq + 1);
+
+            config = switch (name) {
+                case "mix" -> config.withMix(
+                        value.equals("default") || value.equals("heavy") || value.equals("light")
+                                ? ExpressionMix.preset(value)
+                                : ExpressionMix.fromFile(Path.of(value)));
+                case "threads" -> config.withThreadModel(ThreadModel.valueOf(value.toUpperCase()));
+                case "concurrency" -> config.withConcurrency(Integer.parseInt(value));
+                case "duration" -> config.withDuration(LoadGenerator.parseDuration(value));
+                case "warmup" -> config.withWarmup(LoadGenerator.parseDuration(value));
+                case "seed" -> config.withSeed(Long.parseLong(value));
+                default -> throw new IllegalArgumentException("Unknown option: --" + name);
+            };
+        }
+
+        System.out.println(new LoadGenerator(config).run());
+    }
+}
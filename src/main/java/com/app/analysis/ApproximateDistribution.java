@@ -0,0 +1,194 @@
+package com.app.analysis;
+
+/**
+ * Aproximação de Edgeworth (normal corrigida por assimetria e curtose) com
+ * correção de continuidade, a partir dos quatro primeiros cumulantes. Os
+ * totais possíveis ficam no reticulado origin + span·k.
+ * <br>
+ * Cumulantes de somas independentes somam, então pools enormes e somas de
+ * pools custam O(1) para combinar.
+ * <br>
+ * O limite de erro soma: <br>
+ * - Berry–Esseen para somas independentes: 0.56·Σ E|X_i - μ_i|³ / σ³; <br>
+ * - o deslocamento da correção de continuidade: φ(0)·(span/2)/σ; <br>
+ * - o maior termo de correção de Edgeworth, já que ele não é coberto pelo
+ *   teorema (desigualdade triangular).
+ */
+public final class ApproximateDistribution implements DiceDistribution {
+
+    private static final double BERRY_ESSEEN = 0.56;
+
+    private final double k1;
+    private final double k2;
+    private final double k3;
+    private final double k4;
+    private final double thirdAbsolute;
+    private final long span;
+    private final long origin;
+    private final double min;
+    private final double max;
+    private final boolean edgeworth;
+
+    ApproximateDistribution(
+            double k1, double k2, double k3, double k4,
+            double thirdAbsolute, long span, long origin,
+            double min, double max,
+            boolean edgeworth
+    ) {
+        this.k1 = k1;
+        this.k2 = k2;
+        this.k3 = k3;
+        this.k4 = k4;
+        this.thirdAbsolute = thirdAbsolute;
+        this.span = span;
+        this.origin = origin;
+        this.min = min;
+        this.max = max;
+        this.edgeworth = edgeworth;
+    }
+
+    /** Converte uma distribuição exata em cumulantes. */
+    static ApproximateDistribution of(ExactDistribution exact) {
+        Pmf pmf = exact.pmf();
+        double[] k = pmf.cumulants();
+        return new ApproximateDistribution(
+                k[0], k[1], k[2], k[3], pmf.thirdAbsoluteMoment(), 1, pmf.min(), pmf.min(), exact.max(), true);
+    }
+
+    /**
+     * Normal só com média e variância, sem garantia de erro. Usada quando
+     * a expressão não é uma soma de independentes (kh/kl enormes, produtos).
+     */
+    static ApproximateDistribution normal(ExpressionSummary summary) {
+        return new ApproximateDistribution(
+                summary.mean(), summary.variance(), 0.0, 0.0, Double.NaN, 1, 0,
+                summary.min(), summary.max(), false);
+    }
+
+    /** X + Y independentes. */
+    ApproximateDistribution plus(ApproximateDistribution other) {
+        return new ApproximateDistribution(
+                k1 + other.k1, k2 + other.k2, k3 + other.k3, k4 + other.k4,
+                thirdAbsolute + other.thirdAbsolute,
+                gcd(span, other.span),
+                origin + other.origin,
+                min + other.min, max + other.max,
+                edgeworth && other.edgeworth
+        );
+    }
+
+    /** c·X. */
+    ApproximateDistribution times(long c) {
+        double c2 = (double) c * c;
+        double low = c >= 0 ? min * c : max * c;
+        double high = c >= 0 ? max * c : min * c;
+        return new ApproximateDistribution(
+                k1 * c, k2 * c2, k3 * c2 * c, k4 * c2 * c2,
+                thirdAbsolute * Math.abs(c2 * c),
+                Math.max(1, Math.abs(span * c)),
+                origin * c,
+                c == 0 ? 0 : low, c == 0 ? 0 : high,
+                edgeworth
+        );
+    }
+
+    @Override
+    public double mean() {
+        return k1;
+    }
+
+    @Override
+    public double variance() {
+        return k2;
+    }
+
+    @Override
+    public double min() {
+        return min;
+    }
+
+    @Override
+    public double max() {
+        return max;
+    }
+
+    @Override
+    public double cdf(long value) {
+        if (value < min) return 0.0;
+        if (value >= max) return 1.0;
+        if (k2 == 0.0) return value >= k1 ? 1.0 : 0.0;
+
+        double sigma = Math.sqrt(k2);
+        // Último ponto do reticulado ≤ value, deslocado de meio passo
+        long lattice = origin + Math.floorDiv(value - origin, span) * span;
+        double z = (lattice + span / 2.0 - k1) / sigma;
+        double f = Normal.cdf(z);
+        if (edgeworth) {
+            f -= correction(z, sigma);
+        }
+        return Math.max(0.0, Math.min(1.0, f));
+    }
+
+    @Override
+    public long percentile(double percentile) {
+        double p = ExactDistribution.probability(percentile);
+        double sigma = Math.sqrt(k2);
+        long low = (long) Math.floor(Math.max(min, k1 - 40 * sigma - 1));
+        long high = (long) Math.ceil(Math.min(max, k1 + 40 * sigma + 1));
+        while (low < high) {
+            long mid = low + (high - low) / 2;
+            if (cdf(mid) >= p) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return low;
+    }
+
+    @Override
+    public double errorBound() {
+        if (Double.isNaN(thirdAbsolute) || !edgeworth) {
+            return Double.NaN;
+        }
+        if (k2 == 0.0) {
+            return 0.0;
+        }
+        double sigma = Math.sqrt(k2);
+        double bound = BERRY_ESSEEN * thirdAbsolute / (k2 * sigma)
+                + Normal.density(0.0) * (span / 2.0) / sigma;
+        double largest = 0.0;
+        for (double z = -8.0; z <= 8.0; z += 0.01) {
+            largest = Math.max(largest, Math.abs(correction(z, sigma)));
+        }
+        return Math.min(1.0, bound + largest);
+    }
+
+    @Override
+    public boolean exact() {
+        return false;
+    }
+
+    /**
+     * φ(z)·[γ1/6·He2(z) + γ2/24·He3(z) + γ1²/72·He5(z)].
+     */
+    private double correction(double z, double sigma) {
+        double gamma1 = k3 / (k2 * sigma);
+        double gamma2 = k4 / (k2 * k2);
+        double z2 = z * z;
+        double he2 = z2 - 1;
+        double he3 = z * (z2 - 3);
+        double he5 = z * (z2 * z2 - 10 * z2 + 15);
+        return Normal.density(z) * (gamma1 / 6 * he2 + gamma2 / 24 * he3 + gamma1 * gamma1 / 72 * he5);
+    }
+
+    private static long gcd(long a, long b) {
+        while (b != 0) {
+            long t = a % b;
+            a = b;
+            b = t;
+        }
+        return Math.max(1, Math.abs(a));
+    }
+
+}
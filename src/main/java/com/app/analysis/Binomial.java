@@ -0,0 +1,92 @@
+package com.app.analysis;
+
+/**
+ * Somas sobre a distribuição Binomial(n, q) restritas a uma janela de
+ * ±40 desvios em torno da média, fora da qual a massa é desprezível.
+ */
+final class Binomial {
+
+    private Binomial() {}
+
+    /** E[max(0, B - threshold)]. */
+    static double expectedExcess(int n, double q, int threshold) {
+        if (q <= 0.0) return 0.0;
+        if (q >= 1.0) return Math.max(0, n - threshold);
+        double result = 0.0;
+        int[] window = window(n, q);
+        for (int i = Math.max(window[0], threshold + 1); i <= window[1]; i++) {
+            result += pmf(n, q, i) * (i - threshold);
+        }
+        return result;
+    }
+
+    /**
+     * Cumulantes κ1..κ4 e E|B - nq|³ aproximado por n·E|X - q|³ (Berry–Esseen).
+     */
+    static double[] cumulants(int n, double q) {
+        double pq = q * (1 - q);
+        return new double[] {
+                n * q,
+                n * pq,
+                n * pq * (1 - 2 * q),
+                n * pq * (1 - 6 * pq),
+                n * pq * (q * q + (1 - q) * (1 - q))
+        };
+    }
+
+    /** E[min(B, cap)]. */
+    static double expectedCapped(int n, double q, int cap) {
+        if (q <= 0.0) return 0.0;
+        if (q >= 1.0) return Math.min(n, cap);
+        double result = 0.0;
+        int[] window = window(n, q);
+        for (int i = window[0]; i <= window[1]; i++) {
+            result += pmf(n, q, i) * Math.min(i, cap);
+        }
+        return result;
+    }
+
+    static int[] window(int n, double q) {
+        double mean = n * q;
+        double spread = 40.0 * Math.sqrt(n * q * (1 - q)) + 1.0;
+        return new int[] {
+                (int) Math.max(0, Math.floor(mean - spread)),
+                (int) Math.min(n, Math.ceil(mean + spread))
+        };
+    }
+
+    static double pmf(int n, double q, int i) {
+        return Math.exp(logChoose(n, i) + i * Math.log(q) + (n - i) * Math.log1p(-q));
+    }
+
+    static double logChoose(int n, int k) {
+        return logGamma(n + 1.0) - logGamma(k + 1.0) - logGamma(n - k + 1.0);
+    }
+
+    /** Lanczos (g = 7, 9 termos), erro relativo ~1e-15. */
+    static double logGamma(double x) {
+        if (x < 0.5) {
+            return Math.log(Math.PI / Math.abs(Math.sin(Math.PI * x))) - logGamma(1 - x);
+        }
+        x -= 1;
+        double a = LANCZOS[0];
+        double t = x + 7.5;
+        for (int i = 1; i < LANCZOS.length; i++) {
+            a += LANCZOS[i] / (x + i);
+        }
+        return 0.5 * Math.log(2 * Math.PI) + (x + 0.5) * Math.log(t) - t + Math.log(a);
+    }
+
+    private static final double[] LANCZOS = {
+            0.99999999999980993,
+            676.5203681218851,
+            -1259.1392167224028,
+            771.32342877765313,
+            -176.61502916214059,
+            12.507343278686905,
+            -0.13857109526572012,
+            9.9843695780195716e-6,
+            1.5056327351493116e-7
+    };
+
+}
@@ -0,0 +1,158 @@
+package com.app.analysis;
+
+import com.app.parser.DiceParser;
+import com.app.parser.ExplosionCondition;
+import com.app.parser.Lexer;
+import com.app.parser.modifiers.DiceModifier;
+import com.app.parser.modifiers.ExplosionModifier;
+import com.app.parser.modifiers.KeepHighestModifier;
+import com.app.parser.modifiers.KeepLowestModifier;
+import com.app.parser.nodes.BinaryOperationNode;
+import com.app.parser.nodes.DiceNode;
+import com.app.parser.nodes.Node;
+import com.app.parser.nodes.NodeFolder;
+import com.app.parser.nodes.NodeMemo;
+import com.app.parser.nodes.NumberNode;
+import com.app.parser.nodes.VariableNode;
+
+/**
+ * Estima estaticamente o trabalho de avaliar uma expressão, sem rolar
+ * dados, para rotear ou rejeitar expressões caras antes da avaliação.
+ * <br>
+ * Cada explosão é uma cadeia geométrica: o primeiro disparo tem
+ * probabilidade p0 (sobre a última rolagem) e cada rolagem extra dispara
+ * de novo com probabilidade p1, então as explosões esperadas por dado são
+ * p0·(1 - p1^L)/(1 - p1), com L o limite. As probabilidades saem das
+ * condições em O(1) ({@link ExplosionCondition#countMatching}), então o
+ * custo da estimativa não depende do número de lados. Com várias
+ * explosões, cada uma é estimada a partir de uma rolagem uniforme.
+ * <br>
+ * Memorizado por AST, como o {@link ExpressionAnalyzer}.
+ */
+public final class CostEstimator {
+
+    /** Probabilidade da cauda desconsiderada no pior caso. */
+    static final double WORST_CASE_TAIL = 1e-9;
+
+    private static final NodeMemo<Node, ExpressionCost> COSTS = new NodeMemo<>();
+
+    private static final Folder FOLDER = new Folder();
+
+    private CostEstimator() {}
+
+    public static ExpressionCost estimate(String expression) {
+        return estimate(new DiceParser(new Lexer(expression).tokenize()).parse());
+    }
+
+    public static ExpressionCost estimate(Node ast) {
+        return COSTS.get(ast, FOLDER::fold);
+    }
+
+    /*
+        ========== DADOS ==========
+    */
+
+    private static ExpressionCost dice(DiceNode node) {
+
+        long quantity = node.quantity();
+        int sides = node.sides();
+
+        double expectedExtra = 0.0;
+        double worstExtra = 0.0;
+        boolean keep = false;
+
+        for (DiceModifier mod : node.modifiers()) {
+            if (mod instanceof ExplosionModifier exp) {
+                double p0 = (double) triggering(exp, sides, 0) / sides;
+                double p1 = (double) triggering(exp, sides, penalty(exp)) / sides;
+                long limit = exp.limit() == null ? Long.MAX_VALUE : exp.limit();
+                expectedExtra += p0 * chainLength(p1, limit);
+                worstExtra += p0 == 0.0 ? 0.0 : worstChain(p1, limit);
+            } else if (mod instanceof KeepHighestModifier || mod instanceof KeepLowestModifier) {
+                keep = true;
+            }
+        }
+
+        double selection = keep && quantity > 1
+                ? quantity * (Math.log(quantity) / Math.log(2))
+                : 0.0;
+
+        return new ExpressionCost(
+                quantity,
+                quantity * (1.0 + expectedExtra),
+                quantity * (1.0 + worstExtra),
+                selection
+        );
+    }
+
+    /** Σ_{j<L} p^j: rolagens extras esperadas após o primeiro disparo. */
+    private static double chainLength(double p, long limit) {
+        if (limit == 0) return 0.0;
+        if (p >= 1.0) return limit == Long.MAX_VALUE ? Double.POSITIVE_INFINITY : limit;
+        if (limit == Long.MAX_VALUE) return 1.0 / (1.0 - p);
+        return (1.0 - Math.pow(p, limit)) / (1.0 - p);
+    }
+
+    /** Menor k com P(cadeia > k) = p^k abaixo de {@link #WORST_CASE_TAIL}, limitado por L. */
+    private static double worstChain(double p, long limit) {
+        if (limit == 0) return 0.0;
+        if (p <= 0.0) return 1.0;
+        if (p >= 1.0) return limit == Long.MAX_VALUE ? Double.POSITIVE_INFINITY : limit;
+        double k = Math.ceil(Math.log(WORST_CASE_TAIL) / Math.log(p));
+        return Math.min(limit, Math.max(1.0, k));
+    }
+
+    /**
+     * Quantos valores brutos 1..sides disparam a explosão depois da
+     * penalidade penetrante (valor = max(1, bruto - penalty)).
+     */
+    private static int triggering(ExplosionModifier exp, int sides, int penalty) {
+        ExplosionCondition condition = exp.condition();
+        if (condition == null) {
+            // Explode no máximo: após a penalidade o máximo é inalcançável
+            return penalty == 0 || sides == 1 ? 1 : 0;
+        }
+        if (penalty == 0) {
+            return condition.countMatching(1, sides);
+        }
+        int clamped = condition.test(1) ? Math.min(sides, penalty + 1) : 0;
+        return clamped + condition.countMatching(2, sides - penalty);
+    }
+
+    private static int penalty(ExplosionModifier exp) {
+        return exp.penetrating() && exp.penalty() != null ? Math.max(0, exp.penalty()) : 0;
+    }
+
+    /*
+        ========== COMBINAÇÃO ==========
+    */
+
+    private static final class Folder implements NodeFolder<ExpressionCost> {
+
+        @Override
+        public ExpressionCost number(NumberNode node) {
+            return ExpressionCost.ZERO;
+        }
+
+        @Override
+        public ExpressionCost variable(VariableNode node) {
+            throw ExpressionAnalyzer.unbound(node);
+        }
+
+        @Override
+        public ExpressionCost dice(DiceNode node) {
+            if (node.hasVariables()) {
+                throw ExpressionAnalyzer.unbound(
+                        node.quantityVariable() != null ? node.quantityVariable() : node.sidesVariable()
+                );
+            }
+            return CostEstimator.dice(node);
+        }
+
+        @Override
+        public ExpressionCost binary(BinaryOperationNode node, ExpressionCost left, ExpressionCost right) {
+            return left.plus(right);
+        }
+    }
+
+}
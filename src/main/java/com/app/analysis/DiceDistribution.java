@@ -0,0 +1,46 @@
+package com.app.analysis;
+
+/**
+ * Distribuição do total de uma expressão.
+ * <br>
+ * Pools pequenos são calculados exatamente ({@link ExactDistribution});
+ * acima do limiar do {@link DistributionAnalyzer} a distribuição é
+ * aproximada ({@link ApproximateDistribution}) e {@link #errorBound()}
+ * informa o erro máximo da CDF.
+ */
+public sealed interface DiceDistribution permits ExactDistribution, ApproximateDistribution {
+
+    double mean();
+
+    double variance();
+
+    /** Menor total possível (pode ser -∞). */
+    double min();
+
+    /** Maior total possível (pode ser +∞). */
+    double max();
+
+    /** P(total ≤ value). */
+    double cdf(long value);
+
+    /**
+     * Menor total x com P(total ≤ x) ≥ percentile%, na mesma escala de
+     * {@link com.app.stats.RollHistogram#percentile}.
+     *
+     * @param percentile entre 0 e 100
+     */
+    long percentile(double percentile);
+
+    /**
+     * Limite superior para |cdf(x) - P(total ≤ x)| em qualquer x.
+     * NaN quando não há garantia (ex.: produto de aproximações).
+     */
+    double errorBound();
+
+    boolean exact();
+
+    default double standardDeviation() {
+        return Math.sqrt(variance());
+    }
+
+}
@@ -0,0 +1,373 @@
+package com.app.analysis;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import com.app.parser.ExplosionCondition;
+import com.app.parser.modifiers.DiceModifier;
+import com.app.parser.modifiers.ExplosionModifier;
+import com.app.parser.nodes.DiceNode;
+import com.app.roll.CustomDie;
+
+/**
+ * Modelo de um único dado com as explosões de um DiceNode, seguindo as
+ * mesmas regras do DiceEvaluator: a condição é testada sobre a última
+ * rolagem (já com a penalidade penetrante), o limite conta explosões e as
+ * explosões são aplicadas na ordem em que aparecem.
+ * <br>
+ * Dados de faces customizadas ({@link CustomDie}) não explodem: a
+ * distribuição vem direto dos pesos das faces.
+ */
+final class DieModel {
+
+    /** Massa de cauda abaixo da qual a distribuição é truncada. */
+    static final double TAIL_EPSILON = 1e-12;
+
+    /** Tamanho máximo do suporte da distribuição de um dado. */
+    static final int MAX_SUPPORT = 1 << 16;
+
+    private final int sides;
+    private final CustomDie custom;
+    private final List<ExplosionModifier> explosions;
+
+    /** Modelo do dado de um DiceNode literal, comum ou customizado. */
+    static DieModel of(DiceNode node) {
+        return new DieModel(node.sides(), node.customDie(), node.modifiers());
+    }
+
+    private DieModel(int sides, CustomDie custom, List<DiceModifier> modifiers) {
+        this.sides = sides;
+        this.custom = custom;
+        List<ExplosionModifier> found = new ArrayList<>();
+        for (DiceModifier mod : modifiers) {
+            if (mod instanceof ExplosionModifier exp) {
+                found.add(exp);
+            }
+        }
+        this.explosions = found;
+    }
+
+    int sides() {
+        return sides;
+    }
+
+    boolean explodes() {
+        return !explosions.isEmpty();
+    }
+
+    /**
+     * Faixa, média e variância do total de um dado. Sem explosões e com uma
+     * única explosão usa forma fechada; com várias, a distribuição.
+     */
+    ExpressionSummary summary() {
+        if (custom != null) {
+            return new ExpressionSummary(custom.min(), custom.max(), custom.mean(), custom.variance(), true);
+        }
+        if (explosions.isEmpty()) {
+            double m = sides;
+            return new ExpressionSummary(1, sides, (m + 1) / 2.0, (m * m - 1) / 12.0, true);
+        }
+        if (explosions.size() == 1) {
+            return singleExplosion(explosions.get(0));
+        }
+        Pmf pmf = pmf();
+        boolean unbounded = false;
+        for (ExplosionModifier exp : explosions) {
+            unbounded |= exp.limit() == null && canExplode(exp);
+        }
+        return new ExpressionSummary(
+                pmf.min(),
+                unbounded ? Double.POSITIVE_INFINITY : pmf.max(),
+                pmf.mean(),
+                pmf.variance(),
+                !pmf.truncated()
+        );
+    }
+
+    /**
+     * Distribuição do total de um dado. Sem explosões é uniforme; com
+     * explosões a massa que continua explodindo é propagada rolagem a
+     * rolagem até ficar abaixo de {@link #TAIL_EPSILON}.
+     */
+    Pmf pmf() {
+        if (custom != null) {
+            return customPmf();
+        }
+        if (explosions.isEmpty()) {
+            return Pmf.uniform(sides);
+        }
+
+        // states[v][t] = P(última rolagem = v, total = t)
+        double[][] states = new double[sides + 1][];
+        int length = sides + 1;
+        for (int v = 1; v <= sides; v++) {
+            states[v] = new double[length];
+            states[v][v] = 1.0 / sides;
+        }
+        boolean truncated = false;
+
+        for (ExplosionModifier exp : explosions) {
+            long limit = exp.limit() == null ? Long.MAX_VALUE : exp.limit();
+            for (long iteration = 1; iteration <= limit; iteration++) {
+
+                double active = 0.0;
+                for (int v = 1; v <= sides; v++) {
+                    if (shouldExplode(exp, v)) {
+                        active += sum(states[v]);
+                    }
+                }
+                if (active == 0.0) {
+                    break;
+                }
+                if (active < TAIL_EPSILON || length + sides > MAX_SUPPORT) {
+                    truncated = true;
+                    break;
+                }
+
+                int next = length + sides;
+                double[][] moved = new double[sides + 1][];
+                for (int v = 1; v <= sides; v++) {
+                    moved[v] = new double[next];
+                    if (!shouldExplode(exp, v)) {
+                        System.arraycopy(states[v], 0, moved[v], 0, length);
+                    }
+                }
+                for (int v = 1; v <= sides; v++) {
+                    if (!shouldExplode(exp, v)) {
+                        continue;
+                    }
+                    double[] from = states[v];
+                    for (int raw = 1; raw <= sides; raw++) {
+                        int y = explosionValue(exp, raw);
+                        double[] to = moved[y];
+                        for (int t = 0; t < length; t++) {
+                            to[t + y] += from[t] / sides;
+                        }
+                    }
+                }
+                states = moved;
+                length = next;
+            }
+        }
+
+        double[] total = new double[length];
+        for (int v = 1; v <= sides; v++) {
+            for (int t = 0; t < length; t++) {
+                total[t] += states[v][t];
+            }
+        }
+        int first = 0;
+        while (first < length - 1 && total[first] == 0.0) first++;
+        int last = length - 1;
+        while (last > first && total[last] == 0.0) last--;
+        return new Pmf(first, Arrays.copyOfRange(total, first, last + 1), truncated);
+    }
+
+    /**
+     * Probabilidade de o total de um dado satisfazer a condição (contagem
+     * de sucessos). Sem explosões é exata em O(1).
+     */
+    double successProbability(ExplosionCondition condition) {
+        if (custom != null) {
+            return (double) custom.weight(condition::test) / custom.totalWeight();
+        }
+        if (explosions.isEmpty()) {
+            return (double) condition.countMatching(1, sides) / sides;
+        }
+        Pmf pmf = pmf();
+        double p = 0.0;
+        for (int i = 0; i < pmf.size(); i++) {
+            if (condition.test(pmf.offset() + i)) {
+                p += pmf.probability(i);
+            }
+        }
+        return Math.min(1.0, p);
+    }
+
+    /**
+     * Pesos das faces sobre a faixa min..max; faces repetidas se somam.
+     */
+    private Pmf customPmf() {
+        long span = (long) custom.max() - custom.min() + 1;
+        if (span > MAX_SUPPORT) {
+            throw new IllegalArgumentException(
+                    "Faces de " + custom + " cobrem mais de " + MAX_SUPPORT + " valores");
+        }
+        double[] p = new double[(int) span];
+        for (int i = 0; i < custom.faceCount(); i++) {
+            p[custom.face(i) - custom.min()] += (double) custom.weight(i) / custom.totalWeight();
+        }
+        return new Pmf(custom.min(), p, false);
+    }
+
+    /*
+        ========== EXPLOSÃO ÚNICA ==========
+    */
+
+    /**
+     * Seja R_j o total das rolagens extras com j explosões ainda permitidas:
+     * R_0 = 0 e R_j = Y + [c(Y)]·R_{j-1}, com Y independente de R_{j-1}.
+     * Daí E[R_j] = E[Y] + p·E[R_{j-1}] e
+     * E[R_j²] = E[Y²] + 2·E[Y·c(Y)]·E[R_{j-1}] + p·E[R_{j-1}²]; sem limite,
+     * as séries geométricas convergem para o ponto fixo.
+     */
+    private ExpressionSummary singleExplosion(ExplosionModifier exp) {
+
+        double m = sides;
+        long limit = exp.limit() == null ? Long.MAX_VALUE : exp.limit();
+
+        // Primeira rolagem X0 uniforme
+        double p0 = 0.0;
+        double s0 = 0.0;
+        for (int x = 1; x <= sides; x++) {
+            if (shouldExplode(exp, x)) {
+                p0 += 1.0 / m;
+                s0 += x / m;
+            }
+        }
+        double mean0 = (m + 1) / 2.0;
+        double square0 = (m + 1) * (2 * m + 1) / 6.0;
+
+        // Rolagens extras Y
+        double p1 = 0.0;
+        double meanY = 0.0;
+        double squareY = 0.0;
+        double s1 = 0.0;
+        for (int raw = 1; raw <= sides; raw++) {
+            int y = explosionValue(exp, raw);
+            meanY += y / m;
+            squareY += (double) y * y / m;
+            if (shouldExplode(exp, y)) {
+                p1 += 1.0 / m;
+                s1 += y / m;
+            }
+        }
+
+        double meanR = 0.0;
+        double squareR = 0.0;
+        if (limit > 0 && p0 > 0.0) {
+            if (p1 >= 1.0) {
+                if (limit == Long.MAX_VALUE) {
+                    // Todas as rolagens explodem: o dado nunca para
+                    return new ExpressionSummary(
+                            Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY,
+                            Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY, true);
+                }
+                double l = limit;
+                meanR = l * meanY;
+                squareR = l * squareY + meanY * meanY * l * (l - 1);
+            } else if (limit == Long.MAX_VALUE) {
+                meanR = meanY / (1 - p1);
+                squareR = (squareY + 2 * s1 * meanR) / (1 - p1);
+            } else {
+                for (long j = 1; j <= limit; j++) {
+                    double nextSquare = squareY + 2 * s1 * meanR + p1 * squareR;
+                    double nextMean = meanY + p1 * meanR;
+                    boolean converged = nextMean == meanR && nextSquare == squareR;
+                    meanR = nextMean;
+                    squareR = nextSquare;
+                    if (converged) break;
+                }
+            }
+        }
+
+        double mean = mean0 + p0 * meanR;
+        double square = square0 + 2 * s0 * meanR + p0 * squareR;
+        double variance = Math.max(0.0, square - mean * mean);
+
+        // Faixa
+        double minR = limit > 0 ? minExtra(exp, limit) : 0.0;
+        double maxR = limit > 0 ? maxExtra(exp, limit) : 0.0;
+        double min = Double.POSITIVE_INFINITY;
+        double max = Double.NEGATIVE_INFINITY;
+        for (int x = 1; x <= sides; x++) {
+            boolean explodes = limit > 0 && shouldExplode(exp, x);
+            min = Math.min(min, x + (explodes ? minR : 0.0));
+            max = Math.max(max, x + (explodes ? maxR : 0.0));
+        }
+
+        return new ExpressionSummary(min, max, mean, variance, true);
+    }
+
+    /** Menor soma possível das rolagens extras com até limit explosões. */
+    private double minExtra(ExplosionModifier exp, long limit) {
+        double minY = Double.POSITIVE_INFINITY;
+        double stop = Double.POSITIVE_INFINITY;
+        double chain = Double.POSITIVE_INFINITY;
+        for (int raw = 1; raw <= sides; raw++) {
+            int y = explosionValue(exp, raw);
+            minY = Math.min(minY, y);
+            if (shouldExplode(exp, y)) {
+                chain = Math.min(chain, y);
+            } else {
+                stop = Math.min(stop, y);
+            }
+        }
+        if (stop == Double.POSITIVE_INFINITY) {
+            // Toda rolagem extra explode de novo até o limite
+            return limit == Long.MAX_VALUE
+                    ? Double.POSITIVE_INFINITY
+                    : chain * (limit - 1) + minY;
+        }
+        double current = minY;
+        for (long j = 2; j <= limit; j++) {
+            double next = Math.min(stop, chain + current);
+            if (next == current) break;
+            current = next;
+        }
+        return current;
+    }
+
+    /** Maior soma possível das rolagens extras com até limit explosões. */
+    private double maxExtra(ExplosionModifier exp, long limit) {
+        double maxY = 0.0;
+        double chain = Double.NEGATIVE_INFINITY;
+        for (int raw = 1; raw <= sides; raw++) {
+            int y = explosionValue(exp, raw);
+            maxY = Math.max(maxY, y);
+            if (shouldExplode(exp, y)) {
+                chain = Math.max(chain, y);
+            }
+        }
+        if (chain == Double.NEGATIVE_INFINITY) {
+            return maxY;
+        }
+        if (limit == Long.MAX_VALUE) {
+            return Double.POSITIVE_INFINITY;
+        }
+        return chain * (limit - 1) + maxY;
+    }
+
+    /*
+        ========== REGRAS DO EVALUATOR ==========
+    */
+
+    private boolean canExplode(ExplosionModifier exp) {
+        for (int v = 1; v <= sides; v++) {
+            if (shouldExplode(exp, v)) return true;
+        }
+        return false;
+    }
+
+    private boolean shouldExplode(ExplosionModifier exp, int roll) {
+        if (exp.condition() != null) {
+            return exp.condition().test(roll);
+        }
+        return roll == sides;
+    }
+
+    private static int explosionValue(ExplosionModifier exp, int raw) {
+        if (exp.penetrating() && exp.penalty() != null) {
+            return Math.max(1, raw - exp.penalty());
+        }
+        return raw;
+    }
+
+    private static double sum(double[] values) {
+        double sum = 0.0;
+        for (double value : values) sum += value;
+        return sum;
+    }
+
+}
@@ -0,0 +1,226 @@
+package com.app.analysis;
+
+import com.app.parser.DiceParser;
+import com.app.parser.Lexer;
+import com.app.parser.TokenType;
+import com.app.parser.modifiers.DiceModifier;
+import com.app.parser.modifiers.KeepHighestModifier;
+import com.app.parser.modifiers.KeepLowestModifier;
+import com.app.parser.modifiers.SuccessCountModifier;
+import com.app.parser.nodes.BinaryOperationNode;
+import com.app.parser.nodes.DiceNode;
+import com.app.parser.nodes.Node;
+import com.app.parser.nodes.NodeFolder;
+import com.app.parser.nodes.NodeMemo;
+import com.app.parser.nodes.NumberNode;
+import com.app.parser.nodes.VariableNode;
+
+/**
+ * Distribuição completa do total de uma expressão, para consultas de
+ * percentis.
+ * <br>
+ * DiceNode com quantidade × lados até o limiar é convoluído exatamente;
+ * acima disso vira cumulantes e a distribuição é aproximada por Edgeworth
+ * ({@link ApproximateDistribution}), com limite de erro. Somas e
+ * diferenças continuam exatas enquanto o suporte do resultado não passar
+ * do limiar e o trabalho acumulado das convoluções da expressão inteira
+ * couber no orçamento; daí em diante a cadeia segue aproximada, então
+ * somas longas ("1d6+1d6+...") custam O(termos) depois da troca.
+ * <br>
+ * kh/kl enormes, produtos e divisões que não cabem na enumeração exata
+ * caem na normal com a média e variância do {@link ExpressionAnalyzer},
+ * sem garantia de erro.
+ */
+public final class DistributionAnalyzer {
+
+    public static final long DEFAULT_EXACT_THRESHOLD = 10_000;
+
+    /** Operações máximas das convoluções/enumerações exatas de uma expressão. */
+    static final double EXACT_BUDGET = 5e7;
+
+    private final long exactThreshold;
+    private final NodeMemo<Node, DiceDistribution> cache = new NodeMemo<>();
+
+    public DistributionAnalyzer() {
+        this(DEFAULT_EXACT_THRESHOLD);
+    }
+
+    /**
+     * @param exactThreshold maior quantidade × lados calculada exatamente
+     */
+    public DistributionAnalyzer(long exactThreshold) {
+        if (exactThreshold < 0) {
+            throw new IllegalArgumentException("exactThreshold deve ser >= 0");
+        }
+        this.exactThreshold = exactThreshold;
+    }
+
+    public DiceDistribution distribution(String expression) {
+        return distribution(new DiceParser(new Lexer(expression).tokenize()).parse());
+    }
+
+    public DiceDistribution distribution(Node ast) {
+        return cache.get(ast, node -> new Folder().fold(node));
+    }
+
+    /*
+        ========== DADOS ==========
+    */
+
+    private DiceDistribution dice(DiceNode node) {
+
+        int quantity = node.quantity();
+        DieModel die = DieModel.of(node);
+
+        SuccessCountModifier success = ExpressionAnalyzer.successModifier(node);
+        if (success != null) {
+            return successes(quantity, die, success);
+        }
+
+        DiceModifier keep = null;
+        for (DiceModifier mod : node.modifiers()) {
+            if (mod instanceof KeepHighestModifier || mod instanceof KeepLowestModifier) {
+                keep = mod;
+                break;
+            }
+        }
+        int count = keep instanceof KeepHighestModifier kh ? kh.count()
+                : keep instanceof KeepLowestModifier kl ? kl.count()
+                : quantity;
+
+        Pmf pmf = die.pmf();
+        boolean small = (long) quantity * pmf.size() <= exactThreshold;
+        double tail = pmf.truncated() ? quantity * DieModel.TAIL_EPSILON * node.modifiers().size() : 0.0;
+
+        if (count >= quantity) {
+            if (small) {
+                return new ExactDistribution(pmf.sumOf(quantity), tail);
+            }
+            double[] k = pmf.cumulants();
+            ExpressionSummary range = ExpressionAnalyzer.dice(node);
+            return new ApproximateDistribution(
+                    quantity * k[0], quantity * k[1], quantity * k[2], quantity * k[3],
+                    quantity * pmf.thirdAbsoluteMoment(), 1, (long) quantity * pmf.min(),
+                    range.min(), range.max(), true);
+        }
+
+        if (small && KeptSum.distributionCost(pmf, quantity, count) <= EXACT_BUDGET) {
+            return new ExactDistribution(
+                    KeptSum.distribution(pmf, quantity, count, keep instanceof KeepHighestModifier), tail);
+        }
+        return ApproximateDistribution.normal(ExpressionAnalyzer.dice(node));
+    }
+
+    /**
+     * Contagem de sucessos: Binomial exata na janela de ±40 desvios, ou
+     * Edgeworth pelos cumulantes da Binomial quando a janela é grande.
+     */
+    private DiceDistribution successes(int quantity, DieModel die, SuccessCountModifier success) {
+
+        double p = die.successProbability(success.condition());
+        double tail = die.explodes() && die.pmf().truncated() ? quantity * DieModel.TAIL_EPSILON : 0.0;
+
+        int[] window = Binomial.window(quantity, p);
+        if (p <= 0.0 || p >= 1.0 || window[1] - window[0] + 1 <= exactThreshold) {
+            return new ExactDistribution(Pmf.binomial(quantity, p), tail);
+        }
+        double[] k = Binomial.cumulants(quantity, p);
+        return new ApproximateDistribution(
+                k[0], k[1], k[2], k[3], k[4], 1, 0, 0, quantity, true);
+    }
+
+    /*
+        ========== COMBINAÇÃO ==========
+    */
+
+    /** Um por distribuição: acumula o trabalho exato gasto no percurso. */
+    private final class Folder implements NodeFolder<DiceDistribution> {
+
+        private double exactWork;
+
+        @Override
+        public DiceDistribution number(NumberNode node) {
+            return new ExactDistribution(Pmf.point(node.value()), 0.0);
+        }
+
+        @Override
+        public DiceDistribution variable(VariableNode node) {
+            throw ExpressionAnalyzer.unbound(node);
+        }
+
+        @Override
+        public DiceDistribution dice(DiceNode node) {
+            if (node.hasVariables()) {
+                throw ExpressionAnalyzer.unbound(
+                        node.quantityVariable() != null ? node.quantityVariable() : node.sidesVariable()
+                );
+            }
+            return DistributionAnalyzer.this.dice(node);
+        }
+
+        @Override
+        public DiceDistribution binary(BinaryOperationNode node, DiceDistribution left, DiceDistribution right) {
+
+            if (left instanceof ExactDistribution a && right instanceof ExactDistribution b
+                    && affordable(node, a.pmf(), b.pmf())) {
+                double error = a.errorBound() + b.errorBound();
+                Pmf result = switch (node.operator()) {
+                    case PLUS -> Pmf.convolve(a.pmf(), b.pmf());
+                    case MINUS -> Pmf.convolve(a.pmf(), b.pmf().negate());
+                    case MULTIPLY -> Pmf.combine(a.pmf(), b.pmf(), (x, y) -> x * y);
+                    case DIVIDE -> Pmf.combine(a.pmf(), b.pmf(), (x, y) -> x / y);
+                    default -> throw new IllegalStateException("Operador desconhecido: " + node.operator());
+                };
+                return new ExactDistribution(result, error);
+            }
+
+            return switch (node.operator()) {
+                case PLUS -> approximate(left).plus(approximate(right));
+                case MINUS -> approximate(left).plus(approximate(right).times(-1));
+                case MULTIPLY -> {
+                    if (constant(right) != null) {
+                        yield approximate(left).times(constant(right));
+                    }
+                    if (constant(left) != null) {
+                        yield approximate(right).times(constant(left));
+                    }
+                    yield ApproximateDistribution.normal(ExpressionAnalyzer.summarize(node));
+                }
+                case DIVIDE -> ApproximateDistribution.normal(ExpressionAnalyzer.summarize(node));
+                default -> throw new IllegalStateException("Operador desconhecido: " + node.operator());
+            };
+        }
+
+        /**
+         * Convolução exata só se o suporte da soma/diferença couber no
+         * limiar e o trabalho acumulado da expressão couber no orçamento.
+         */
+        private boolean affordable(BinaryOperationNode node, Pmf a, Pmf b) {
+            double work = (double) a.size() * b.size();
+            boolean additive = node.operator() == TokenType.PLUS || node.operator() == TokenType.MINUS;
+            if (additive && a.size() > 1 && b.size() > 1
+                    && (long) a.size() + b.size() - 1 > exactThreshold) {
+                return false;
+            }
+            if (exactWork + work > EXACT_BUDGET) {
+                return false;
+            }
+            exactWork += work;
+            return true;
+        }
+
+        private ApproximateDistribution approximate(DiceDistribution distribution) {
+            return distribution instanceof ExactDistribution exact
+                    ? ApproximateDistribution.of(exact)
+                    : (ApproximateDistribution) distribution;
+        }
+
+        private Integer constant(DiceDistribution distribution) {
+            if (distribution instanceof ExactDistribution exact && exact.pmf().size() == 1) {
+                return exact.pmf().min();
+            }
+            return null;
+        }
+    }
+
+}
@@ -0,0 +1,97 @@
+package com.app.analysis;
+
+/**
+ * Distribuição calculada por convolução exata. O único erro possível é a
+ * cauda descartada de explosões sem limite (massa &lt; 1e-12 por dado).
+ */
+public final class ExactDistribution implements DiceDistribution {
+
+    private final Pmf pmf;
+    private final double[] cumulative;
+    private final double errorBound;
+
+    ExactDistribution(Pmf pmf, double errorBound) {
+        this.pmf = pmf;
+        this.errorBound = errorBound;
+        this.cumulative = new double[pmf.size()];
+        double sum = 0.0;
+        for (int i = 0; i < pmf.size(); i++) {
+            sum += pmf.probability(i);
+            cumulative[i] = sum;
+        }
+    }
+
+    Pmf pmf() {
+        return pmf;
+    }
+
+    /** P(total = value). */
+    public double probability(long value) {
+        long index = value - pmf.offset();
+        return index < 0 || index >= pmf.size() ? 0.0 : pmf.probability((int) index);
+    }
+
+    @Override
+    public double mean() {
+        return pmf.mean();
+    }
+
+    @Override
+    public double variance() {
+        return pmf.variance();
+    }
+
+    @Override
+    public double min() {
+        return pmf.min();
+    }
+
+    @Override
+    public double max() {
+        // Cauda descartada: o total real não tem limite conhecido
+        return pmf.truncated() ? Double.POSITIVE_INFINITY : pmf.max();
+    }
+
+    @Override
+    public double cdf(long value) {
+        long index = value - pmf.offset();
+        if (index < 0) return 0.0;
+        if (index >= cumulative.length) return 1.0;
+        return Math.min(1.0, cumulative[(int) index]);
+    }
+
+    @Override
+    public long percentile(double percentile) {
+        double p = probability(percentile);
+        int low = 0;
+        int high = cumulative.length - 1;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (cumulative[mid] >= p) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return (long) pmf.offset() + low;
+    }
+
+    @Override
+    public double errorBound() {
+        return errorBound;
+    }
+
+    @Override
+    public boolean exact() {
+        return true;
+    }
+
+    /** Converte o percentil (0 a 100, como nas estatísticas) em probabilidade. */
+    static double probability(double percentile) {
+        if (!(percentile >= 0.0 && percentile <= 100.0)) {
+            throw new IllegalArgumentException("Percentile must be in [0, 100], got: " + percentile);
+        }
+        return percentile / 100.0;
+    }
+
+}
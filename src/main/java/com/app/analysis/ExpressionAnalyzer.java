@@ -0,0 +1,288 @@
+package com.app.analysis;
+
+import java.util.List;
+
+import com.app.parser.DiceParser;
+import com.app.parser.Lexer;
+import com.app.parser.modifiers.DiceModifier;
+import com.app.parser.modifiers.KeepHighestModifier;
+import com.app.parser.modifiers.KeepLowestModifier;
+import com.app.parser.modifiers.SuccessCountModifier;
+import com.app.parser.nodes.BinaryOperationNode;
+import com.app.parser.nodes.DiceNode;
+import com.app.parser.nodes.Node;
+import com.app.parser.nodes.NodeFolder;
+import com.app.parser.nodes.NodeMemo;
+import com.app.parser.nodes.NumberNode;
+import com.app.parser.nodes.VariableNode;
+
+/**
+ * Calcula min, max, média e variância de uma expressão sem rolar dados,
+ * em uma passada sobre a AST.
+ * <br>
+ * - DiceNode sem modificadores: forma fechada da uniforme. <br>
+ * - kh/kl: estatísticas de ordem ({@link KeptSum}). <br>
+ * - Explosões: esperanças por séries geométricas ({@link DieModel}). <br>
+ * - Contagem de sucessos: Binomial(quantidade, p). <br>
+ * - + e -: somam médias e variâncias (dados independentes). <br>
+ * - *: produto de independentes. <br>
+ * - /: aproximação de primeira ordem (a divisão inteira trunca). <br>
+ * <br>
+ * Os resultados ficam memorizados por AST; como a AST é internada, a
+ * mesma expressão (ou subárvore de dados) parseada de novo reaproveita o
+ * resumo.
+ */
+public final class ExpressionAnalyzer {
+
+    private static final NodeMemo<Node, ExpressionSummary> SUMMARIES = new NodeMemo<>();
+
+    private static final NodeMemo<DiceNode, ExpressionSummary> DICE = new NodeMemo<>();
+
+    private static final Folder FOLDER = new Folder();
+
+    private ExpressionAnalyzer() {}
+
+    public static ExpressionSummary summarize(String expression) {
+        return summarize(new DiceParser(new Lexer(expression).tokenize()).parse());
+    }
+
+    public static ExpressionSummary summarize(Node ast) {
+        return SUMMARIES.get(ast, FOLDER::fold);
+    }
+
+    /** Análises exigem a expressão com as variáveis já substituídas. */
+    static IllegalArgumentException unbound(VariableNode variable) {
+        return new IllegalArgumentException(
+                "Variável não vinculada: $" + variable.name() + " (use ExpressionTemplate.bind)"
+        );
+    }
+
+    /** Resumo de um único DiceNode, memorizado. */
+    static ExpressionSummary dice(DiceNode node) {
+        return DICE.get(node, ExpressionAnalyzer::computeDice);
+    }
+
+    private static ExpressionSummary computeDice(DiceNode node) {
+
+        int quantity = node.quantity();
+        DieModel die = DieModel.of(node);
+
+        SuccessCountModifier success = successModifier(node);
+        if (success != null) {
+            // Binomial(quantidade, p)
+            double p = die.successProbability(success.condition());
+            return new ExpressionSummary(
+                    p >= 1.0 ? quantity : 0,
+                    p <= 0.0 ? 0 : quantity,
+                    quantity * p,
+                    quantity * p * (1 - p),
+                    !die.explodes() || !die.pmf().truncated()
+            );
+        }
+
+        DiceModifier keep = null;
+        for (DiceModifier mod : node.modifiers()) {
+            if (mod instanceof KeepHighestModifier || mod instanceof KeepLowestModifier) {
+                keep = mod;
+                break;
+            }
+        }
+
+        if (keep == null) {
+            ExpressionSummary one = die.summary();
+            return new ExpressionSummary(
+                    quantity == 0 ? 0 : quantity * one.min(),
+                    quantity == 0 ? 0 : quantity * one.max(),
+                    quantity == 0 ? 0 : quantity * one.mean(),
+                    quantity == 0 ? 0 : quantity * one.variance(),
+                    one.exact()
+            );
+        }
+
+        boolean highest = keep instanceof KeepHighestModifier;
+        int count = highest
+                ? ((KeepHighestModifier) keep).count()
+                : ((KeepLowestModifier) keep).count();
+
+        if (count >= quantity) {
+            return computeDice(node.customDie() != null
+                    ? new DiceNode(quantity, node.customDie(), withoutKeep(node))
+                    : new DiceNode(quantity, node.sides(), withoutKeep(node)));
+        }
+
+        ExpressionSummary kept = KeptSum.summarize(die.pmf(), quantity, count, highest);
+        if (die.explodes()) {
+            ExpressionSummary one = die.summary();
+            if (one.unboundedMax()) {
+                return new ExpressionSummary(kept.min(), Double.POSITIVE_INFINITY,
+                        kept.mean(), kept.variance(), kept.exact());
+            }
+        }
+        return kept;
+    }
+
+    static SuccessCountModifier successModifier(DiceNode node) {
+        for (DiceModifier mod : node.modifiers()) {
+            if (mod instanceof SuccessCountModifier success) {
+                return success;
+            }
+        }
+        return null;
+    }
+
+    private static List<DiceModifier> withoutKeep(DiceNode node) {
+        return node.modifiers().stream()
+                .filter(mod -> !(mod instanceof KeepHighestModifier || mod instanceof KeepLowestModifier))
+                .toList();
+    }
+
+    /*
+        ========== COMBINAÇÃO ==========
+    */
+
+    private static final class Folder implements NodeFolder<ExpressionSummary> {
+
+        @Override
+        public ExpressionSummary number(NumberNode node) {
+            return ExpressionSummary.constant(node.value());
+        }
+
+        @Override
+        public ExpressionSummary variable(VariableNode node) {
+            throw unbound(node);
+        }
+
+        @Override
+        public ExpressionSummary dice(DiceNode node) {
+            if (node.hasVariables()) {
+                throw unbound(node.quantityVariable() != null ? node.quantityVariable() : node.sidesVariable());
+            }
+            return ExpressionAnalyzer.dice(node);
+        }
+
+        @Override
+        public ExpressionSummary binary(BinaryOperationNode node, ExpressionSummary left, ExpressionSummary right) {
+
+            boolean exact = left.exact() && right.exact();
+
+            return switch (node.operator()) {
+
+                case PLUS -> new ExpressionSummary(
+                        left.min() + right.min(),
+                        left.max() + right.max(),
+                        left.mean() + right.mean(),
+                        left.variance() + right.variance(),
+                        exact
+                );
+
+                case MINUS -> new ExpressionSummary(
+                        left.min() - right.max(),
+                        left.max() - right.min(),
+                        left.mean() - right.mean(),
+                        left.variance() + right.variance(),
+                        exact
+                );
+
+                case MULTIPLY -> {
+                    double[] corners = {
+                            times(left.min(), right.min()),
+                            times(left.min(), right.max()),
+                            times(left.max(), right.min()),
+                            times(left.max(), right.max())
+                    };
+                    double leftSquare = left.variance() + left.mean() * left.mean();
+                    double rightSquare = right.variance() + right.mean() * right.mean();
+                    double mean = left.mean() * right.mean();
+                    yield new ExpressionSummary(
+                            min(corners),
+                            max(corners),
+                            mean,
+                            Math.max(0.0, leftSquare * rightSquare - mean * mean),
+                            exact
+                    );
+                }
+
+                case DIVIDE -> divide(left, right);
+
+                default -> throw new IllegalStateException("Operador desconhecido: " + node.operator());
+            };
+        }
+
+        /**
+         * Com divisor constante a faixa é exata e média/variância são
+         * aproximadas por μ/c e σ²/c², corrigidas pelo truncamento; com
+         * divisor variável usa o método delta. Divisores que podem ser zero são ignorados na faixa.
+         */
+        private ExpressionSummary divide(ExpressionSummary left, ExpressionSummary right) {
+
+            boolean constantLeft = left.variance() == 0.0 && left.min() == left.max();
+            boolean constantRight = right.variance() == 0.0 && right.min() == right.max();
+
+            double[] divisors = {
+                    right.min(), right.max(),
+                    right.min() <= 1 && right.max() >= 1 ? 1 : right.max(),
+                    right.min() <= -1 && right.max() >= -1 ? -1 : right.min()
+            };
+            double min = Double.POSITIVE_INFINITY;
+            double max = Double.NEGATIVE_INFINITY;
+            for (double divisor : divisors) {
+                if (divisor == 0.0) continue;
+                for (double dividend : new double[] { left.min(), left.max() }) {
+                    double q = truncate(dividend, divisor);
+                    min = Math.min(min, q);
+                    max = Math.max(max, q);
+                }
+            }
+            if (min > max) {
+                // Divisor sempre zero
+                min = Double.NaN;
+                max = Double.NaN;
+            }
+
+            if (constantLeft && constantRight) {
+                double q = right.mean() == 0.0 ? Double.NaN : truncate(left.mean(), right.mean());
+                return new ExpressionSummary(q, q, q, 0.0, true);
+            }
+
+            double mu = right.mean();
+            if (constantRight) {
+                // O resto r = X mod c fica ~uniforme em 0..|c|-1: trunc(X/c) = (X - r)/c
+                double c = Math.abs(mu);
+                double mean = left.mean() / mu;
+                double variance = left.variance() / (mu * mu);
+                if (left.min() >= 0 && c > 1) {
+                    mean -= Math.signum(mu) * (c - 1) / (2 * c);
+                    variance += (c * c - 1) / (12 * c * c);
+                }
+                return new ExpressionSummary(min, max, mean, variance, false);
+            }
+            double mean = left.mean() / mu;
+            double variance = left.variance() / (mu * mu)
+                    + left.mean() * left.mean() * right.variance() / (mu * mu * mu * mu);
+            return new ExpressionSummary(min, max, mean, variance, false);
+        }
+
+        private static double truncate(double dividend, double divisor) {
+            double q = dividend / divisor;
+            return q < 0 ? Math.ceil(q) : Math.floor(q);
+        }
+
+        /** Produto em que 0·∞ = 0 (um fator zero anula o outro). */
+        private static double times(double a, double b) {
+            return a == 0.0 || b == 0.0 ? 0.0 : a * b;
+        }
+
+        private static double min(double[] values) {
+            double min = Double.POSITIVE_INFINITY;
+            for (double value : values) min = Math.min(min, value);
+            return min;
+        }
+
+        private static double max(double[] values) {
+            double max = Double.NEGATIVE_INFINITY;
+            for (double value : values) max = Math.max(max, value);
+            return max;
+        }
+    }
+
+}
@@ -0,0 +1,44 @@
+package com.app.analysis;
+
+/**
+ * Custo previsto de avaliar uma expressão com registro detalhado, em
+ * unidades de trabalho (uma rolagem ≈ uma unidade).
+ * <br>
+ * dice: dados base; expectedRolls: rolagens esperadas (dados + explosões
+ * esperadas); worstCaseRolls: rolagens no pior caso plausível, com
+ * explosões sem limite cortadas na cauda de probabilidade 1e-9 (infinito
+ * se o dado nunca para); selectionWork: comparações para ordenar os pools
+ * com kh/kl (n·log2 n).
+ */
+public record ExpressionCost(
+        long dice,
+        double expectedRolls,
+        double worstCaseRolls,
+        double selectionWork
+) {
+
+    public static final ExpressionCost ZERO = new ExpressionCost(0, 0.0, 0.0, 0.0);
+
+    public double expectedWork() {
+        return expectedRolls + selectionWork;
+    }
+
+    public double worstCaseWork() {
+        return worstCaseRolls + selectionWork;
+    }
+
+    ExpressionCost plus(ExpressionCost other) {
+        return new ExpressionCost(
+                saturatedAdd(dice, other.dice),
+                expectedRolls + other.expectedRolls,
+                worstCaseRolls + other.worstCaseRolls,
+                selectionWork + other.selectionWork
+        );
+    }
+
+    private static long saturatedAdd(long a, long b) {
+        long sum = a + b;
+        return ((a ^ sum) & (b ^ sum)) < 0 ? Long.MAX_VALUE : sum;
+    }
+
+}
@@ -0,0 +1,60 @@
+package com.app.analysis;
+
+/**
+ * Resumo analítico de uma expressão: faixa, média e variância do total,
+ * calculados sem rolar dados.
+ * <br>
+ * min/max são infinitos quando a expressão não tem limite (explosões sem
+ * limite). exact indica que nenhuma aproximação foi usada (apenas
+ * truncamentos de cauda abaixo de 1e-12).
+ */
+public record ExpressionSummary(
+        double min,
+        double max,
+        double mean,
+        double variance,
+        boolean exact
+) {
+
+    /** Resumo de uma constante. */
+    public static ExpressionSummary constant(int value) {
+        return new ExpressionSummary(value, value, value, 0.0, true);
+    }
+
+    public boolean unboundedMax() {
+        return max == Double.POSITIVE_INFINITY;
+    }
+
+    public boolean unboundedMin() {
+        return min == Double.NEGATIVE_INFINITY;
+    }
+
+    public double standardDeviation() {
+        return Math.sqrt(variance);
+    }
+
+    /**
+     * Texto curto para tooltips, ex.: "6–20, avg 13" ou "1–∞, avg 4.2".
+     */
+    public String toLabel() {
+        return bound(min) + "–" + bound(max) + ", avg " + number(mean);
+    }
+
+    private static String bound(double value) {
+        if (Double.isInfinite(value)) {
+            return value > 0 ? "∞" : "-∞";
+        }
+        return Long.toString((long) value);
+    }
+
+    private static String number(double value) {
+        if (Double.isInfinite(value)) {
+            return value > 0 ? "∞" : "-∞";
+        }
+        double rounded = Math.round(value * 10.0) / 10.0;
+        return rounded == Math.rint(rounded)
+                ? Long.toString((long) rounded)
+                : Double.toString(rounded);
+    }
+
+}
@@ -0,0 +1,229 @@
+package com.app.analysis;
+
+/**
+ * Média e variância da soma dos k maiores (ou menores) de n dados
+ * independentes com a mesma distribuição.
+ * <br>
+ * Até {@link #EXACT_BUDGET} operações a conta é exata: as faces são
+ * percorridas da melhor para a pior, distribuindo os dados restantes
+ * (coeficiente multinomial) e acumulando só P, E[S] e E[S²] por número de
+ * dados já atribuídos. Acima disso a média vem das estatísticas de ordem
+ * (caudas binomiais) e a variância da aproximação assintótica de somas
+ * aparadas.
+ */
+final class KeptSum {
+
+    static final long EXACT_BUDGET = 4_000_000L;
+
+    private KeptSum() {}
+
+    static ExpressionSummary summarize(Pmf die, int quantity, int keep, boolean highest) {
+
+        int kept = Math.min(keep, quantity);
+        if (kept <= 0) {
+            return ExpressionSummary.constant(0);
+        }
+
+        double min = kept * (double) die.min();
+        double max = kept * (double) die.max();
+
+        if ((long) die.size() * (quantity + 1) * (quantity + 1) <= EXACT_BUDGET) {
+            double[] moments = exactMoments(die, quantity, kept, highest);
+            return new ExpressionSummary(min, max, moments[0], moments[1], !die.truncated());
+        }
+
+        double mean = orderStatisticMean(die, quantity, kept, highest);
+        double variance = asymptoticVariance(die, quantity, kept, highest);
+        return new ExpressionSummary(min, max, mean, variance, false);
+    }
+
+    /*
+        ========== EXATO ==========
+    */
+
+    private static double[] exactMoments(Pmf die, int quantity, int kept, boolean highest) {
+
+        double[] logFactorial = logFactorials(quantity);
+
+        // Índice = dados já atribuídos às faces visitadas
+        double[] p = new double[quantity + 1];
+        double[] m1 = new double[quantity + 1];
+        double[] m2 = new double[quantity + 1];
+        p[0] = 1.0;
+
+        int faces = die.size();
+        for (int f = 0; f < faces; f++) {
+
+            int index = highest ? faces - 1 - f : f;
+            double q = die.probability(index);
+            if (q == 0.0) {
+                continue;
+            }
+            double value = die.offset() + index;
+            double logQ = Math.log(q);
+
+            double[] np = new double[quantity + 1];
+            double[] nm1 = new double[quantity + 1];
+            double[] nm2 = new double[quantity + 1];
+
+            for (int c = 0; c <= quantity; c++) {
+                if (p[c] == 0.0) {
+                    continue;
+                }
+                int free = quantity - c;
+                int slots = Math.max(0, kept - c);
+                for (int t = 0; t <= free; t++) {
+                    double w = t == 0 ? 1.0 : Math.exp(
+                            logFactorial[free] - logFactorial[t] - logFactorial[free - t] + t * logQ);
+                    if (w == 0.0) {
+                        continue;
+                    }
+                    double a = value * Math.min(t, slots);
+                    np[c + t] += w * p[c];
+                    nm1[c + t] += w * (m1[c] + a * p[c]);
+                    nm2[c + t] += w * (m2[c] + 2 * a * m1[c] + a * a * p[c]);
+                }
+            }
+            p = np;
+            m1 = nm1;
+            m2 = nm2;
+        }
+
+        double total = p[quantity];
+        double mean = m1[quantity] / total;
+        double variance = Math.max(0.0, m2[quantity] / total - mean * mean);
+        return new double[] { mean, variance };
+    }
+
+    /**
+     * Custo da distribuição exata: faces × n² × suporte da soma mantida.
+     */
+    static double distributionCost(Pmf die, int quantity, int keep) {
+        int kept = Math.min(keep, quantity);
+        return (double) die.size() * (quantity + 1) * (quantity + 1) * ((double) kept * (die.size() - 1) + 1);
+    }
+
+    /**
+     * Distribuição exata da soma mantida: o mesmo percurso de faces de
+     * {@link #summarize}, guardando a soma completa em vez dos momentos.
+     * A soma é relativa a k·min.
+     */
+    static Pmf distribution(Pmf die, int quantity, int keep, boolean highest) {
+
+        int kept = Math.min(keep, quantity);
+        if (kept <= 0) {
+            return Pmf.point(0);
+        }
+
+        double[] logFactorial = logFactorials(quantity);
+        int width = kept * (die.size() - 1) + 1;
+        double[][] dp = new double[quantity + 1][];
+        dp[0] = new double[width];
+        dp[0][0] = 1.0;
+
+        int faces = die.size();
+        for (int f = 0; f < faces; f++) {
+
+            int index = highest ? faces - 1 - f : f;
+            double q = die.probability(index);
+            if (q == 0.0) {
+                continue;
+            }
+            double logQ = Math.log(q);
+
+            double[][] next = new double[quantity + 1][];
+            for (int c = 0; c <= quantity; c++) {
+                if (dp[c] == null) {
+                    continue;
+                }
+                int free = quantity - c;
+                int slots = Math.max(0, kept - c);
+                for (int t = 0; t <= free; t++) {
+                    double w = t == 0 ? 1.0 : Math.exp(
+                            logFactorial[free] - logFactorial[t] - logFactorial[free - t] + t * logQ);
+                    if (w == 0.0) {
+                        continue;
+                    }
+                    int shift = index * Math.min(t, slots);
+                    double[] from = dp[c];
+                    double[] to = next[c + t];
+                    if (to == null) {
+                        to = next[c + t] = new double[width];
+                    }
+                    for (int s = 0; s + shift < width; s++) {
+                        if (from[s] != 0.0) {
+                            to[s + shift] += w * from[s];
+                        }
+                    }
+                }
+            }
+            dp = next;
+        }
+
+        double[] result = dp[quantity] == null ? new double[width] : dp[quantity];
+        return new Pmf(kept * die.min(), result, die.truncated());
+    }
+
+    private static double[] logFactorials(int n) {
+        double[] logFactorial = new double[n + 1];
+        for (int i = 2; i <= n; i++) {
+            logFactorial[i] = logFactorial[i - 1] + Math.log(i);
+        }
+        return logFactorial;
+    }
+
+    /*
+        ========== APROXIMADO ==========
+    */
+
+    /**
+     * E[S] = k·min + Σ_v P(dado mantido &gt; v), com a contagem de dados ≤ v
+     * seguindo Binomial(n, F(v)).
+     */
+    private static double orderStatisticMean(Pmf die, int quantity, int kept, boolean highest) {
+
+        double mean = kept * (double) die.min();
+        double cdf = 0.0;
+
+        for (int i = 0; i < die.size() - 1; i++) {
+            cdf += die.probability(i);
+            // Esperança de quantos mantidos estão em ≤ v
+            double atOrBelow = highest
+                    ? Binomial.expectedExcess(quantity, cdf, quantity - kept)
+                    : Binomial.expectedCapped(quantity, cdf, kept);
+            mean += kept - atOrBelow;
+        }
+        return mean;
+    }
+
+    /**
+     * Var(S) ≈ n·[f·σ_T² + f·(1 - f)·(μ_T - ξ)²], com f = k/n, ξ o quantil
+     * de corte e T a cauda mantida.
+     */
+    private static double asymptoticVariance(Pmf die, int quantity, int kept, boolean highest) {
+
+        double fraction = (double) kept / quantity;
+        double remaining = fraction;
+        double mass = 0.0;
+        double sum = 0.0;
+        double square = 0.0;
+        double cut = highest ? die.max() : die.min();
+
+        for (int f = 0; f < die.size() && remaining > 0.0; f++) {
+            int index = highest ? die.size() - 1 - f : f;
+            double value = die.offset() + index;
+            double take = Math.min(remaining, die.probability(index));
+            mass += take;
+            sum += take * value;
+            square += take * value * value;
+            remaining -= take;
+            cut = value;
+        }
+
+        double tailMean = sum / mass;
+        double tailVariance = Math.max(0.0, square / mass - tailMean * tailMean);
+        double gap = tailMean - cut;
+        return quantity * (fraction * tailVariance + fraction * (1 - fraction) * gap * gap);
+    }
+
+}
@@ -0,0 +1,216 @@
+package com.app.analysis;
+
+import java.util.Arrays;
+import java.util.function.IntBinaryOperator;
+
+/**
+ * Função de massa de probabilidade sobre inteiros consecutivos:
+ * probabilities[i] = P(X = offset + i).
+ */
+final class Pmf {
+
+    private final int offset;
+    private final double[] probabilities;
+    private final boolean truncated;
+
+    Pmf(int offset, double[] probabilities, boolean truncated) {
+        this.offset = offset;
+        this.probabilities = probabilities;
+        this.truncated = truncated;
+    }
+
+    /** Uniforme em 1..sides (dado comum). */
+    static Pmf uniform(int sides) {
+        double[] p = new double[sides];
+        Arrays.fill(p, 1.0 / sides);
+        return new Pmf(1, p, false);
+    }
+
+    /** Massa unitária em value (constante). */
+    static Pmf point(int value) {
+        return new Pmf(value, new double[] { 1.0 }, false);
+    }
+
+    /**
+     * Binomial(n, q) restrita à janela de ±40 desvios ({@link Binomial}),
+     * fora da qual a massa está abaixo da precisão de double.
+     */
+    static Pmf binomial(int n, double q) {
+        if (q <= 0.0) return point(0);
+        if (q >= 1.0) return point(n);
+        int[] window = Binomial.window(n, q);
+        double[] p = new double[window[1] - window[0] + 1];
+        for (int i = 0; i < p.length; i++) {
+            p[i] = Binomial.pmf(n, q, window[0] + i);
+        }
+        return new Pmf(window[0], p, false);
+    }
+
+    int offset() { return offset; }
+    int size() { return probabilities.length; }
+    double probability(int index) { return probabilities[index]; }
+    double[] probabilities() { return probabilities; }
+
+    /** Indica se parte da cauda (massa &lt; 1e-12) foi descartada. */
+    boolean truncated() { return truncated; }
+
+    int min() { return offset; }
+    int max() { return offset + probabilities.length - 1; }
+
+    double mean() {
+        double mean = 0.0;
+        for (int i = 0; i < probabilities.length; i++) {
+            mean += (offset + i) * probabilities[i];
+        }
+        return mean;
+    }
+
+    double variance() {
+        double mean = mean();
+        double variance = 0.0;
+        for (int i = 0; i < probabilities.length; i++) {
+            double d = offset + i - mean;
+            variance += d * d * probabilities[i];
+        }
+        return variance;
+    }
+
+    double thirdAbsoluteMoment() {
+        double mean = mean();
+        double moment = 0.0;
+        for (int i = 0; i < probabilities.length; i++) {
+            double d = Math.abs(offset + i - mean);
+            moment += d * d * d * probabilities[i];
+        }
+        return moment;
+    }
+
+    /** Cumulantes κ1..κ4. */
+    double[] cumulants() {
+        double mean = mean();
+        double m2 = 0.0;
+        double m3 = 0.0;
+        double m4 = 0.0;
+        for (int i = 0; i < probabilities.length; i++) {
+            double d = offset + i - mean;
+            double d2 = d * d;
+            m2 += d2 * probabilities[i];
+            m3 += d2 * d * probabilities[i];
+            m4 += d2 * d2 * probabilities[i];
+        }
+        return new double[] { mean, m2, m3, m4 - 3 * m2 * m2 };
+    }
+
+    /*
+        ========== OPERAÇÕES ==========
+    */
+
+    /** Distribuição de X + Y com X e Y independentes. */
+    static Pmf convolve(Pmf a, Pmf b) {
+        double[] result = new double[a.size() + b.size() - 1];
+        for (int i = 0; i < a.size(); i++) {
+            double pa = a.probabilities[i];
+            if (pa == 0.0) continue;
+            for (int j = 0; j < b.size(); j++) {
+                result[i + j] += pa * b.probabilities[j];
+            }
+        }
+        return new Pmf(a.offset + b.offset, result, a.truncated || b.truncated);
+    }
+
+    /**
+     * Soma de n cópias independentes. A uniforme usa janela deslizante
+     * (O(n·suporte)); as demais, quadrados sucessivos.
+     */
+    Pmf sumOf(int n) {
+        if (n == 0) {
+            return point(0);
+        }
+        if (isUniform()) {
+            int width = probabilities.length;
+            double p = probabilities[0];
+            double[] current = { 1.0 };
+            for (int k = 0; k < n; k++) {
+                double[] next = new double[current.length + width - 1];
+                double window = 0.0;
+                for (int t = 0; t < next.length; t++) {
+                    if (t < current.length) window += current[t];
+                    if (t - width >= 0) window -= current[t - width];
+                    next[t] = window * p;
+                }
+                current = next;
+            }
+            return new Pmf(offset * n, current, false);
+        }
+        Pmf result = null;
+        Pmf base = this;
+        for (int k = n; k > 0; k >>= 1) {
+            if ((k & 1) != 0) {
+                result = result == null ? base : convolve(result, base);
+            }
+            if (k > 1) {
+                base = convolve(base, base);
+            }
+        }
+        return result;
+    }
+
+    /** Distribuição de -X. */
+    Pmf negate() {
+        double[] result = new double[probabilities.length];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = probabilities[probabilities.length - 1 - i];
+        }
+        return new Pmf(-max(), result, truncated);
+    }
+
+    /**
+     * Distribuição de op(X, Y) por enumeração dos pares. Pares em que op
+     * lança ArithmeticException (divisão por zero) são descartados e a
+     * massa restante renormalizada.
+     */
+    static Pmf combine(Pmf a, Pmf b, IntBinaryOperator op) {
+        long low = Long.MAX_VALUE;
+        long high = Long.MIN_VALUE;
+        for (int i = 0; i < a.size(); i++) {
+            for (int j = 0; j < b.size(); j++) {
+                try {
+                    int v = op.applyAsInt(a.offset + i, b.offset + j);
+                    low = Math.min(low, v);
+                    high = Math.max(high, v);
+                } catch (ArithmeticException e) {
+                    // par descartado
+                }
+            }
+        }
+        if (low > high) {
+            throw new ArithmeticException("Division by zero");
+        }
+        double[] result = new double[(int) (high - low + 1)];
+        double total = 0.0;
+        for (int i = 0; i < a.size(); i++) {
+            for (int j = 0; j < b.size(); j++) {
+                double p = a.probabilities[i] * b.probabilities[j];
+                if (p == 0.0) continue;
+                try {
+                    result[(int) (op.applyAsInt(a.offset + i, b.offset + j) - low)] += p;
+                    total += p;
+                } catch (ArithmeticException e) {
+                    // par descartado
+                }
+            }
+        }
+        for (int i = 0; i < result.length; i++) {
+            result[i] /= total;
+        }
+        return new Pmf((int) low, result, a.truncated || b.truncated);
+    }
+
+    private boolean isUniform() {
+        for (double p : probabilities) {
+            if (p != probabilities[0]) return false;
+        }
+        return !truncated;
+    }
+
+}
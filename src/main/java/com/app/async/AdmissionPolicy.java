@@ -0,0 +1,117 @@
+package com.app.async;
+
+import com.app.analysis.ExpressionCost;
+
+/**
+ * Decide onde cada expressão é avaliada a partir do custo estimado
+ * ({@link com.app.analysis.CostEstimator}), protegendo a latência das
+ * rolagens comuns quando alguém envia um pool gigante.
+ * <br>
+ * - INLINE: custo esperado até inlineWork, na thread chamadora; <br>
+ * - STANDARD: no executor padrão; <br>
+ * - HEAVY: custo esperado acima de heavyWork, ou pior caso acima de
+ *   heavyWorstCaseWork, no executor limitado de expressões pesadas; <br>
+ * - REJECT: custo esperado acima de rejectWork, ou pior caso acima de
+ *   rejectWorstCaseWork; nem chega a ser avaliada.
+ * <br>
+ * Imutável; cada with* retorna uma nova instância.
+ */
+public final class AdmissionPolicy {
+
+    /** Destino de uma expressão. */
+    public enum Decision {
+        INLINE,
+        STANDARD,
+        HEAVY,
+        REJECT
+    }
+
+    private static final AdmissionPolicy DEFAULTS = new AdmissionPolicy(
+            64, 100_000, 1_000_000, 50_000_000, Double.POSITIVE_INFINITY
+    );
+
+    private final double inlineWork;
+    private final double heavyWork;
+    private final double heavyWorstCaseWork;
+    private final double rejectWork;
+    private final double rejectWorstCaseWork;
+
+    private AdmissionPolicy(
+            double inlineWork,
+            double heavyWork,
+            double heavyWorstCaseWork,
+            double rejectWork,
+            double rejectWorstCaseWork
+    ) {
+        this.inlineWork = nonNegative(inlineWork);
+        this.heavyWork = nonNegative(heavyWork);
+        this.heavyWorstCaseWork = nonNegative(heavyWorstCaseWork);
+        this.rejectWork = nonNegative(rejectWork);
+        this.rejectWorstCaseWork = nonNegative(rejectWorstCaseWork);
+    }
+
+    /** 64 inline, pesado acima de 100k (ou 1M no pior caso), rejeita acima de 50M. */
+    public static AdmissionPolicy defaults() {
+        return DEFAULTS;
+    }
+
+    public AdmissionPolicy withInlineWork(double inlineWork) {
+        return new AdmissionPolicy(inlineWork, heavyWork, heavyWorstCaseWork, rejectWork, rejectWorstCaseWork);
+    }
+
+    public AdmissionPolicy withHeavyWork(double heavyWork) {
+        return new AdmissionPolicy(inlineWork, heavyWork, heavyWorstCaseWork, rejectWork, rejectWorstCaseWork);
+    }
+
+    public AdmissionPolicy withHeavyWorstCaseWork(double heavyWorstCaseWork) {
+        return new AdmissionPolicy(inlineWork, heavyWork, heavyWorstCaseWork, rejectWork, rejectWorstCaseWork);
+    }
+
+    public AdmissionPolicy withRejectWork(double rejectWork) {
+        return new AdmissionPolicy(inlineWork, heavyWork, heavyWorstCaseWork, rejectWork, rejectWorstCaseWork);
+    }
+
+    public AdmissionPolicy withRejectWorstCaseWork(double rejectWorstCaseWork) {
+        return new AdmissionPolicy(inlineWork, heavyWork, heavyWorstCaseWork, rejectWork, rejectWorstCaseWork);
+    }
+
+    public Decision decide(ExpressionCost cost) {
+        double expected = cost.expectedWork();
+        double worst = cost.worstCaseWork();
+        if (expected > rejectWork || worst > rejectWorstCaseWork) {
+            return Decision.REJECT;
+        }
+        if (expected > heavyWork || worst > heavyWorstCaseWork) {
+            return Decision.HEAVY;
+        }
+        if (expected <= inlineWork) {
+            return Decision.INLINE;
+        }
+        return Decision.STANDARD;
+    }
+
+    public double inlineWork() { return inlineWork; }
+    public double heavyWork() { return heavyWork; }
+    public double heavyWorstCaseWork() { return heavyWorstCaseWork; }
+    public double rejectWork() { return rejectWork; }
+    public double rejectWorstCaseWork() { return rejectWorstCaseWork; }
+
+    private static double nonNegative(double value) {
+        if (!(value >= 0)) {
+            throw new IllegalArgumentException("Limit must be >= 0, got: " + value);
+        }
+        return value;
+    }
+
+    @Override
+    public String toString() {
+        return "AdmissionPolicy{" +
+                "inlineWork=" + inlineWork +
+                ", heavyWork=" + heavyWork +
+                ", heavyWorstCaseWork=" + heavyWorstCaseWork +
+                ", rejectWork=" + rejectWork +
+                ", rejectWorstCaseWork=" + rejectWorstCaseWork +
+                '}';
+    }
+
+}
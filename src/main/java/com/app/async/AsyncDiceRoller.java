@@ -0,0 +1,183 @@
+package com.app.async;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
+
+import com.app.analysis.CostEstimator;
+import com.app.analysis.ExpressionCost;
+import com.app.parser.DiceEvaluator;
+import com.app.parser.DiceParser;
+import com.app.parser.Lexer;
+import com.app.parser.nodes.Node;
+import com.app.roll.DiceRoll;
+import com.app.roll.DiceRollResult;
+
+/**
+ * Fachada assíncrona para rolagens, para frontends reativos que não podem
+ * bloquear a thread do event loop.
+ * <br>
+ * O custo de cada expressão é estimado antes da avaliação
+ * ({@link CostEstimator}) e a {@link AdmissionPolicy} decide o destino:
+ * expressões baratas são avaliadas na própria thread chamadora, evitando
+ * o custo de handoff; as comuns vão para o executor configurado (virtual
+ * threads por padrão); as pesadas, para um executor limitado separado,
+ * então um pool gigante não disputa threads com o tráfego de 1d20; e as
+ * caras demais são rejeitadas sem avaliar.
+ * Cada avaliação usa seu próprio {@link DiceEvaluator}, então a fachada é
+ * thread-safe desde que o supplier de {@link DiceRoll} também seja.
+ */
+public final class AsyncDiceRoller {
+
+    /**
+     * Limite padrão de trabalho estimado (unidades do {@link CostEstimator},
+     * ≈ rolagens) para avaliação inline; ver {@link AdmissionPolicy#withInlineWork}.
+     */
+    public static final int DEFAULT_INLINE_WORK_THRESHOLD = 64;
+
+    private final Executor executor;
+    private final Executor heavyExecutor;
+    private final Supplier<DiceRoll> rolls;
+    private final AdmissionPolicy admission;
+
+    public AsyncDiceRoller(
+            Executor executor,
+            Executor heavyExecutor,
+            Supplier<DiceRoll> rolls,
+            AdmissionPolicy admission
+    ) {
+        this.executor = Objects.requireNonNull(executor, "Executor cannot be null");
+        this.heavyExecutor = Objects.requireNonNull(heavyExecutor, "Heavy executor cannot be null");
+        this.rolls = Objects.requireNonNull(rolls, "DiceRoll supplier cannot be null");
+        this.admission = Objects.requireNonNull(admission, "Admission policy cannot be null");
+    }
+
+    /** Política padrão, com inlineWorkThreshold como limite de trabalho inline. */
+    public AsyncDiceRoller(Executor executor, Supplier<DiceRoll> rolls, double inlineWorkThreshold) {
+        this(executor, RollExecutors.heavy(), rolls,
+                AdmissionPolicy.defaults().withInlineWork(inlineWorkThreshold));
+    }
+
+    public AsyncDiceRoller(Executor executor) {
+        this(executor, DiceRoll::defaultRNG, DEFAULT_INLINE_WORK_THRESHOLD);
+    }
+
+    /** Fachada com o executor compartilhado e RNG padrão. */
+    public static AsyncDiceRoller create() {
+        return new AsyncDiceRoller(RollExecutors.shared());
+    }
+
+    /**
+     * Rola a expressão de forma assíncrona.
+     * <br>
+     * Erros de sintaxe e de avaliação completam o future excepcionalmente.
+     */
+    public CompletableFuture<DiceRollResult> rollAsync(String expression) {
+        Node ast;
+        ExpressionCost cost;
+        AdmissionPolicy.Decision decision;
+        try {
+            ast = parse(expression);
+            // Estimar também falha (ex.: variáveis sem valor) e deve virar
+            // future falho, não exceção síncrona
+            cost = CostEstimator.estimate(ast);
+            decision = admission.decide(cost);
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+
+        switch (decision) {
+            case INLINE -> {
+                try {
+                    return CompletableFuture.completedFuture(evaluate(expression, ast));
+                } catch (RuntimeException e) {
+                    return CompletableFuture.failedFuture(e);
+                }
+            }
+            case REJECT -> {
+                return CompletableFuture.failedFuture(rejected(expression, cost));
+            }
+            case HEAVY -> {
+                return supplyAsync(expression, ast, heavyExecutor);
+            }
+            default -> {
+                return supplyAsync(expression, ast, executor);
+            }
+        }
+    }
+
+    /** Decisão da política para a expressão, sem avaliá-la. */
+    public AdmissionPolicy.Decision admission(String expression) {
+        return admission.decide(CostEstimator.estimate(parse(expression)));
+    }
+
+    private static RejectedExecutionException rejected(String expression, ExpressionCost cost) {
+        return new RejectedExecutionException(
+                "Expressão excede o custo admitido: " + expression + " (" + cost + ")");
+    }
+
+    /** Executor lotado (RejectedExecutionException) também completa o future. */
+    private CompletableFuture<DiceRollResult> supplyAsync(String expression, Node ast, Executor target) {
+        try {
+            return CompletableFuture.supplyAsync(() -> evaluate(expression, ast), target);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * Publisher que rola a mesma expressão count vezes, respeitando a
+     * demanda do assinante. Cada rolagem segue a decisão da
+     * {@link AdmissionPolicy}, como em {@link #rollAsync}; erros de sintaxe
+     * e expressões rejeitadas chegam via onError.
+     */
+    public Flow.Publisher<DiceRollResult> rollPublisher(String expression, long count) {
+        if (count < 0) {
+            throw new IllegalArgumentException("Count must be >= 0, got: " + count);
+        }
+        return publisher(List.of(expression), count);
+    }
+
+    /**
+     * Publisher que rola cada expressão do lote uma vez, na ordem informada,
+     * cada uma no destino decidido pela {@link AdmissionPolicy}. O erro da
+     * primeira expressão inválida ou rejeitada chega via onError, sem
+     * emitir nenhuma rolagem.
+     */
+    public Flow.Publisher<DiceRollResult> batchPublisher(List<String> expressions) {
+        return publisher(List.copyOf(expressions), 1);
+    }
+
+    private Flow.Publisher<DiceRollResult> publisher(List<String> expressions, long repetitions) {
+        List<Node> asts = new ArrayList<>(expressions.size());
+        AdmissionPolicy.Decision[] decisions = new AdmissionPolicy.Decision[expressions.size()];
+        try {
+            for (int i = 0; i < expressions.size(); i++) {
+                Node ast = parse(expressions.get(i));
+                ExpressionCost cost = CostEstimator.estimate(ast);
+                decisions[i] = admission.decide(cost);
+                if (decisions[i] == AdmissionPolicy.Decision.REJECT) {
+                    throw rejected(expressions.get(i), cost);
+                }
+                asts.add(ast);
+            }
+        } catch (RuntimeException e) {
+            return new RollPublisher(executor, e);
+        }
+        return new RollPublisher(executor, heavyExecutor, rolls, expressions, asts, decisions, repetitions);
+    }
+
+    private DiceRollResult evaluate(String expression, Node ast) {
+        return new DiceEvaluator(rolls.get()).evaluateWithDetails(expression, ast);
+    }
+
+    private static Node parse(String expression) {
+        return new DiceParser(new Lexer(expression).tokenize()).parse();
+    }
+
+}
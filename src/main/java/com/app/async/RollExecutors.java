@@ -0,0 +1,107 @@
+package com.app.async;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Executors padrão usados pelas APIs assíncronas.
+ * <br>
+ * O projeto compila para Java 17, então virtual threads são obtidas por
+ * reflexão quando o runtime as oferece (Java 21+); caso contrário é usado
+ * um pool de threads daemon sob demanda.
+ */
+public final class RollExecutors {
+
+    private RollExecutors() {
+    }
+
+    /** Executor compartilhado: virtual threads quando disponíveis. */
+    public static ExecutorService shared() {
+        return Holder.SHARED;
+    }
+
+    /** Indica se o runtime atual oferece virtual threads. */
+    public static boolean virtualThreadsAvailable() {
+        return virtualThreadFactoryMethod() != null;
+    }
+
+    /**
+     * Novo executor com uma virtual thread por tarefa, ou null se o
+     * runtime não suportar virtual threads.
+     */
+    public static ExecutorService newVirtualThreadExecutor() {
+        Method factory = virtualThreadFactoryMethod();
+        if (factory == null) {
+            return null;
+        }
+        try {
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
+    /** Pool de threads de plataforma daemon, criadas sob demanda. */
+    public static ExecutorService newPlatformExecutor(String namePrefix) {
+        AtomicInteger counter = new AtomicInteger();
+        ThreadFactory factory = runnable -> {
+            Thread thread = new Thread(runnable, namePrefix + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        return Executors.newCachedThreadPool(factory);
+    }
+
+    /**
+     * Executor compartilhado para expressões pesadas: threads de plataforma
+     * limitadas a metade dos processadores e fila limitada, rejeitando
+     * (RejectedExecutionException) quando ambas estão cheias.
+     */
+    public static ExecutorService heavy() {
+        return HeavyHolder.HEAVY;
+    }
+
+    /** Pool fixo de threads daemon com fila limitada a queueCapacity. */
+    public static ExecutorService newBoundedExecutor(String namePrefix, int threads, int queueCapacity) {
+        AtomicInteger counter = new AtomicInteger();
+        ThreadFactory factory = runnable -> {
+            Thread thread = new Thread(runnable, namePrefix + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        return new ThreadPoolExecutor(
+                threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), factory,
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+    }
+
+    private static Method virtualThreadFactoryMethod() {
+        try {
+            return Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+
+    private static final class HeavyHolder {
+        private static final ExecutorService HEAVY = newBoundedExecutor(
+                "dice-heavy", Math.max(1, Runtime.getRuntime().availableProcessors() / 2), 64);
+    }
+
+    private static final class Holder {
+        private static final ExecutorService SHARED = create();
+
+        private static ExecutorService create() {
+            ExecutorService virtual = newVirtualThreadExecutor();
+            return virtual != null ? virtual : newPlatformExecutor("dice-roll");
+        }
+    }
+
+}
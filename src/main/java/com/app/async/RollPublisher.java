@@ -0,0 +1,239 @@
+package com.app.async;
+
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import com.app.parser.DiceEvaluator;
+import com.app.parser.nodes.Node;
+import com.app.roll.DiceRoll;
+import com.app.roll.DiceRollResult;
+
+/**
+ * Publisher frio de rolagens: cada assinante recebe sua própria sequência
+ * de resultados, produzidos apenas conforme a demanda sinalizada via
+ * {@link Flow.Subscription#request(long)}.
+ * <br>
+ * Cada expressão traz a decisão da {@link AdmissionPolicy}: o loop de
+ * drenagem muda para o executor pesado (ou volta para o padrão) antes da
+ * rolagem que pede outro destino, e as INLINE rolam na thread em que o
+ * loop já está; se o loop começa numa INLINE, roda na própria thread que
+ * chamou request. Sinais terminais sem rolagens usam o executor padrão.
+ * <br>
+ * Emite as expressões na ordem informada, repetindo o bloco inteiro
+ * repetitions vezes. Sem nada a emitir, completa logo após o onSubscribe;
+ * um erro de parse vira onError do assinante.
+ */
+final class RollPublisher implements Flow.Publisher<DiceRollResult> {
+
+    private final Executor executor;
+    private final Executor heavyExecutor;
+    private final Supplier<DiceRoll> rolls;
+    private final List<String> expressions;
+    private final List<Node> asts;
+    private final AdmissionPolicy.Decision[] decisions;
+    private final long repetitions;
+    private final RuntimeException error;
+
+    RollPublisher(
+            Executor executor,
+            Executor heavyExecutor,
+            Supplier<DiceRoll> rolls,
+            List<String> expressions,
+            List<Node> asts,
+            AdmissionPolicy.Decision[] decisions,
+            long repetitions
+    ) {
+        this.executor = executor;
+        this.heavyExecutor = heavyExecutor;
+        this.rolls = rolls;
+        this.expressions = expressions;
+        this.asts = asts;
+        this.decisions = decisions;
+        this.repetitions = repetitions;
+        this.error = null;
+    }
+
+    /** Publisher que só sinaliza o erro (ex.: de parse) a cada assinante. */
+    RollPublisher(Executor executor, RuntimeException error) {
+        this.executor = executor;
+        this.heavyExecutor = executor;
+        this.rolls = null;
+        this.expressions = List.of();
+        this.asts = List.of();
+        this.decisions = new AdmissionPolicy.Decision[0];
+        this.repetitions = 0;
+        this.error = error;
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super DiceRollResult> subscriber) {
+        RollSubscription subscription = new RollSubscription(subscriber);
+        subscriber.onSubscribe(subscription);
+        // Sinais terminais não dependem de demanda: o loop de drenagem
+        // completa (ou falha) sem esperar o primeiro request
+        if (error != null || subscription.total == 0) {
+            subscription.schedule();
+        }
+    }
+
+    private final class RollSubscription implements Flow.Subscription, Runnable {
+
+        private final Flow.Subscriber<? super DiceRollResult> subscriber;
+        private final AtomicLong demand = new AtomicLong();
+        private final AtomicInteger wip = new AtomicInteger();
+        private final long total;
+
+        private volatile boolean cancelled;
+        private volatile Throwable invalidRequest;
+
+        // Acessados apenas pelo loop de drenagem (serializado por wip)
+        private DiceEvaluator evaluator;
+        private long index;
+        // Executor em que o loop está rodando; null na thread de request
+        private Executor running;
+
+        RollSubscription(Flow.Subscriber<? super DiceRollResult> subscriber) {
+            this.subscriber = subscriber;
+            this.total = multiplyCapped(asts.size(), repetitions);
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                invalidRequest = new IllegalArgumentException(
+                        "Demand must be positive, got: " + n
+                );
+            } else {
+                demand.getAndAccumulate(n, RollSubscription::addCapped);
+            }
+            schedule();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+        }
+
+        private void schedule() {
+            if (wip.getAndIncrement() == 0) {
+                dispatch(targetFor(index));
+            }
+        }
+
+        /** Continua o loop em target, ou aqui mesmo quando é null (INLINE). */
+        private void dispatch(Executor target) {
+            running = target;
+            if (target == null) {
+                run();
+                return;
+            }
+            try {
+                target.execute(this);
+            } catch (RuntimeException e) {
+                cancelled = true;
+                subscriber.onError(e);
+            }
+        }
+
+        /** Destino da rolagem de número i; null para INLINE. */
+        private Executor targetFor(long i) {
+            if (error != null || i >= total) {
+                return executor;
+            }
+            return switch (decisions[(int) (i % asts.size())]) {
+                case INLINE -> null;
+                case HEAVY -> heavyExecutor;
+                default -> executor;
+            };
+        }
+
+        @Override
+        public void run() {
+            int missed = 1;
+            do {
+                if (cancelled) {
+                    return;
+                }
+                if (error != null || invalidRequest != null) {
+                    cancelled = true;
+                    subscriber.onError(error != null ? error : invalidRequest);
+                    return;
+                }
+
+                long requested = demand.get();
+                long emitted = 0;
+
+                while (emitted != requested && index < total) {
+                    if (cancelled) {
+                        return;
+                    }
+                    Executor target = targetFor(index);
+                    if (target != null && target != running) {
+                        // Muda de executor sem liberar wip: o loop segue lá
+                        if (emitted != 0 && requested != Long.MAX_VALUE) {
+                            demand.addAndGet(-emitted);
+                        }
+                        dispatch(target);
+                        return;
+                    }
+                    DiceRollResult result;
+                    try {
+                        result = next();
+                    } catch (RuntimeException e) {
+                        cancelled = true;
+                        subscriber.onError(e);
+                        return;
+                    }
+                    try {
+                        subscriber.onNext(result);
+                    } catch (RuntimeException e) {
+                        // Como no SubmissionPublisher: assinante que falha
+                        // no onNext tem a assinatura cancelada
+                        cancelled = true;
+                        return;
+                    }
+                    emitted++;
+                }
+
+                if (index == total) {
+                    if (!cancelled) {
+                        cancelled = true;
+                        subscriber.onComplete();
+                    }
+                    return;
+                }
+
+                if (emitted != 0 && requested != Long.MAX_VALUE) {
+                    demand.addAndGet(-emitted);
+                }
+                missed = wip.addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        private DiceRollResult next() {
+            if (evaluator == null) {
+                evaluator = new DiceEvaluator(rolls.get());
+            }
+            int position = (int) (index % asts.size());
+            index++;
+            return evaluator.evaluateWithDetails(expressions.get(position), asts.get(position));
+        }
+
+        private static long addCapped(long current, long n) {
+            long sum = current + n;
+            return sum < 0 ? Long.MAX_VALUE : sum;
+        }
+
+        private static long multiplyCapped(long a, long b) {
+            if (a == 0 || b == 0) {
+                return 0;
+            }
+            return a > Long.MAX_VALUE / b ? Long.MAX_VALUE : a * b;
+        }
+    }
+
+}
@@ -0,0 +1,64 @@
+package com.app.audit;
+
+/**
+ * Configuração imutável do {@link AuditLogWriter}.
+ * <br>
+ * Padrões: 8192 registros no buffer, lotes de até 256, fsync por lote e
+ * backpressure quando cheio.
+ */
+public final class AuditLogConfig {
+
+    private final int capacity;
+    private final int batchSize;
+    private final Durability durability;
+    private final OverflowPolicy overflowPolicy;
+
+    private AuditLogConfig(int capacity, int batchSize, Durability durability, OverflowPolicy overflowPolicy) {
+        if (capacity < 2 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("capacity must be a power of two >= 2, got: " + capacity);
+        }
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("batchSize must be positive, got: " + batchSize);
+        }
+        this.capacity = capacity;
+        this.batchSize = batchSize;
+        this.durability = durability;
+        this.overflowPolicy = overflowPolicy;
+    }
+
+    public static AuditLogConfig defaults() {
+        return new AuditLogConfig(8192, 256, Durability.PER_BATCH, OverflowPolicy.BLOCK);
+    }
+
+    public AuditLogConfig withCapacity(int capacity) {
+        return new AuditLogConfig(capacity, batchSize, durability, overflowPolicy);
+    }
+
+    public AuditLogConfig withBatchSize(int batchSize) {
+        return new AuditLogConfig(capacity, batchSize, durability, overflowPolicy);
+    }
+
+    public AuditLogConfig withDurability(Durability durability) {
+        return new AuditLogConfig(capacity, batchSize, durability, overflowPolicy);
+    }
+
+    public AuditLogConfig withOverflowPolicy(OverflowPolicy overflowPolicy) {
+        return new AuditLogConfig(capacity, batchSize, durability, overflowPolicy);
+    }
+
+    public int capacity() { return capacity; }
+    public int batchSize() { return batchSize; }
+    public Durability durability() { return durability; }
+    public OverflowPolicy overflowPolicy() { return overflowPolicy; }
+
+    @Override
+    public String toString() {
+        return "AuditLogConfig{" +
+                "capacity=" + capacity +
+                ", batchSize=" + batchSize +
+                ", durability=" + durability +
+                ", overflowPolicy=" + overflowPolicy +
+                '}';
+    }
+
+}
@@ -0,0 +1,319 @@
+package com.app.audit;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import com.app.roll.DiceRollResult;
+import com.app.roll.RollRenderer;
+
+/**
+ * Log de auditoria assíncrono: o {@link DiceRollResult#toDetailedLog()} de
+ * cada rolagem, seguido de '\n', anexado ao arquivo por uma thread dedicada.
+ * <br>
+ * A thread da requisição apenas publica a referência numa fila limitada
+ * sem locks ({@link AuditRing}). O writer drena lotes de até batchSize
+ * registros, serializa direto num ByteBuffer reaproveitado e grava cada
+ * lote com uma única escrita no FileChannel; o fsync segue a
+ * {@link Durability} configurada (PER_BATCH = group commit).
+ * <br>
+ * Quando a fila enche, {@link OverflowPolicy} decide entre esperar,
+ * descartar ou rejeitar.
+ */
+public final class AuditLogWriter implements AutoCloseable {
+
+    private static final int INITIAL_BUFFER = 64 * 1024;
+    private static final long BLOCK_PARK_NANOS = 10_000L;
+
+    private final FileChannel channel;
+    private final AuditLogConfig config;
+    private final AuditRing<DiceRollResult> ring;
+    private final RollRenderer renderer = RollRenderer.standard();
+    private final AtomicBoolean sleeping = new AtomicBoolean();
+    private final LongAdder dropped = new LongAdder();
+    /** Appends em andamento; o close espera zerar antes da drenagem final. */
+    private final AtomicInteger appending = new AtomicInteger();
+    private final Thread thread;
+
+    private ByteBuffer buffer = ByteBuffer.allocateDirect(INITIAL_BUFFER);
+
+    private volatile boolean running = true;
+    private volatile long written;
+    private volatile IOException failure;
+
+    private AuditLogWriter(FileChannel channel, AuditLogConfig config) {
+        this.channel = channel;
+        this.config = config;
+        this.ring = new AuditRing<>(config.capacity());
+        this.thread = new Thread(this::run, "dice-audit-writer");
+        this.thread.setDaemon(true);
+    }
+
+    /** Abre (ou cria) o arquivo em modo append e inicia o writer. */
+    public static AuditLogWriter open(Path path, AuditLogConfig config) throws IOException {
+        FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        AuditLogWriter writer = new AuditLogWriter(channel, config);
+        writer.thread.start();
+        return writer;
+    }
+
+    public static AuditLogWriter open(Path path) throws IOException {
+        return open(path, AuditLogConfig.defaults());
+    }
+
+    /**
+     * Publica o resultado para gravação; chamada por qualquer thread.
+     *
+     * @return false se descartado (OverflowPolicy.DROP com a fila cheia)
+     * @throws RejectedExecutionException se fechado, ou com a fila cheia
+     *         e OverflowPolicy.FAIL
+     * @throws UncheckedIOException se o writer falhou ao gravar
+     */
+    public boolean append(DiceRollResult result) {
+        // Marca antes de checar running: ou o close vê este append em
+        // andamento e o espera, ou este append vê o close e é rejeitado
+        appending.incrementAndGet();
+        try {
+            checkOpen();
+
+            while (!ring.offer(result)) {
+                switch (config.overflowPolicy()) {
+                    case DROP -> {
+                        dropped.increment();
+                        return false;
+                    }
+                    case FAIL -> throw new RejectedExecutionException("Audit log buffer is full");
+                    case BLOCK -> {
+                        wakeWriter();
+                        LockSupport.parkNanos(this, BLOCK_PARK_NANOS);
+                        checkOpen();
+                    }
+                }
+            }
+
+            wakeWriter();
+            return true;
+        } finally {
+            appending.decrementAndGet();
+        }
+    }
+
+    /**
+     * Espera até que tudo o que foi publicado antes da chamada esteja
+     * gravado (e sincronizado, se a durabilidade pedir).
+     */
+    public void flush() throws IOException, InterruptedException {
+        long target = ring.enqueued();
+        while (written < target) {
+            rethrowFailure();
+            if (!thread.isAlive()) {
+                break;
+            }
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+            wakeWriter();
+            LockSupport.parkNanos(this, BLOCK_PARK_NANOS);
+        }
+        rethrowFailure();
+    }
+
+    /** Registros já gravados no arquivo. */
+    public long written() {
+        return written;
+    }
+
+    /** Registros descartados por OverflowPolicy.DROP. */
+    public long dropped() {
+        return dropped.sum();
+    }
+
+    /** Registros publicados e ainda não gravados. */
+    public long pending() {
+        return ring.enqueued() - written;
+    }
+
+    /**
+     * Para de aceitar registros, grava os pendentes, sincroniza e fecha
+     * o arquivo.
+     */
+    @Override
+    public void close() throws IOException {
+        if (!running) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(thread);
+        boolean interrupted = false;
+        while (thread.isAlive()) {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        while (appending.get() > 0) {
+            Thread.onSpinWait();
+        }
+        try {
+            rethrowFailure();
+            // Publicações concorrentes com o fechamento: o writer já saiu,
+            // então esta thread passa a ser a única consumidora. Drena até o
+            // head alcançar o tail, que inclui posições já reservadas cujo
+            // offer ainda não publicou (poll devolve null por um instante)
+            if (!ring.isEmpty()) {
+                while (!ring.isEmpty()) {
+                    if (writeBatch() == 0) {
+                        Thread.onSpinWait();
+                    }
+                }
+                if (config.durability() != Durability.NONE) {
+                    channel.force(false);
+                }
+            }
+        } finally {
+            channel.close();
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /*
+        ========== WRITER ==========
+    */
+
+    private void run() {
+        try {
+            while (true) {
+                int batch = writeBatch();
+                if (batch > 0) {
+                    continue;
+                }
+                if (!running && ring.isEmpty()) {
+                    break;
+                }
+                // Sinaliza que vai dormir e confere de novo antes de estacionar
+                sleeping.set(true);
+                if (ring.isEmpty() && running) {
+                    LockSupport.park(this);
+                }
+                sleeping.set(false);
+            }
+            if (config.durability() != Durability.NONE) {
+                channel.force(false);
+            }
+        } catch (IOException e) {
+            failure = e;
+            running = false;
+        } catch (RuntimeException e) {
+            // Falha inesperada (ex.: na renderização): registra como falha
+            // do writer para que append, flush e close a reportem
+            failure = new IOException("Audit log writer crashed", e);
+            running = false;
+        }
+    }
+
+    /**
+     * Serializa até batchSize registros e os grava numa única escrita.
+     * Retorna quantos foram gravados.
+     */
+    private int writeBatch() throws IOException {
+
+        buffer.clear();
+        int count = 0;
+
+        while (count < config.batchSize()) {
+            DiceRollResult result = ring.poll();
+            if (result == null) {
+                break;
+            }
+            serialize(result);
+            count++;
+
+            if (config.durability() == Durability.PER_RECORD) {
+                drain();
+                channel.force(false);
+                written++;
+            }
+        }
+
+        if (count > 0 && config.durability() != Durability.PER_RECORD) {
+            drain();
+            if (config.durability() == Durability.PER_BATCH) {
+                channel.force(false);
+            }
+            written += count;
+        }
+        return count;
+    }
+
+    /**
+     * Renderiza o registro no buffer; se não couber, grava o que já está
+     * no buffer e, se ainda assim não couber sozinho, dobra o buffer.
+     */
+    private void serialize(DiceRollResult result) throws IOException {
+        while (true) {
+            int mark = buffer.position();
+            try {
+                renderer.renderDetailedLog(result, buffer);
+                buffer.put((byte) '\n');
+                return;
+            } catch (BufferOverflowException e) {
+                buffer.position(mark);
+                if (mark > 0) {
+                    drain();
+                } else {
+                    buffer = ByteBuffer.allocateDirect(buffer.capacity() * 2);
+                }
+            }
+        }
+    }
+
+    /** Grava todo o conteúdo do buffer e o deixa vazio. */
+    private void drain() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /*
+        ========== UTILITÁRIOS ==========
+    */
+
+    private void wakeWriter() {
+        if (sleeping.get() && sleeping.compareAndSet(true, false)) {
+            LockSupport.unpark(thread);
+        }
+    }
+
+    private void checkOpen() {
+        IOException error = failure;
+        if (error != null) {
+            throw new UncheckedIOException("Audit log writer failed", error);
+        }
+        if (!running) {
+            throw new RejectedExecutionException("Audit log is closed");
+        }
+    }
+
+    private void rethrowFailure() throws IOException {
+        IOException error = failure;
+        if (error != null) {
+            throw error;
+        }
+    }
+
+}
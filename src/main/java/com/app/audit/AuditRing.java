@@ -0,0 +1,82 @@
+package com.app.audit;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Fila circular limitada sem locks (Vyukov): vários produtores, um único
+ * consumidor.
+ * <br>
+ * Cada posição tem um número de sequência: igual à posição quando livre
+ * para o produtor, posição + 1 quando preenchida. O produtor reserva a
+ * posição com CAS no tail e publica com escrita release na sequência; o
+ * consumidor avança o head sem CAS.
+ */
+final class AuditRing<T> {
+
+    private final AtomicReferenceArray<T> items;
+    private final AtomicLongArray sequences;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();
+    private volatile long head;
+
+    AuditRing(int capacity) {
+        this.items = new AtomicReferenceArray<>(capacity);
+        this.sequences = new AtomicLongArray(capacity);
+        this.mask = capacity - 1;
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /** Enfileira; retorna false se a fila estiver cheia. */
+    boolean offer(T item) {
+        long position = tail.get();
+        while (true) {
+            int index = (int) position & mask;
+            long difference = sequences.getAcquire(index) - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    items.setPlain(index, item);
+                    sequences.setRelease(index, position + 1);
+                    return true;
+                }
+                position = tail.get();
+            } else if (difference < 0) {
+                return false;
+            } else {
+                position = tail.get();
+            }
+        }
+    }
+
+    /** Desenfileira; apenas a thread consumidora. Retorna null se vazia. */
+    T poll() {
+        long position = head;
+        int index = (int) position & mask;
+        if (sequences.getAcquire(index) != position + 1) {
+            return null;
+        }
+        T item = items.getPlain(index);
+        items.setPlain(index, null);
+        sequences.setRelease(index, position + mask + 1);
+        head = position + 1;
+        return item;
+    }
+
+    /** Total de itens já reservados por produtores. */
+    long enqueued() {
+        return tail.get();
+    }
+
+    /** Total de itens já consumidos. */
+    long dequeued() {
+        return head;
+    }
+
+    boolean isEmpty() {
+        return head == tail.get();
+    }
+
+}
@@ -0,0 +1,16 @@
+package com.app.audit;
+
+/**
+ * Quando o {@link AuditLogWriter} chama fsync (FileChannel.force).
+ */
+public enum Durability {
+
+    /** Nunca: o texto fica no cache do sistema operacional. */
+    NONE,
+
+    /** Uma vez por lote gravado (group commit). */
+    PER_BATCH,
+
+    /** Após cada registro. */
+    PER_RECORD
+}
@@ -0,0 +1,16 @@
+package com.app.audit;
+
+/**
+ * O que {@link AuditLogWriter#append} faz quando o buffer está cheio.
+ */
+public enum OverflowPolicy {
+
+    /** Espera o writer liberar espaço (backpressure). */
+    BLOCK,
+
+    /** Descarta o registro e retorna false. */
+    DROP,
+
+    /** Lança RejectedExecutionException. */
+    FAIL
+}
@@ -0,0 +1,398 @@
+package com.app.history;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.app.roll.DiceRollResult;
+import com.app.roll.IndividualDiceRoll;
+import com.app.roll.RollSummary;
+
+/**
+ * Codificação binária compacta de um {@link DiceRollResult}.
+ * <br>
+ * Layout: <br>
+ * flags (1 byte) | rollId | epochSecond (8) | nano (4) | total (4) |
+ * expressão | modificadores | [resumo] | quantidade de rolagens (varint) |
+ * rolagens
+ * <br>
+ * rollId no formato "roll_" + 16 hex ocupa 8 bytes; outros são gravados
+ * como texto. Textos são UTF-8 com tamanho varint. Cada rolagem é
+ * lados (varint), valor (varint), flags (1 byte), se explodiu a
+ * iteração (varint) e, se o dado tem faces customizadas, o rótulo delas.
+ * <br>
+ * Resultados com {@link RollSummary} (DetailLevel SUMMARY ou CAPPED)
+ * gravam rolagens, mantidas e explosões (varlong), a quantidade de faces
+ * (varint) e cada face (varint zigzag) com sua contagem (varlong), e
+ * marcam a flag {@link #SUMMARY}. O resumo vem antes das rolagens: sem
+ * espaço, as rolagens são omitidas primeiro; se nem o resumo couber, as
+ * rolagens também são omitidas.
+ * <br>
+ * Quando as rolagens não cabem no limite, só o cabeçalho é gravado e a
+ * flag {@link #ROLLS_OMITTED} é marcada. Se nem o cabeçalho couber, a
+ * expressão (e um rollId textual) é cortada, os modificadores são
+ * descartados e a flag {@link #TEXT_TRUNCATED} é marcada; na leitura os
+ * textos cortados terminam em "...".
+ */
+final class RollCodec {
+
+    static final int ROLLS_OMITTED = 1;
+    private static final int HEX_ID = 2;
+    static final int TEXT_TRUNCATED = 4;
+    static final int SUMMARY = 8;
+
+    /**
+     * Menor limite em que o cabeçalho cortado sempre cabe: flags, rollId
+     * de até 8 bytes, timestamp, total e os dois textos.
+     */
+    static final int MIN_LENGTH = 48;
+
+    private static final String ELLIPSIS = "...";
+
+    private static final int EXPLODED = 1;
+    private static final int KEPT = 2;
+    private static final int PENETRATING = 4;
+    private static final int CUSTOM = 8;
+
+    private static final String ID_PREFIX = "roll_";
+
+    private byte[] scratch = new byte[256];
+    private int position;
+
+    /**
+     * Codifica o resultado e retorna o tamanho (no máximo maxLength, que
+     * deve ser ao menos {@link #MIN_LENGTH}); os bytes ficam em
+     * {@link #bytes()}.
+     */
+    int encode(DiceRollResult result, int maxLength) {
+
+        position = 0;
+        boolean hexId = isHexId(result.rollId());
+        writeByte(hexId ? HEX_ID : 0);
+        if (hexId) {
+            writeLong(Long.parseUnsignedLong(result.rollId().substring(ID_PREFIX.length()), 16));
+        } else {
+            writeString(result.rollId());
+        }
+        writeLong(result.timestamp().getEpochSecond());
+        writeInt(result.timestamp().getNano());
+        writeInt(result.finalTotal());
+        writeString(result.expression());
+        writeString(result.appliedModifiers());
+
+        if (position > maxLength) {
+            return encodeTruncatedHeader(result, hexId, maxLength);
+        }
+
+        RollSummary summary = result.summary().orElse(null);
+        if (summary != null) {
+            int beforeSummary = position;
+            writeSummary(summary);
+            if (position > maxLength) {
+                // Sem o resumo, as rolagens guardadas pareceriam ser todas
+                position = beforeSummary;
+                scratch[0] |= ROLLS_OMITTED;
+                return position;
+            }
+            scratch[0] |= SUMMARY;
+        }
+
+        int header = position;
+
+        List<IndividualDiceRoll> rolls = result.allRolls();
+        writeVarint(rolls.size());
+        for (int i = 0; i < rolls.size(); i++) {
+            IndividualDiceRoll roll = rolls.get(i);
+            writeVarint(roll.sides());
+            writeVarint(roll.value());
+            int rollFlags = (roll.wasExploded() ? EXPLODED : 0)
+                    | (result.isKept(i) ? KEPT : 0)
+                    | (roll.wasPenetrating() ? PENETRATING : 0)
+                    | (roll.faces() != null ? CUSTOM : 0);
+            writeByte(rollFlags);
+            if (roll.wasExploded()) {
+                writeVarint(roll.explosionIteration() == null ? 0 : roll.explosionIteration());
+            }
+            if (roll.faces() != null) {
+                writeString(roll.faces());
+            }
+            if (position > maxLength) {
+                break;
+            }
+        }
+
+        if (position > maxLength) {
+            position = header;
+            scratch[0] |= ROLLS_OMITTED;
+        }
+        return position;
+    }
+
+    private void writeSummary(RollSummary summary) {
+        writeVarlong(summary.rolls());
+        writeVarlong(summary.kept());
+        writeVarlong(summary.explosions());
+        Map<Integer, Long> histogram = summary.histogram();
+        writeVarint(histogram.size());
+        for (Map.Entry<Integer, Long> e : histogram.entrySet()) {
+            writeVarint((e.getKey() << 1) ^ (e.getKey() >> 31));
+            writeVarlong(e.getValue());
+        }
+    }
+
+    /** Cabeçalho com os textos cortados para caber em maxLength, sem rolagens. */
+    private int encodeTruncatedHeader(DiceRollResult result, boolean hexId, int maxLength) {
+        position = 0;
+        writeByte((hexId ? HEX_ID : 0) | ROLLS_OMITTED | TEXT_TRUNCATED);
+        if (hexId) {
+            writeLong(Long.parseUnsignedLong(result.rollId().substring(ID_PREFIX.length()), 16));
+        } else {
+            // Metade do que sobra após os campos fixos e os modificadores vazios
+            writeString(result.rollId(), (maxLength - 18) / 2);
+        }
+        writeLong(result.timestamp().getEpochSecond());
+        writeInt(result.timestamp().getNano());
+        writeInt(result.finalTotal());
+        writeString(result.expression(), maxLength - position - 1);
+        writeString("");
+        return position;
+    }
+
+    byte[] bytes() {
+        return scratch;
+    }
+
+    static DiceRollResult decode(byte[] data, int length) {
+        Reader in = new Reader(data, length);
+
+        int flags = in.readByte();
+        String rollId = (flags & HEX_ID) != 0
+                ? ID_PREFIX + String.format("%016x", in.readLong())
+                : in.readString();
+        Instant timestamp = Instant.ofEpochSecond(in.readLong(), in.readInt());
+        int total = in.readInt();
+        String expression = in.readString();
+        String modifiers = in.readString();
+        if ((flags & TEXT_TRUNCATED) != 0) {
+            expression += ELLIPSIS;
+            modifiers = ELLIPSIS;
+        }
+
+        RollSummary summary = (flags & SUMMARY) != 0 ? readSummary(in) : null;
+
+        List<IndividualDiceRoll> rolls = new ArrayList<>();
+        BitSet kept = new BitSet();
+        if ((flags & ROLLS_OMITTED) == 0) {
+            int count = in.readVarint();
+            for (int i = 0; i < count; i++) {
+                int sides = in.readVarint();
+                int value = in.readVarint();
+                int rollFlags = in.readByte();
+                int iteration = (rollFlags & EXPLODED) != 0 ? in.readVarint() : 0;
+                IndividualDiceRoll roll;
+                if ((rollFlags & CUSTOM) != 0) {
+                    roll = IndividualDiceRoll.custom(in.readString(), sides, value);
+                } else if ((rollFlags & EXPLODED) != 0) {
+                    roll = IndividualDiceRoll.exploded(sides, value, iteration, (rollFlags & PENETRATING) != 0);
+                } else {
+                    roll = IndividualDiceRoll.normal(sides, value);
+                }
+                if ((rollFlags & KEPT) != 0) {
+                    kept.set(i);
+                }
+                rolls.add(roll);
+            }
+        }
+
+        return DiceRollResult.restore(rollId, expression, rolls, kept, summary, total, timestamp, modifiers);
+    }
+
+    private static RollSummary readSummary(Reader in) {
+        long rolls = in.readVarlong();
+        long kept = in.readVarlong();
+        long explosions = in.readVarlong();
+        int faces = in.readVarint();
+        Map<Integer, Long> histogram = new LinkedHashMap<>();
+        for (int i = 0; i < faces; i++) {
+            int zigzag = in.readVarint();
+            histogram.put((zigzag >>> 1) ^ -(zigzag & 1), in.readVarlong());
+        }
+        return RollSummary.of(rolls, kept, explosions, histogram);
+    }
+
+    /*
+        ========== ROLL ID ==========
+    */
+
+    private static boolean isHexId(String rollId) {
+        if (rollId.length() != ID_PREFIX.length() + 16 || !rollId.startsWith(ID_PREFIX)) {
+            return false;
+        }
+        for (int i = ID_PREFIX.length(); i < rollId.length(); i++) {
+            char c = rollId.charAt(i);
+            if (!(c >= '0' && c <= '9' || c >= 'a' && c <= 'f')) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /*
+        ========== ESCRITA ==========
+    */
+
+    private void ensure(int bytes) {
+        if (position + bytes > scratch.length) {
+            scratch = Arrays.copyOf(scratch, Math.max(scratch.length * 2, position + bytes));
+        }
+    }
+
+    private void writeByte(int value) {
+        ensure(1);
+        scratch[position++] = (byte) value;
+    }
+
+    private void writeInt(int value) {
+        ensure(4);
+        for (int shift = 24; shift >= 0; shift -= 8) {
+            scratch[position++] = (byte) (value >>> shift);
+        }
+    }
+
+    private void writeLong(long value) {
+        ensure(8);
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            scratch[position++] = (byte) (value >>> shift);
+        }
+    }
+
+    private void writeVarint(int value) {
+        ensure(5);
+        while ((value & ~0x7F) != 0) {
+            scratch[position++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        scratch[position++] = (byte) value;
+    }
+
+    private void writeVarlong(long value) {
+        ensure(10);
+        while ((value & ~0x7FL) != 0) {
+            scratch[position++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        scratch[position++] = (byte) value;
+    }
+
+    private void writeString(String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarint(bytes.length);
+        ensure(bytes.length);
+        System.arraycopy(bytes, 0, scratch, position, bytes.length);
+        position += bytes.length;
+    }
+
+    /**
+     * Grava no máximo maxBytes (tamanho incluso), cortando o texto numa
+     * fronteira de caractere UTF-8.
+     */
+    private void writeString(String value, int maxBytes) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        int size = Math.max(0, Math.min(bytes.length, maxBytes - varintSize(bytes.length)));
+        while (size > 0 && size < bytes.length && (bytes[size] & 0xC0) == 0x80) {
+            size--;
+        }
+        writeVarint(size);
+        ensure(size);
+        System.arraycopy(bytes, 0, scratch, position, size);
+        position += size;
+    }
+
+    private static int varintSize(int value) {
+        int size = 1;
+        while ((value & ~0x7F) != 0) {
+            value >>>= 7;
+            size++;
+        }
+        return size;
+    }
+
+    /*
+        ========== LEITURA ==========
+    */
+
+    private static final class Reader {
+
+        private final byte[] data;
+        private final int length;
+        private int position;
+
+        private Reader(byte[] data, int length) {
+            this.data = data;
+            this.length = length;
+        }
+
+        private int readByte() {
+            if (position >= length) {
+                throw new IllegalStateException("Truncated roll record");
+            }
+            return data[position++] & 0xFF;
+        }
+
+        private int readInt() {
+            int value = 0;
+            for (int i = 0; i < 4; i++) {
+                value = (value << 8) | readByte();
+            }
+            return value;
+        }
+
+        private long readLong() {
+            long value = 0;
+            for (int i = 0; i < 8; i++) {
+                value = (value << 8) | readByte();
+            }
+            return value;
+        }
+
+        private int readVarint() {
+            int value = 0;
+            for (int shift = 0; shift < 35; shift += 7) {
+                int b = readByte();
+                value |= (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IllegalStateException("Malformed varint in roll record");
+        }
+
+        private long readVarlong() {
+            long value = 0;
+            for (int shift = 0; shift < 70; shift += 7) {
+                int b = readByte();
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IllegalStateException("Malformed varint in roll record");
+        }
+
+        private String readString() {
+            int size = readVarint();
+            if (size < 0 || position + size > length) {
+                throw new IllegalStateException("Truncated roll record");
+            }
+            String value = new String(data, position, size, StandardCharsets.UTF_8);
+            position += size;
+            return value;
+        }
+    }
+
+}
@@ -0,0 +1,184 @@
+package com.app.history;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.app.roll.DiceRollResult;
+
+/**
+ * Histórico das últimas N rolagens de uma sessão, fora do heap.
+ * <br>
+ * Um único {@link ByteBuffer#allocateDirect direct buffer} dividido em
+ * slots de tamanho fixo, usado como anel. Cada slot guarda o resultado
+ * codificado pelo {@link RollCodec} e é protegido por um seqlock: <br>
+ * - o escritor marca a sequência como ímpar, grava e publica
+ *   2·(n + 1) para a n-ésima rolagem; <br>
+ * - leitores copiam o slot e só aceitam a cópia se a sequência não mudou.
+ * <br>
+ * Um único escritor por buffer ({@link #append} não é thread-safe entre
+ * escritores); qualquer número de leitores concorrentes, sem locks. Os
+ * objetos {@link DiceRollResult} só são criados na leitura.
+ */
+public final class RollHistoryBuffer {
+
+    public static final int DEFAULT_CAPACITY = 50;
+    public static final int DEFAULT_SLOT_SIZE = 512;
+
+    /** Cabeçalho do slot: sequência (8 bytes) + tamanho (4) + alinhamento (4). */
+    private static final int SLOT_HEADER = 16;
+
+    private static final VarHandle LONGS =
+            MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+
+    private static final VarHandle INTS =
+            MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.nativeOrder());
+
+    private final ByteBuffer buffer;
+    private final int capacity;
+    private final int slotSize;
+    private final RollCodec codec = new RollCodec();
+
+    /** Total de rolagens já publicadas. */
+    private volatile long appended;
+
+    public RollHistoryBuffer() {
+        this(DEFAULT_CAPACITY, DEFAULT_SLOT_SIZE);
+    }
+
+    /**
+     * @param capacity quantidade de rolagens mantidas
+     * @param slotSize bytes por rolagem, incluindo 16 de cabeçalho (múltiplo de 8)
+     */
+    public RollHistoryBuffer(int capacity, int slotSize) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive, got: " + capacity);
+        }
+        if (slotSize < SLOT_HEADER + RollCodec.MIN_LENGTH || slotSize % 8 != 0) {
+            throw new IllegalArgumentException("slotSize must be a multiple of 8 of at least "
+                    + (SLOT_HEADER + RollCodec.MIN_LENGTH) + ", got: " + slotSize);
+        }
+        if ((long) capacity * slotSize > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("capacity * slotSize exceeds 2 GiB");
+        }
+        this.capacity = capacity;
+        this.slotSize = slotSize;
+        this.buffer = ByteBuffer.allocateDirect(capacity * slotSize);
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    /** Total de rolagens gravadas desde a criação. */
+    public long appended() {
+        return appended;
+    }
+
+    /** Quantidade de rolagens disponíveis (no máximo capacity). */
+    public int size() {
+        return (int) Math.min(appended, capacity);
+    }
+
+    /**
+     * Grava o resultado, sobrescrevendo o mais antigo quando cheio.
+     * Resultados cujas rolagens não cabem no slot são gravados sem as
+     * rolagens individuais; se nem a expressão couber, ela é cortada.
+     * Nunca falha por tamanho. Só pode ser chamado por um escritor por vez.
+     */
+    public void append(DiceRollResult result) {
+
+        int length = codec.encode(result, slotSize - SLOT_HEADER);
+
+        long sequence = appended;
+        int offset = offset(sequence);
+
+        // Seqlock: ímpar durante a escrita
+        LONGS.setOpaque(buffer, offset, 2 * sequence + 1);
+        VarHandle.storeStoreFence();
+
+        INTS.setOpaque(buffer, offset + 8, length);
+        buffer.put(offset + SLOT_HEADER, codec.bytes(), 0, length);
+
+        LONGS.setRelease(buffer, offset, 2 * (sequence + 1));
+        appended = sequence + 1;
+    }
+
+    /**
+     * Rolagem de idade age (0 = mais recente), ou null se ela não existe
+     * mais ou foi sobrescrita durante a leitura.
+     */
+    public DiceRollResult get(int age) {
+        long total = appended;
+        if (age < 0 || age >= Math.min(total, capacity)) {
+            return null;
+        }
+        return read(total - 1 - age, new byte[slotSize - SLOT_HEADER]);
+    }
+
+    /**
+     * As últimas limit rolagens, da mais recente para a mais antiga.
+     * Entradas sobrescritas pelo escritor durante a leitura são omitidas.
+     */
+    public List<DiceRollResult> recent(int limit) {
+        long total = appended;
+        int count = (int) Math.min(Math.min(total, capacity), Math.max(0, limit));
+        List<DiceRollResult> results = new ArrayList<>(count);
+        byte[] scratch = new byte[slotSize - SLOT_HEADER];
+        for (int age = 0; age < count; age++) {
+            DiceRollResult result = read(total - 1 - age, scratch);
+            if (result != null) {
+                results.add(result);
+            }
+        }
+        return results;
+    }
+
+    /** Todas as rolagens disponíveis, da mais recente para a mais antiga. */
+    public List<DiceRollResult> recent() {
+        return recent(capacity);
+    }
+
+    /**
+     * Lê a rolagem de número sequence. Repete enquanto o slot estiver em
+     * escrita; desiste se ele já contém uma rolagem mais nova.
+     */
+    private DiceRollResult read(long sequence, byte[] scratch) {
+        int offset = offset(sequence);
+        long expected = 2 * (sequence + 1);
+
+        while (true) {
+            long before = (long) LONGS.getAcquire(buffer, offset);
+            if (before > expected) {
+                return null;
+            }
+            if (before != expected) {
+                Thread.onSpinWait();
+                continue;
+            }
+
+            int length = (int) INTS.getOpaque(buffer, offset + 8);
+            if (length < 0 || length > scratch.length) {
+                continue;
+            }
+            buffer.get(offset + SLOT_HEADER, scratch, 0, length);
+
+            VarHandle.loadLoadFence();
+            long after = (long) LONGS.getOpaque(buffer, offset);
+            if (after == before) {
+                return RollCodec.decode(scratch, length);
+            }
+            if (after > expected) {
+                return null;
+            }
+        }
+    }
+
+    private int offset(long sequence) {
+        return (int) (sequence % capacity) * slotSize;
+    }
+
+}
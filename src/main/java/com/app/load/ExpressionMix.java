@@ -0,0 +1,140 @@
+package com.app.load;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.random.RandomGenerator;
+
+/**
+ * Conjunto ponderado de expressões usadas pelo gerador de carga.
+ * <br>
+ * Formato de arquivo: uma entrada por linha, "peso expressão"; linhas em
+ * branco e iniciadas por '#' são ignoradas.
+ * <pre>
+ * 60 1d20+5
+ * 30 4d6kh3
+ * 10 8d6!
+ * </pre>
+ */
+public final class ExpressionMix {
+
+    private final List<String> expressions;
+    private final double[] cumulative;
+
+    private ExpressionMix(List<String> expressions, double[] weights) {
+        if (expressions.isEmpty()) {
+            throw new IllegalArgumentException("Mix must contain at least one expression");
+        }
+        this.expressions = List.copyOf(expressions);
+        this.cumulative = new double[weights.length];
+        double sum = 0.0;
+        for (int i = 0; i < weights.length; i++) {
+            if (!(weights[i] > 0.0)) {
+                throw new IllegalArgumentException(
+                        "Weight must be positive for '" + expressions.get(i) + "', got: " + weights[i]);
+            }
+            sum += weights[i];
+            cumulative[i] = sum;
+        }
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Presets embutidos: <br>
+     * - "default": fichas típicas (testes de d20, dano, atributos) <br>
+     * - "heavy": pools grandes, explosões e keep <br>
+     * - "light": apenas rolagens simples
+     */
+    public static ExpressionMix preset(String name) {
+        return switch (name) {
+            case "default" -> builder()
+                    .add(40, "1d20+5")
+                    .add(20, "2d6+3")
+                    .add(15, "1d8+1d6+2")
+                    .add(10, "4d6kh3")
+                    .add(10, "2d20kh1+7")
+                    .add(5, "8d6")
+                    .build();
+            case "heavy" -> builder()
+                    .add(30, "20d6kh10")
+                    .add(25, "10d10!")
+                    .add(20, "6d6!!+3d8!p")
+                    .add(15, "100d6kl50")
+                    .add(10, "(4d6kh3)*2+1d100")
+                    .build();
+            case "light" -> builder()
+                    .add(70, "1d20")
+                    .add(30, "1d6")
+                    .build();
+            default -> throw new IllegalArgumentException("Unknown preset: " + name);
+        };
+    }
+
+    public static ExpressionMix fromFile(Path path) throws IOException {
+        Builder builder = builder();
+        List<String> lines = Files.readAllLines(path, StandardCharsets.UTF_8);
+        for (int i = 0; i < lines.size(); i++) {
+            String line = lines.get(i).strip();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            int space = line.indexOf(' ');
+            if (space < 0) {
+                throw new IllegalArgumentException(
+                        path + ":" + (i + 1) + ": esperado \"peso expressão\"");
+            }
+            double weight;
+            try {
+                weight = Double.parseDouble(line.substring(0, space));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException(
+                        path + ":" + (i + 1) + ": peso inválido: " + line.substring(0, space));
+            }
+            builder.add(weight, line.substring(space + 1).strip());
+        }
+        return builder.build();
+    }
+
+    /** Sorteia uma expressão proporcionalmente ao peso. */
+    public String next(RandomGenerator random) {
+        double target = random.nextDouble() * cumulative[cumulative.length - 1];
+        int index = Arrays.binarySearch(cumulative, target);
+        if (index < 0) {
+            index = -index - 1;
+        }
+        return expressions.get(Math.min(index, expressions.size() - 1));
+    }
+
+    public List<String> expressions() {
+        return expressions;
+    }
+
+    public static final class Builder {
+
+        private final List<String> expressions = new ArrayList<>();
+        private double[] weights = new double[8];
+
+        private Builder() {}
+
+        public Builder add(double weight, String expression) {
+            if (expressions.size() == weights.length) {
+                weights = Arrays.copyOf(weights, weights.length * 2);
+            }
+            weights[expressions.size()] = weight;
+            expressions.add(expression);
+            return this;
+        }
+
+        public ExpressionMix build() {
+            return new ExpressionMix(expressions, Arrays.copyOf(weights, expressions.size()));
+        }
+    }
+
+}
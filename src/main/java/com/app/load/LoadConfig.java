@@ -0,0 +1,88 @@
+package com.app.load;
+
+import java.time.Duration;
+
+/**
+ * Configuração imutável de uma execução do {@link LoadGenerator}.
+ * <br>
+ * Padrões: preset "default", threads de plataforma, concorrência igual ao
+ * número de processadores, 10 segundos, 1 segundo de aquecimento e
+ * seed 42.
+ */
+public final class LoadConfig {
+
+    private final ExpressionMix mix;
+    private final ThreadModel threadModel;
+    private final int concurrency;
+    private final Duration duration;
+    private final Duration warmup;
+    private final long seed;
+
+    private LoadConfig(
+            ExpressionMix mix,
+            ThreadModel threadModel,
+            int concurrency,
+            Duration duration,
+            Duration warmup,
+            long seed
+    ) {
+        if (concurrency <= 0) {
+            throw new IllegalArgumentException("concurrency must be positive, got: " + concurrency);
+        }
+        if (duration.isNegative() || duration.isZero()) {
+            throw new IllegalArgumentException("duration must be positive, got: " + duration);
+        }
+        if (warmup.isNegative()) {
+            throw new IllegalArgumentException("warmup must not be negative, got: " + warmup);
+        }
+        this.mix = mix;
+        this.threadModel = threadModel;
+        this.concurrency = concurrency;
+        this.duration = duration;
+        this.warmup = warmup;
+        this.seed = seed;
+    }
+
+    public static LoadConfig defaults() {
+        return new LoadConfig(
+                ExpressionMix.preset("default"),
+                ThreadModel.PLATFORM,
+                Runtime.getRuntime().availableProcessors(),
+                Duration.ofSeconds(10),
+                Duration.ofSeconds(1),
+                42L
+        );
+    }
+
+    public LoadConfig withMix(ExpressionMix mix) {
+        return new LoadConfig(mix, threadModel, concurrency, duration, warmup, seed);
+    }
+
+    public LoadConfig withThreadModel(ThreadModel threadModel) {
+        return new LoadConfig(mix, threadModel, concurrency, duration, warmup, seed);
+    }
+
+    public LoadConfig withConcurrency(int concurrency) {
+        return new LoadConfig(mix, threadModel, concurrency, duration, warmup, seed);
+    }
+
+    public LoadConfig withDuration(Duration duration) {
+        return new LoadConfig(mix, threadModel, concurrency, duration, warmup, seed);
+    }
+
+    public LoadConfig withWarmup(Duration warmup) {
+        return new LoadConfig(mix, threadModel, concurrency, duration, warmup, seed);
+    }
+
+    public LoadConfig withSeed(long seed) {
+        return new LoadConfig(mix, threadModel, concurrency, duration, warmup, seed);
+    }
+
+    public ExpressionMix mix() { return mix; }
+    public ThreadModel threadModel() { return threadModel; }
+    public int concurrency() { return concurrency; }
+    public Duration duration() { return duration; }
+    public Duration warmup() { return warmup; }
+    public long seed() { return seed; }
+
+}
@@ -0,0 +1,202 @@
+package com.app.load;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import com.app.async.RollExecutors;
+import com.app.parser.DiceEvaluator;
+import com.app.parser.DiceExpressionException;
+import com.app.parser.DiceParser;
+import com.app.parser.EvaluationLimits;
+import com.app.parser.Lexer;
+import com.app.parser.nodes.Node;
+import com.app.roll.DiceRoll;
+import com.app.roll.DiceRollResult;
+import com.app.roll.RollRenderer;
+import com.app.stats.LogHistogram;
+
+/**
+ * Gerador de carga ponta a ponta: cada worker sorteia expressões do mix e
+ * executa lex → parse → evaluate → render em laço fechado até o fim da
+ * duração.
+ * <br>
+ * Cada worker tem seu próprio gerador (seed derivado do seed da
+ * configuração), histograma de latência e contagem de alocação; tudo é
+ * combinado no final. Operações durante o aquecimento não são medidas.
+ */
+public final class LoadGenerator {
+
+    private static final long SEED_STRIDE = 0x9E3779B97F4A7C15L;
+
+    private final LoadConfig config;
+
+    public LoadGenerator(LoadConfig config) {
+        this.config = config;
+    }
+
+    public LoadReport run() throws InterruptedException {
+
+        ExecutorService executor = executor();
+        try {
+            int workers = config.concurrency();
+            CountDownLatch ready = new CountDownLatch(workers);
+            CountDownLatch start = new CountDownLatch(1);
+
+            List<Future<WorkerResult>> futures = new ArrayList<>(workers);
+            long[] window = new long[2];
+            for (int i = 0; i < workers; i++) {
+                long seed = config.seed() + i * SEED_STRIDE;
+                futures.add(executor.submit(() -> {
+                    ready.countDown();
+                    start.await();
+                    return work(seed, window[0], window[1]);
+                }));
+            }
+
+            ready.await();
+            long measureFrom = System.nanoTime() + config.warmup().toNanos();
+            window[0] = measureFrom;
+            window[1] = measureFrom + config.duration().toNanos();
+            start.countDown();
+
+            LogHistogram latency = new LogHistogram();
+            long operations = 0;
+            long errors = 0;
+            long allocated = 0;
+            for (Future<WorkerResult> future : futures) {
+                WorkerResult result = future.get();
+                latency.merge(result.latency());
+                operations += result.operations();
+                errors += result.errors();
+                allocated = allocated < 0 || result.allocatedBytes() < 0
+                        ? -1
+                        : allocated + result.allocatedBytes();
+            }
+
+            return new LoadReport(
+                    config.threadModel(),
+                    workers,
+                    config.duration(),
+                    operations,
+                    errors,
+                    latency,
+                    allocated
+            );
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Load worker failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private ExecutorService executor() {
+        if (config.threadModel() == ThreadModel.VIRTUAL) {
+            ExecutorService executor = RollExecutors.newVirtualThreadExecutor();
+            if (executor == null) {
+                throw new IllegalStateException("Virtual threads are not available on this JVM");
+            }
+            return executor;
+        }
+        return RollExecutors.newPlatformExecutor("dice-load");
+    }
+
+    private WorkerResult work(long seed, long measureFrom, long measureUntil) {
+
+        SplittableRandom random = new SplittableRandom(seed);
+        DiceEvaluator evaluator = new DiceEvaluator(
+                DiceRoll.seeded(DiceRoll.DEFAULT_ALGORITHM, seed),
+                EvaluationLimits.defaults()
+        );
+        RollRenderer renderer = RollRenderer.standard();
+        StringBuilder out = new StringBuilder(256);
+        LogHistogram latency = new LogHistogram();
+
+        ExpressionMix mix = config.mix();
+        long operations = 0;
+        long errors = 0;
+        long allocatedAtStart = Long.MIN_VALUE;
+
+        while (true) {
+            long begin = System.nanoTime();
+            if (begin >= measureUntil) {
+                break;
+            }
+            boolean measuring = begin >= measureFrom;
+            if (measuring && allocatedAtStart == Long.MIN_VALUE) {
+                allocatedAtStart = allocatedBytes();
+            }
+
+            String expression = mix.next(random);
+            boolean failed = false;
+            try {
+                Node ast = new DiceParser(new Lexer(expression).tokenize()).parse();
+                DiceRollResult result = evaluator.evaluateWithDetails(expression, ast);
+                out.setLength(0);
+                renderer.renderHumanReadable(result, out);
+            } catch (DiceExpressionException | ArithmeticException | IllegalStateException e) {
+                failed = true;
+            }
+
+            if (measuring) {
+                long nanos = System.nanoTime() - begin;
+                latency.accept((int) Math.min(Integer.MAX_VALUE, nanos));
+                operations++;
+                if (failed) errors++;
+            }
+        }
+
+        long allocated = -1;
+        if (allocatedAtStart != Long.MIN_VALUE && allocatedAtStart >= 0) {
+            long end = allocatedBytes();
+            allocated = end >= 0 ? end - allocatedAtStart : -1;
+        }
+        return new WorkerResult(latency, operations, errors, allocated);
+    }
+
+    /** Bytes alocados pela thread atual, -1 se não suportado. */
+    private static long allocatedBytes() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean bean
+                && bean.isThreadAllocatedMemorySupported()
+                && bean.isThreadAllocatedMemoryEnabled()) {
+            return bean.getCurrentThreadAllocatedBytes();
+        }
+        return -1;
+    }
+
+    private record WorkerResult(
+            LogHistogram latency,
+            long operations,
+            long errors,
+            long allocatedBytes
+    ) {}
+
+    /**
+     * Interpreta durações como "30s", "500ms", "2m" ou um número de
+     * segundos.
+     */
+    public static Duration parseDuration(String text) {
+        String value = text.strip().toLowerCase();
+        try {
+            if (value.endsWith("ms")) {
+                return Duration.ofMillis(Long.parseLong(value.substring(0, value.length() - 2)));
+            }
+            if (value.endsWith("s")) {
+                return Duration.ofSeconds(Long.parseLong(value.substring(0, value.length() - 1)));
+            }
+            if (value.endsWith("m")) {
+                return Duration.ofMinutes(Long.parseLong(value.substring(0, value.length() - 1)));
+            }
+            return Duration.ofSeconds(Long.parseLong(value));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid duration: " + text);
+        }
+    }
+
+}
@@ -0,0 +1,78 @@
+package com.app.load;
+
+import java.time.Duration;
+import java.util.Locale;
+
+import com.app.stats.LogHistogram;
+
+/**
+ * Resultado de uma execução do {@link LoadGenerator}.
+ * <br>
+ * Latências em nanossegundos por operação (lex → parse → evaluate →
+ * render), limitadas a Integer.MAX_VALUE (~2,1 s). allocatedBytes é -1
+ * quando a JVM não mede alocação por thread (ex.: virtual threads).
+ */
+public record LoadReport(
+        ThreadModel threadModel,
+        int concurrency,
+        Duration elapsed,
+        long operations,
+        long errors,
+        LogHistogram latencyNanos,
+        long allocatedBytes
+) {
+
+    public double throughput() {
+        return operations / seconds();
+    }
+
+    public boolean allocationMeasured() {
+        return allocatedBytes >= 0;
+    }
+
+    /** Bytes alocados por segundo, NaN quando não medido. */
+    public double allocationRate() {
+        return allocationMeasured() ? allocatedBytes / seconds() : Double.NaN;
+    }
+
+    /** Bytes alocados por operação, NaN quando não medido. */
+    public double bytesPerOperation() {
+        return allocationMeasured() && operations > 0
+                ? (double) allocatedBytes / operations
+                : Double.NaN;
+    }
+
+    private double seconds() {
+        return Math.max(1e-9, elapsed.toNanos() / 1e9);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format(Locale.ROOT, "threads: %s x %d, elapsed: %.2fs%n",
+                threadModel, concurrency, elapsed.toNanos() / 1e9));
+        sb.append(String.format(Locale.ROOT, "operations: %d (%d errors), throughput: %.0f ops/s%n",
+                operations, errors, throughput()));
+        if (latencyNanos.count() > 0) {
+            sb.append(String.format(Locale.ROOT,
+                    "latency: p50 %s, p90 %s, p99 %s, p99.9 %s, max %s%n",
+                    micros(latencyNanos.percentile(50)),
+                    micros(latencyNanos.percentile(90)),
+                    micros(latencyNanos.percentile(99)),
+                    micros(latencyNanos.percentile(99.9)),
+                    micros(latencyNanos.percentile(100))));
+        }
+        if (allocationMeasured()) {
+            sb.append(String.format(Locale.ROOT, "allocation: %.1f MB/s, %.0f B/op",
+                    allocationRate() / (1024 * 1024), bytesPerOperation()));
+        } else {
+            sb.append("allocation: n/a");
+        }
+        return sb.toString();
+    }
+
+    private static String micros(int nanos) {
+        return String.format(Locale.ROOT, "%.1fus", nanos / 1000.0);
+    }
+
+}
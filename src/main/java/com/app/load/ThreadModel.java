@@ -0,0 +1,14 @@
+package com.app.load;
+
+/**
+ * Modelo de threads dos workers do gerador de carga.
+ */
+public enum ThreadModel {
+
+    /** Pool de threads de plataforma, uma por worker. */
+    PLATFORM,
+
+    /** Uma virtual thread por worker (requer Java 21+). */
+    VIRTUAL
+
+}
@@ -0,0 +1,215 @@
+package com.app.parser;
+
+import java.util.Arrays;
+import java.util.List;
+
+import com.app.parser.modifiers.DiceModifier;
+import com.app.parser.nodes.FlatAst;
+import com.app.parser.nodes.Node;
+import com.app.roll.CustomDie;
+import com.app.roll.DiceRoll;
+
+/**
+ * Avaliação em colunas para simulação: cada nó da AST produz um int[K]
+ * com o valor de K avaliações (lanes) de uma vez.
+ * <br>
+ * A AST achatada é percorrida uma vez por bloco em vez de uma vez por
+ * avaliação. Constantes viram Arrays.fill, operações binárias viram laços
+ * simples sobre os arrays (candidatos à auto-vetorização do JIT) e dados
+ * sem modificadores são rolados dado a dado em todas as lanes. Pools com
+ * kh/kl ou explosões são avaliados lane a lane com as mesmas regras do
+ * {@link DiceEvaluator}.
+ * <br>
+ * A ordem de consumo do RNG difere da avaliação sequencial, então os
+ * totais têm a mesma distribuição mas não são os mesmos para um seed.
+ * Os limites de dados e explosões valem por bloco, multiplicados pelo
+ * tamanho do bloco; o limite de duração vale para cada bloco como está,
+ * sem multiplicação. Não é thread-safe: mantém as colunas reaproveitadas entre blocos.
+ */
+public final class BatchEvaluator {
+
+    public static final int DEFAULT_BLOCK_SIZE = 1024;
+
+    private static final int[] NO_BINDINGS = new int[0];
+
+    private final DiceRoll roll;
+    private final DiceEvaluator lanes;
+    private final int blockSize;
+
+    /** Colunas da pilha de valores, cada uma com blockSize posições. */
+    private int[][] columns = new int[4][];
+    private final int[] scratch;
+
+    public BatchEvaluator(DiceRoll roll) {
+        this(roll, EvaluationLimits.unlimited(), DEFAULT_BLOCK_SIZE);
+    }
+
+    public BatchEvaluator(DiceRoll roll, EvaluationLimits limits, int blockSize) {
+        if (blockSize <= 0) {
+            throw new IllegalArgumentException("blockSize must be positive, got: " + blockSize);
+        }
+        this.roll = roll;
+        this.lanes = new DiceEvaluator(roll, limits.scaled(blockSize));
+        this.blockSize = blockSize;
+        this.scratch = new int[blockSize];
+    }
+
+    public int blockSize() {
+        return blockSize;
+    }
+
+    /**
+     * Avalia o nó n vezes, preenchendo out[0..n) com os totais.
+     */
+    public void evaluateMany(Node node, int n, int[] out) {
+        evaluateMany(FlatAst.from(node), NO_BINDINGS, n, out);
+    }
+
+    public void evaluateMany(FlatAst ast, int n, int[] out) {
+        evaluateMany(ast, NO_BINDINGS, n, out);
+    }
+
+    /**
+     * Variante com variáveis: todas as lanes usam os mesmos bindings.
+     */
+    public void evaluateMany(FlatAst ast, int[] bindings, int n, int[] out) {
+        if (n < 0 || n > out.length) {
+            throw new IllegalArgumentException(
+                    "n must be between 0 and " + out.length + ", got: " + n
+            );
+        }
+        for (int from = 0; from < n; from += blockSize) {
+            int count = Math.min(blockSize, n - from);
+            lanes.startBudget();
+            System.arraycopy(evaluateBlock(ast, bindings, count), 0, out, from, count);
+        }
+    }
+
+    /**
+     * Laço linear sobre a AST em pós-ordem com uma pilha de colunas.
+     */
+    private int[] evaluateBlock(FlatAst ast, int[] bindings, int count) {
+
+        int top = 0;
+
+        for (int i = 0; i < ast.size(); i++) {
+
+            if (ast.kind(i) == FlatAst.Kind.BINARY) {
+                int[] right = columns[--top];
+                int[] left = columns[top - 1];
+                apply(left, ast.operator(i), right, count);
+                continue;
+            }
+
+            int[] column = column(top++);
+            switch (ast.kind(i)) {
+                case NUMBER -> Arrays.fill(column, 0, count, ast.value(i));
+                case VARIABLE -> Arrays.fill(column, 0, count, binding(bindings, ast.slot(i)));
+                case DICE -> {
+                    int quantity = ast.quantitySlot(i) < 0
+                            ? ast.quantity(i)
+                            : binding(bindings, ast.quantitySlot(i));
+                    int sides = ast.sidesSlot(i) < 0
+                            ? ast.sides(i)
+                            : binding(bindings, ast.sidesSlot(i));
+                    if (quantity < 0 || sides <= 0) {
+                        throw new DiceExpressionException(
+                                "Dado inválido nos bindings: " + quantity + "d" + sides, -1
+                        );
+                    }
+                    dice(column, count, quantity, sides, ast.customDie(i), ast.modifiers(i));
+                }
+                default -> throw new IllegalStateException("Unknown node kind: " + ast.kind(i));
+            }
+        }
+
+        return columns[0];
+    }
+
+    private int[] column(int index) {
+        if (index == columns.length) {
+            columns = Arrays.copyOf(columns, index * 2);
+        }
+        if (columns[index] == null) {
+            columns[index] = new int[blockSize];
+        }
+        return columns[index];
+    }
+
+    /**
+     * Sem modificadores: uma rolagem por lane a cada dado, acumulada com
+     * um laço simples. Com modificadores: o pool de cada lane é avaliado
+     * pelo caminho apenas de totais do {@link DiceEvaluator}.
+     */
+    private void dice(
+            int[] column,
+            int count,
+            int quantity,
+            int sides,
+            CustomDie customDie,
+            List<DiceModifier> modifiers
+    ) {
+
+        if (!modifiers.isEmpty()) {
+            for (int lane = 0; lane < count; lane++) {
+                column[lane] = lanes.rollPoolTotal(quantity, sides, customDie, modifiers);
+            }
+            return;
+        }
+
+        Arrays.fill(column, 0, count, 0);
+        for (int lane = 0; lane < count; lane++) {
+            lanes.chargeDice(quantity);
+        }
+        for (int die = 0; die < quantity; die++) {
+            if (customDie == null) {
+                for (int lane = 0; lane < count; lane++) {
+                    lanes.checkDeadline();
+                    scratch[lane] = roll.dM(sides);
+                }
+            } else {
+                for (int lane = 0; lane < count; lane++) {
+                    lanes.checkDeadline();
+                    scratch[lane] = roll.roll(customDie);
+                }
+            }
+            for (int lane = 0; lane < count; lane++) {
+                column[lane] += scratch[lane];
+            }
+        }
+    }
+
+    /** left[i] = left[i] op right[i], com a mesma aritmética do avaliador. */
+    private static void apply(int[] left, TokenType operator, int[] right, int count) {
+        switch (operator) {
+            case PLUS -> {
+                for (int i = 0; i < count; i++) left[i] += right[i];
+            }
+            case MINUS -> {
+                for (int i = 0; i < count; i++) left[i] -= right[i];
+            }
+            case MULTIPLY -> {
+                for (int i = 0; i < count; i++) left[i] *= right[i];
+            }
+            case DIVIDE -> {
+                for (int i = 0; i < count; i++) {
+                    if (right[i] == 0) {
+                        throw new ArithmeticException("Division by zero");
+                    }
+                    left[i] /= right[i];
+                }
+            }
+            default -> throw new IllegalArgumentException("Invalid operator: " + operator);
+        }
+    }
+
+    private static int binding(int[] bindings, int slot) {
+        if (slot >= bindings.length) {
+            throw new DiceExpressionException(
+                    "Variável sem valor: slot " + slot + " (bindings com " + bindings.length + ")", -1
+            );
+        }
+        return bindings[slot];
+    }
+
+}
@@ -1,18 +1,29 @@
 package com.app.parser;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Comparator;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
 import java.util.stream.IntStream;
+import java.util.stream.LongStream;
 
 import com.app.parser.modifiers.DiceModifier;
 import com.app.parser.modifiers.ExplosionModifier;
 import com.app.parser.modifiers.KeepHighestModifier;
 import com.app.parser.modifiers.KeepLowestModifier;
+import com.app.parser.modifiers.SuccessCountModifier;
 import com.app.parser.nodes.BinaryOperationNode;
 import com.app.parser.nodes.DiceNode;
+import com.app.parser.nodes.FlatAst;
 import com.app.parser.nodes.Node;
 import com.app.parser.nodes.NumberNode;
+import com.app.parser.nodes.VariableNode;
+import com.app.roll.CustomDie;
+import com.app.roll.DetailLevel;
 import com.app.roll.DiceRoll;
 import com.app.roll.DiceRollResult;
 import com.app.roll.DiceRollResultBuilder;
@@ -21,92 +32,894 @@ import com.app.roll.IndividualDiceRoll;
 
 /**
  * Responsável por executar a AST.
+ * <br>
+ * Não é thread-safe: mantém buffers de trabalho reaproveitados entre avaliações.
+ * <br>
+ * Pools com pelo menos parallelThreshold dados podem ser divididos em
+ * blocos de parallelChunk dados rolados no ForkJoinPool comum, cada bloco
+ * com seu próprio {@link DiceRoll#split()}. O resultado é determinístico
+ * para o mesmo stream e o mesmo parallelChunk, mas difere do caminho
+ * sequencial; por padrão todos os pools são sequenciais.
+ * <br>
+ * Para o mesmo stream, {@link #evaluate} e {@link #evaluateWithDetails}
+ * dão o mesmo total, exceto em contagem de sucessos sem explosões
+ * ("NdM>=X"): o caminho só de totais sorteia a contagem de uma vez
+ * (binomial) enquanto o detalhado rola cada dado. A distribuição é a
+ * mesma, mas o valor e o consumo do stream diferem.
  */
 public class DiceEvaluator {
 
+    private static final int DEADLINE_CHECK_MASK = 1023;
+    private static final int[] NO_BINDINGS = new int[0];
+
+    /** Valores sugeridos para pools gigantes (ex: "2000000d20kh100"). */
+    public static final int DEFAULT_PARALLEL_THRESHOLD = 100_000;
+    public static final int DEFAULT_PARALLEL_CHUNK = 65_536;
+
     private final DiceRoll roll;
+    private final EvaluationLimits limits;
+    private final int parallelThreshold;
+    private final int parallelChunk;
     private DiceRollResultBuilder resultBuilder;
 
+    /** Buffer reaproveitado do kh/kl no caminho só de totais (heap ou pool). */
+    private int[] pool = new int[16];
+
+    // Pilhas explícitas do percurso da AST, reaproveitadas entre avaliações
+    private Node[] pendingNodes = new Node[16];
+    private boolean[] pendingExpanded = new boolean[16];
+    private int[] values = new int[16];
+
+    // Valores das variáveis da avaliação corrente, indexados por slot
+    private int[] bindings = NO_BINDINGS;
+
+    // Orçamento da avaliação corrente
+    private long diceRemaining;
+    private long explosionsRemaining;
+    private long deadline;
+
+    /** Orçamento de explosões compartilhado pelos filhos de um pool paralelo. */
+    private AtomicLong sharedExplosions;
+    private int rollsSinceCheck;
+
     public DiceEvaluator(DiceRoll roll) {
+        this(roll, EvaluationLimits.unlimited());
+    }
+
+    public DiceEvaluator(DiceRoll roll, EvaluationLimits limits) {
+        this(roll, limits, Integer.MAX_VALUE, DEFAULT_PARALLEL_CHUNK);
+    }
+
+    /**
+     * @param parallelThreshold menor pool avaliado em paralelo
+     * @param parallelChunk dados por bloco paralelo (granularidade da divisão)
+     */
+    public DiceEvaluator(DiceRoll roll, EvaluationLimits limits, int parallelThreshold, int parallelChunk) {
+        if (parallelThreshold <= 0) {
+            throw new IllegalArgumentException("parallelThreshold must be positive, got: " + parallelThreshold);
+        }
+        if (parallelChunk <= 0) {
+            throw new IllegalArgumentException("parallelChunk must be positive, got: " + parallelChunk);
+        }
         this.roll = roll;
+        this.limits = limits;
+        this.parallelThreshold = parallelThreshold;
+        this.parallelChunk = parallelChunk;
     }
 
     /**
      * Avalia a expressão completa e retorna resultado detalhado
      */
     public DiceRollResult evaluateWithDetails(String expression, Node node) {
+        return evaluateWithDetails(expression, node, NO_BINDINGS);
+    }
+
+    /**
+     * Avalia a expressão com variáveis, lendo o valor de cada uma em
+     * bindings[slot], e retorna resultado detalhado
+     */
+    public DiceRollResult evaluateWithDetails(String expression, Node node, int[] bindings) {
+        return evaluateWithDetails(expression, node, bindings, DetailLevel.full());
+    }
+
+    /**
+     * Variante com nível de detalhe: com SUMMARY ou CAPPED o resultado
+     * tem tamanho limitado independente do tamanho dos pools
+     */
+    public DiceRollResult evaluateWithDetails(String expression, Node node, int[] bindings, DetailLevel level) {
         this.resultBuilder = DiceRollResultBuilder.create()
-                .withExpression(expression);
-        
-        int total = evaluate(node);
-        
-        return resultBuilder
-                .withFinalTotal(total)
-                .build();
+                .withExpression(expression)
+                .withDetailLevel(level);
+        try {
+            this.bindings = bindings;
+            startBudget();
+            int total = walk(node, true);
+
+            return resultBuilder
+                    .withFinalTotal(total)
+                    .build();
+        } finally {
+            // Não deixa um builder antigo para as avaliações só de totais
+            resultBuilder = null;
+        }
     }
 
     /**
      * Retorna apenas o total
      */
     public int evaluate(Node node) {
-        return evaluateNode(node);
+        return evaluate(node, NO_BINDINGS);
+    }
+
+    /**
+     * Retorna apenas o total, com os valores das variáveis em bindings[slot]
+     */
+    public int evaluate(Node node, int[] bindings) {
+        this.bindings = bindings;
+        startBudget();
+        return walk(node, false);
+    }
+
+    /**
+     * Avalia a AST achatada e retorna resultado detalhado
+     */
+    public DiceRollResult evaluateWithDetails(String expression, FlatAst ast) {
+        return evaluateWithDetails(expression, ast, NO_BINDINGS);
+    }
+
+    /**
+     * Avalia a AST achatada com variáveis e retorna resultado detalhado
+     */
+    public DiceRollResult evaluateWithDetails(String expression, FlatAst ast, int[] bindings) {
+        return evaluateWithDetails(expression, ast, bindings, DetailLevel.full());
+    }
+
+    /**
+     * Variante da AST achatada com nível de detalhe
+     */
+    public DiceRollResult evaluateWithDetails(String expression, FlatAst ast, int[] bindings, DetailLevel level) {
+        this.resultBuilder = DiceRollResultBuilder.create()
+                .withExpression(expression)
+                .withDetailLevel(level);
+        try {
+            this.bindings = bindings;
+            startBudget();
+            int total = walkFlat(ast, true);
+
+            return resultBuilder
+                    .withFinalTotal(total)
+                    .build();
+        } finally {
+            resultBuilder = null;
+        }
+    }
+
+    /**
+     * Retorna apenas o total da AST achatada
+     */
+    public int evaluate(FlatAst ast) {
+        return evaluate(ast, NO_BINDINGS);
+    }
+
+    /**
+     * Retorna apenas o total da AST achatada com variáveis
+     */
+    public int evaluate(FlatAst ast, int[] bindings) {
+        this.bindings = bindings;
+        startBudget();
+        return walkFlat(ast, false);
+    }
+
+    /**
+     * Avalia o mesmo nó n vezes, preenchendo out[0..n) com os totais.
+     * <br>
+     * Caminho apenas de totais: não registra rolagens nem cria DiceRollResult,
+     * e reaproveita os buffers de pool e seleção entre as iterações.
+     * A AST é achatada uma única vez e percorrida linearmente a cada iteração.
+     */
+    public void evaluateMany(Node node, int n, int[] out) {
+        evaluateMany(FlatAst.from(node), n, out);
+    }
+
+    /**
+     * Variante de {@link #evaluateMany(Node, int, int[])} sobre AST já achatada.
+     */
+    public void evaluateMany(FlatAst ast, int n, int[] out) {
+        if (n < 0 || n > out.length) {
+            throw new IllegalArgumentException(
+                    "n must be between 0 and " + out.length + ", got: " + n
+            );
+        }
+        this.bindings = NO_BINDINGS;
+        for (int i = 0; i < n; i++) {
+            startBudget();
+            out[i] = walkFlat(ast, false);
+        }
+    }
+
+    /**
+     * Variante em stream de {@link #evaluateMany(Node, int, int[])}.
+     * <br>
+     * O stream usa este avaliador e não deve ser consumido em paralelo.
+     */
+    public IntStream evaluateStream(Node node, long n) {
+        return evaluateStream(FlatAst.from(node), n);
+    }
+
+    public IntStream evaluateStream(FlatAst ast, long n) {
+        return LongStream.range(0, n).mapToInt(i -> {
+            this.bindings = NO_BINDINGS;
+            startBudget();
+            return walkFlat(ast, false);
+        });
+    }
+
+    /* 
+        ========== ORÇAMENTO (EvaluationLimits) ==========
+    */
+
+    /** Também usado pelo {@link BatchEvaluator}, uma vez por bloco. */
+    void startBudget() {
+        diceRemaining = limits.maxDice();
+        explosionsRemaining = limits.maxExplosions();
+        rollsSinceCheck = 0;
+        deadline = limits.hasDeadline()
+                ? System.nanoTime() + limits.maxDurationNanos()
+                : 0L;
+    }
+
+    /** Reserva o pool inteiro antes de rolar, rejeitando-o sem custo se exceder. */
+    void chargeDice(int quantity) {
+        diceRemaining -= quantity;
+        if (diceRemaining < 0) {
+            throw new DiceLimitExceededException(
+                    DiceLimitExceededException.Limit.DICE,
+                    "Avaliação excede " + limits.maxDice() + " dados"
+            );
+        }
+    }
+
+    private void chargeExplosion() {
+        chargeExplosions(1);
+    }
+
+    private void chargeExplosions(long count) {
+        long remaining = sharedExplosions != null
+                ? sharedExplosions.addAndGet(-count)
+                : (explosionsRemaining -= count);
+        if (remaining < 0) {
+            throw new DiceLimitExceededException(
+                    DiceLimitExceededException.Limit.EXPLOSIONS,
+                    "Avaliação excede " + limits.maxExplosions() + " explosões"
+            );
+        }
+    }
+
+    /** Consulta o relógio apenas a cada 1024 rolagens. */
+    void checkDeadline() {
+        if (deadline != 0L
+                && (++rollsSinceCheck & DEADLINE_CHECK_MASK) == 0
+                && System.nanoTime() - deadline > 0) {
+            throw new DiceLimitExceededException(
+                    DiceLimitExceededException.Limit.DURATION,
+                    "Avaliação excede " + limits.maxDuration().toMillis() + " ms"
+            );
+        }
     }
 
-    private int evaluateNode(Node node) {
+    /**
+     * Rola o pool sem registro detalhado, aplicando explosões e keep
+     * sobre o buffer primitivo reaproveitado. customDie é null para dados
+     * comuns 1..sides.
+     */
+    int rollPoolTotal(int quantity, int sides, CustomDie customDie, List<DiceModifier> modifiers) {
+
+        DiceModifier keep = firstKeepModifier(modifiers);
+        chargeDice(quantity);
+
+        SuccessCountModifier success = successModifier(modifiers);
+        if (quantity >= parallelThreshold && (success == null || hasExplosion(modifiers))) {
+            return parallelPoolTotal(quantity, sides, customDie, modifiers, keep,
+                    success == null ? null : success.condition());
+        }
+        if (success != null) {
+            return countSuccesses(quantity, sides, customDie, modifiers, success.condition());
+        }
+
+        if (keep == null) {
+            int total = 0;
+            for (int i = 0; i < quantity; i++) {
+                total += rollDie(sides, customDie, modifiers, null);
+            }
+            return total;
+        }
+
+        // Seleção em vez de ordenar o pool: heap mínimo com os k melhores
+        // (negados no kl, como em chunkTotal). Com k acima da metade, o
+        // heap guarda os quantity - k descartados e o total é a soma de
+        // todos menos a deles, então o heap tem min(k, quantity - k) dados.
+        // Com o heap perto do tamanho do pool, ordenar sai mais barato.
+        int sign = keep instanceof KeepHighestModifier ? 1 : -1;
+        int k = Math.min(quantity, keep instanceof KeepHighestModifier kh
+                ? kh.count()
+                : ((KeepLowestModifier) keep).count());
+        boolean complement = k > quantity - k;
+        int capacity = complement ? quantity - k : k;
+        if (capacity > quantity >>> 3) {
+            return sortedPoolTotal(quantity, sides, customDie, modifiers, sign, k);
+        }
+        int heapSign = complement ? -sign : sign;
+        if (pool.length < capacity) {
+            pool = new int[Math.max(capacity, pool.length * 2)];
+        }
+
+        int all = 0;
+        int size = 0;
+        for (int i = 0; i < quantity; i++) {
+            int die = rollDie(sides, customDie, modifiers, null);
+            all += die;
+            int value = heapSign * die;
+            if (size < capacity) {
+                siftUp(pool, size++, value);
+            } else if (capacity > 0 && value > pool[0]) {
+                siftDown(pool, size, value);
+            }
+        }
+
+        int selected = 0;
+        for (int i = 0; i < size; i++) {
+            selected += heapSign * pool[i];
+        }
+        return complement ? all - selected : selected;
+    }
+
+    /** kh/kl ordenando o pool inteiro, para k perto de quantity / 2. */
+    private int sortedPoolTotal(
+            int quantity,
+            int sides,
+            CustomDie customDie,
+            List<DiceModifier> modifiers,
+            int sign,
+            int k
+    ) {
+        if (pool.length < quantity) {
+            pool = new int[Math.max(quantity, pool.length * 2)];
+        }
+        for (int i = 0; i < quantity; i++) {
+            pool[i] = rollDie(sides, customDie, modifiers, null);
+        }
+        Arrays.sort(pool, 0, quantity);
+
+        int from = sign > 0 ? quantity - k : 0;
+        int total = 0;
+        for (int i = from; i < from + k; i++) {
+            total += pool[i];
+        }
+        return total;
+    }
+
+    /**
+     * Sem explosões os sucessos seguem Binomial(quantidade, faces/lados)
+     * (ou peso das faces/peso total, em dados customizados) e são
+     * sorteados de uma vez, em O(1) no tamanho do pool; com explosões cada
+     * dado é rolado e testado pelo seu total. Por isso, para o mesmo seed,
+     * o total aqui não é o mesmo do caminho detalhado, que rola cada dado.
+     */
+    private int countSuccesses(
+            int quantity,
+            int sides,
+            CustomDie customDie,
+            List<DiceModifier> modifiers,
+            ExplosionCondition condition
+    ) {
+        if (!hasExplosion(modifiers)) {
+            checkDeadline();
+            double p = customDie == null
+                    ? (double) condition.countMatching(1, sides) / sides
+                    : (double) customDie.weight(condition::test) / customDie.totalWeight();
+            return roll.binomial(quantity, p);
+        }
+        int successes = 0;
+        for (int i = 0; i < quantity; i++) {
+            if (condition.test(rollDie(sides, customDie, modifiers, null))) {
+                successes++;
+            }
+        }
+        return successes;
+    }
+
+    private static boolean hasExplosion(List<DiceModifier> modifiers) {
+        for (DiceModifier mod : modifiers) {
+            if (mod instanceof ExplosionModifier) {
+                return true;
+            }
+        }
+        return false;
+    }
 
-        if (node instanceof NumberNode number) {
-            return number.value();
+    private static SuccessCountModifier successModifier(List<DiceModifier> modifiers) {
+        for (DiceModifier mod : modifiers) {
+            if (mod instanceof SuccessCountModifier success) {
+                return success;
+            }
         }
+        return null;
+    }
 
-        if (node instanceof BinaryOperationNode bin) {
-            int left = evaluateNode(bin.left());
-            int right = evaluateNode(bin.right());
-            return applyOperation(left, bin, right);
+    private DiceModifier firstKeepModifier(List<DiceModifier> modifiers) {
+        for (DiceModifier mod : modifiers) {
+            if (mod instanceof KeepHighestModifier || mod instanceof KeepLowestModifier) {
+                return mod;
+            }
         }
+        return null;
+    }
 
-        if (node instanceof DiceNode diceNode) {
-            return evaluateDice(diceNode);
+    /**
+     * Percorre a AST em pós-ordem com pilhas explícitas (sem recursão),
+     * então a profundidade da árvore não consome a pilha nativa.
+     * <br>
+     * O filho esquerdo é sempre avaliado antes do direito, preservando a
+     * ordem de consumo do RNG. Com details, os dados passam pelo caminho
+     * com registro detalhado; caso contrário, pelo caminho apenas de totais.
+     */
+    private int walk(Node root, boolean details) {
+
+        int pending = 0;
+        int results = 0;
+        pushPending(pending++, root, false);
+
+        while (pending > 0) {
+
+            pending--;
+            Node node = pendingNodes[pending];
+            boolean expanded = pendingExpanded[pending];
+            pendingNodes[pending] = null;
+
+            if (node instanceof BinaryOperationNode bin) {
+                if (!expanded) {
+                    pushPending(pending++, bin, true);
+                    pushPending(pending++, bin.right(), false);
+                    pushPending(pending++, bin.left(), false);
+                } else {
+                    int right = values[--results];
+                    int left = values[--results];
+                    values[results++] = applyOperation(left, bin.operator(), right);
+                }
+                continue;
+            }
+
+            int value;
+            if (node instanceof NumberNode number) {
+                value = number.value();
+            } else if (node instanceof VariableNode variable) {
+                value = binding(variable.slot());
+            } else if (node instanceof DiceNode dice) {
+                int quantity = dice.quantityVariable() == null
+                        ? dice.quantity()
+                        : quantity(dice.quantityVariable().slot());
+                int sides = dice.sidesVariable() == null
+                        ? dice.sides()
+                        : sides(dice.sidesVariable().slot());
+                value = details
+                        ? evaluateDice(quantity, sides, dice.customDie(), dice.modifiers())
+                        : rollPoolTotal(quantity, sides, dice.customDie(), dice.modifiers());
+            } else {
+                throw new IllegalStateException("Unknown node type: " + node.getClass().getName());
+            }
+
+            if (results == values.length) {
+                values = Arrays.copyOf(values, results * 2);
+            }
+            values[results++] = value;
         }
 
-        throw new IllegalStateException("Unknown node type: " + node.getClass().getName());
+        return values[0];
+    }
+
+    /**
+     * Avalia a AST achatada: os nós já estão em pós-ordem, então basta um
+     * laço linear com a pilha de valores.
+     */
+    private int walkFlat(FlatAst ast, boolean details) {
+
+        int results = 0;
+
+        for (int i = 0; i < ast.size(); i++) {
+
+            int value = switch (ast.kind(i)) {
+                case NUMBER -> ast.value(i);
+                case VARIABLE -> binding(ast.slot(i));
+                case DICE -> {
+                    int quantity = ast.quantitySlot(i) < 0 ? ast.quantity(i) : quantity(ast.quantitySlot(i));
+                    int sides = ast.sidesSlot(i) < 0 ? ast.sides(i) : sides(ast.sidesSlot(i));
+                    yield details
+                            ? evaluateDice(quantity, sides, ast.customDie(i), ast.modifiers(i))
+                            : rollPoolTotal(quantity, sides, ast.customDie(i), ast.modifiers(i));
+                }
+                case BINARY -> {
+                    int right = values[--results];
+                    int left = values[--results];
+                    yield applyOperation(left, ast.operator(i), right);
+                }
+            };
+
+            if (results == values.length) {
+                values = Arrays.copyOf(values, results * 2);
+            }
+            values[results++] = value;
+        }
+
+        return values[0];
+    }
+
+    /* 
+        ========== VARIÁVEIS ==========
+    */
+
+    private int binding(int slot) {
+        if (slot >= bindings.length) {
+            throw new DiceExpressionException(
+                    "Variável sem valor: slot " + slot + " (bindings com " + bindings.length + ")", -1
+            );
+        }
+        return bindings[slot];
+    }
+
+    private int quantity(int slot) {
+        int quantity = binding(slot);
+        if (quantity < 0) {
+            throw new DiceExpressionException(
+                    "Quantidade de dados negativa no slot " + slot + ": " + quantity, -1
+            );
+        }
+        return quantity;
+    }
+
+    private int sides(int slot) {
+        int sides = binding(slot);
+        if (sides <= 0) {
+            throw new DiceExpressionException(
+                    "O dado precisa ter ao menos 1 lado (slot " + slot + ": " + sides + ")", -1
+            );
+        }
+        return sides;
+    }
+
+    private void pushPending(int index, Node node, boolean expanded) {
+        if (index == pendingNodes.length) {
+            pendingNodes = Arrays.copyOf(pendingNodes, index * 2);
+            pendingExpanded = Arrays.copyOf(pendingExpanded, index * 2);
+        }
+        pendingNodes[index] = node;
+        pendingExpanded[index] = expanded;
     }
 
     /**
      * Executa a rolagem completa com modificadores e registro detalhado
      */
-    private int evaluateDice(DiceNode node) {
+    private int evaluateDice(int quantity, int sides, CustomDie customDie, List<DiceModifier> modifiers) {
+
+        chargeDice(quantity);
+        if (resultBuilder != null && resultBuilder.detailLevel().hasSummary()) {
+            return streamDice(quantity, sides, customDie, modifiers);
+        }
 
-        List<DiceRollEntry> rollEntries = new ArrayList<>();
+        List<DiceRollEntry> rollEntries = quantity >= parallelThreshold
+                ? parallelEntries(quantity, sides, customDie, modifiers)
+                : new ArrayList<>();
 
         // Rola todos os dados
-        for (int i = 0; i < node.quantity(); i++) {
+        while (rollEntries.size() < quantity) {
             DiceRollEntry entry = rollWithExplosion(
-                    node.sides(), 
-                    node.modifiers()
+                    sides, 
+                    customDie,
+                    modifiers
             );
             rollEntries.add(entry);
         }
 
-        // Aplica modificadores de keep
-        rollEntries = applyKeepModifiers(rollEntries, node.modifiers());
+        SuccessCountModifier success = successModifier(modifiers);
+        if (success != null) {
+            return recordSuccesses(rollEntries, modifiers, success.condition());
+        }
+
+        // Aplica modificadores de keep: as entradas ficam ordenadas e as
+        // keptEntries primeiras são as mantidas
+        int keptEntries = applyKeepModifiers(rollEntries, modifiers);
 
-        // Registra todas as rolagens
+        // Registra todas as rolagens já com o status de kept
         if (resultBuilder != null) {
-            rollEntries.forEach(entry -> 
-                resultBuilder.addRolls(entry.rolls())
-            );
+            for (int i = 0; i < rollEntries.size(); i++) {
+                resultBuilder.addRolls(rollEntries.get(i).rolls(), i < keptEntries);
+            }
             
             // Registra modificadores aplicados
-            node.modifiers().forEach(mod -> 
+            modifiers.forEach(mod -> 
                 resultBuilder.addModifier(formatModifier(mod))
             );
         }
 
         // Calcula total
-        return rollEntries.stream()
-                .filter(DiceRollEntry::kept)
-                .mapToInt(DiceRollEntry::total)
-                .sum();
+        int total = 0;
+        for (int i = 0; i < keptEntries; i++) {
+            total += rollEntries.get(i).total();
+        }
+        return total;
+    }
+
+    /**
+     * Caminho detalhado com {@link DetailLevel} SUMMARY ou CAPPED: cada dado
+     * vai para o builder assim que é rolado, então a memória não cresce com
+     * o pool. As rolagens ficam na ordem em que saíram (com FULL, kh/kl as
+     * registra já ordenadas); pools paralelos são consumidos em ondas.
+     */
+    private int streamDice(int quantity, int sides, CustomDie customDie, List<DiceModifier> modifiers) {
+
+        PoolRecorder recorder = new PoolRecorder(resultBuilder, modifiers, quantity);
+        if (quantity >= parallelThreshold) {
+            forkChunks(quantity, Math.max(1, ForkJoinPool.getCommonPoolParallelism()),
+                    (chunk, count) -> chunk.chunkEntries(count, sides, customDie, modifiers),
+                    entries -> entries.forEach(e -> recorder.add(e.rolls(), e.total())));
+        } else {
+            List<IndividualDiceRoll> rolls = new ArrayList<>();
+            for (int i = 0; i < quantity; i++) {
+                int total = rollDie(sides, customDie, modifiers, rolls);
+                recorder.add(rolls, total);
+                rolls.clear();
+            }
+        }
+
+        modifiers.forEach(mod ->
+            resultBuilder.addModifier(formatModifier(mod))
+        );
+        return recorder.total();
+    }
+
+    /**
+     * Contagem de sucessos com registro: os dados que falharam ficam
+     * marcados como descartados, então "kept" lista os sucessos.
+     */
+    private int recordSuccesses(
+            List<DiceRollEntry> rollEntries,
+            List<DiceModifier> modifiers,
+            ExplosionCondition condition
+    ) {
+        int successes = 0;
+        for (DiceRollEntry entry : rollEntries) {
+            boolean passed = condition.test(entry.total());
+            if (resultBuilder != null) {
+                resultBuilder.addRolls(entry.rolls(), passed);
+            }
+            if (passed) {
+                successes++;
+            }
+        }
+        if (resultBuilder != null) {
+            modifiers.forEach(mod ->
+                resultBuilder.addModifier(formatModifier(mod))
+            );
+        }
+        return successes;
+    }
+
+    /* 
+        ========== POOLS PARALELOS ==========
+    */
+
+    /**
+     * Totais de um pool grande: cada bloco devolve sua soma parcial (ou
+     * contagem de sucessos) ou, com kh/kl, os seus k melhores dados, que
+     * são mesclados aqui. As explosões continuam por dado, dentro do bloco.
+     */
+    private int parallelPoolTotal(
+            int quantity,
+            int sides,
+            CustomDie customDie,
+            List<DiceModifier> modifiers,
+            DiceModifier keep,
+            ExplosionCondition success
+    ) {
+        List<int[]> partials = forkChunks(quantity,
+                (chunk, count) -> chunk.chunkTotal(count, sides, customDie, modifiers, keep, success));
+
+        if (keep == null) {
+            int total = 0;
+            for (int[] partial : partials) {
+                total += partial[0];
+            }
+            return total;
+        }
+
+        int size = 0;
+        for (int[] partial : partials) {
+            size += partial.length;
+        }
+        int[] merged = new int[size];
+        int at = 0;
+        for (int[] partial : partials) {
+            System.arraycopy(partial, 0, merged, at, partial.length);
+            at += partial.length;
+        }
+        Arrays.sort(merged);
+
+        int from;
+        int to;
+        if (keep instanceof KeepHighestModifier kh) {
+            from = Math.max(0, size - kh.count());
+            to = size;
+        } else {
+            from = 0;
+            to = Math.min(size, ((KeepLowestModifier) keep).count());
+        }
+        int total = 0;
+        for (int i = from; i < to; i++) {
+            total += merged[i];
+        }
+        return total;
+    }
+
+    /**
+     * Rolagens detalhadas de um pool grande, concatenadas na ordem dos
+     * blocos; keep e sucessos seguem pelo caminho sequencial.
+     */
+    private List<DiceRollEntry> parallelEntries(
+            int quantity,
+            int sides,
+            CustomDie customDie,
+            List<DiceModifier> modifiers
+    ) {
+        List<List<DiceRollEntry>> chunks = forkChunks(quantity,
+                (chunk, count) -> chunk.chunkEntries(count, sides, customDie, modifiers));
+        List<DiceRollEntry> entries = new ArrayList<>(quantity);
+        chunks.forEach(entries::addAll);
+        return entries;
+    }
+
+    /**
+     * Divide o pool em blocos de parallelChunk dados, cada um com um
+     * avaliador filho. Os filhos são criados em ordem nesta thread, então
+     * os streams não dependem do agendamento. Os filhos debitam as
+     * explosões de um único contador atômico enquanto rolam, então o
+     * limite vale para o pool inteiro e não por bloco.
+     */
+    private <T> List<T> forkChunks(int quantity, ChunkTask<T> task) {
+        List<T> results = new ArrayList<>();
+        forkChunks(quantity, Integer.MAX_VALUE, task, results::add);
+        return results;
+    }
+
+    /**
+     * Como {@link #forkChunks(int, ChunkTask)}, mas dispara no máximo wave
+     * blocos por vez e entrega cada resultado a sink, na ordem dos blocos,
+     * quando a onda termina; só uma onda fica em memória. Os streams são os
+     * mesmos de uma única onda.
+     */
+    private <T> void forkChunks(int quantity, int wave, ChunkTask<T> task, Consumer<T> sink) {
+
+        int chunks = (int) ((quantity + (long) parallelChunk - 1) / parallelChunk);
+        AtomicLong explosions = new AtomicLong(explosionsRemaining);
+
+        for (int first = 0; first < chunks; first += wave) {
+            int last = (int) Math.min(chunks, (long) first + wave);
+            List<ForkJoinTask<T>> tasks = new ArrayList<>(last - first);
+
+            for (int c = first; c < last; c++) {
+                DiceEvaluator child = new DiceEvaluator(roll.split(), limits);
+                // Os dados já foram reservados pelo pool inteiro
+                child.diceRemaining = Long.MAX_VALUE;
+                child.sharedExplosions = explosions;
+                child.deadline = deadline;
+
+                int count = Math.min(parallelChunk, quantity - c * parallelChunk);
+                tasks.add(ForkJoinTask.adapt(() -> task.roll(child, count)));
+            }
+
+            ForkJoinTask.invokeAll(tasks);
+            for (ForkJoinTask<T> t : tasks) {
+                sink.accept(t.join());
+            }
+        }
+
+        chargeExplosions(explosionsRemaining - explosions.get());
+    }
+
+    @FunctionalInterface
+    private interface ChunkTask<T> {
+        T roll(DiceEvaluator chunk, int count);
+    }
+
+    /**
+     * Executado no filho. Sem keep: soma parcial em [0]. Com kh/kl: heap
+     * mínimo com os k maiores (kl guarda os valores negados, então o mesmo
+     * heap fica com os k menores), devolvido com os valores originais.
+     */
+    private int[] chunkTotal(
+            int count,
+            int sides,
+            CustomDie customDie,
+            List<DiceModifier> modifiers,
+            DiceModifier keep,
+            ExplosionCondition success
+    ) {
+        if (keep == null) {
+            int total = 0;
+            for (int i = 0; i < count; i++) {
+                int die = rollDie(sides, customDie, modifiers, null);
+                if (success == null) {
+                    total += die;
+                } else if (success.test(die)) {
+                    total++;
+                }
+            }
+            return new int[] {total};
+        }
+
+        int sign = keep instanceof KeepHighestModifier ? 1 : -1;
+        int k = keep instanceof KeepHighestModifier kh
+                ? kh.count()
+                : ((KeepLowestModifier) keep).count();
+        int[] heap = new int[Math.min(k, count)];
+        int size = 0;
+
+        for (int i = 0; i < count; i++) {
+            int value = sign * rollDie(sides, customDie, modifiers, null);
+            if (size < heap.length) {
+                siftUp(heap, size++, value);
+            } else if (size > 0 && value > heap[0]) {
+                siftDown(heap, size, value);
+            }
+        }
+
+        for (int i = 0; i < size; i++) {
+            heap[i] *= sign;
+        }
+        return heap;
+    }
+
+    /** Executado no filho: as rolagens detalhadas do bloco, em ordem. */
+    private List<DiceRollEntry> chunkEntries(
+            int count,
+            int sides,
+            CustomDie customDie,
+            List<DiceModifier> modifiers
+    ) {
+        List<DiceRollEntry> entries = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            entries.add(rollWithExplosion(sides, customDie, modifiers));
+        }
+        return entries;
+    }
+
+    /** Insere value na posição index do heap mínimo. */
+    private static void siftUp(int[] heap, int index, int value) {
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (heap[parent] <= value) {
+                break;
+            }
+            heap[index] = heap[parent];
+            index = parent;
+        }
+        heap[index] = value;
+    }
+
+    /** Substitui a raiz do heap mínimo por value. */
+    private static void siftDown(int[] heap, int size, int value) {
+        int index = 0;
+        int half = size >>> 1;
+        while (index < half) {
+            int child = 2 * index + 1;
+            if (child + 1 < size && heap[child + 1] < heap[child]) {
+                child++;
+            }
+            if (value <= heap[child]) {
+                break;
+            }
+            heap[index] = heap[child];
+            index = child;
+        }
+        heap[index] = value;
     }
 
     /**
@@ -114,13 +927,39 @@ public class DiceEvaluator {
      */
     private DiceRollEntry rollWithExplosion(
             int sides, 
+            CustomDie customDie,
             List<DiceModifier> modifiers
     ) {
         List<IndividualDiceRoll> rolls = new ArrayList<>();
-        
+        int total = rollDie(sides, customDie, modifiers, rolls);
+        return new DiceRollEntry(rolls, total);
+    }
+
+    /**
+     * Rola um dado aplicando as explosões e retorna seu total.
+     * <br>
+     * Quando rolls não é null, cada rolagem individual é registrada nele.
+     * Dados customizados (customDie != null) não têm explosões.
+     */
+    private int rollDie(
+            int sides,
+            CustomDie customDie,
+            List<DiceModifier> modifiers,
+            List<IndividualDiceRoll> rolls
+    ) {
         // Primeira rolagem
+        checkDeadline();
+        if (customDie != null) {
+            int face = roll.roll(customDie);
+            if (rolls != null) {
+                rolls.add(IndividualDiceRoll.custom(customDie.label(), sides, face));
+            }
+            return face;
+        }
         int value = roll.dM(sides);
-        rolls.add(IndividualDiceRoll.normal(sides, value));
+        if (rolls != null) {
+            rolls.add(IndividualDiceRoll.normal(sides, value));
+        }
         
         int total = value;
         int lastRoll = value;
@@ -137,6 +976,8 @@ public class DiceEvaluator {
                         break;
                     }
 
+                    chargeExplosion();
+                    checkDeadline();
                     lastRoll = roll.dM(sides);
                     
                     // Aplica penalidade penetrante
@@ -144,25 +985,23 @@ public class DiceEvaluator {
                         lastRoll = Math.max(1, lastRoll - exp.penalty());
                     }
 
-                    rolls.add(IndividualDiceRoll.exploded(
-                            sides, 
-                            lastRoll, 
-                            iteration,
-                            exp.penetrating()
-                    ));
-
-                    if (!exp.compound()) {
-                        total += lastRoll;
-                    } else {
-                        total += lastRoll;
+                    if (rolls != null) {
+                        rolls.add(IndividualDiceRoll.exploded(
+                                sides, 
+                                lastRoll, 
+                                iteration,
+                                exp.penetrating()
+                        ));
                     }
 
+                    total += lastRoll;
+
                     iteration++;
                 }
             }
         }
 
-        return new DiceRollEntry(rolls, total, true);
+        return total;
     }
 
     private boolean shouldExplode(int roll, int sides, ExplosionModifier mod) {
@@ -176,9 +1015,10 @@ public class DiceEvaluator {
     }
 
     /**
-     * Aplica modificadores de keep highest/lowest
+     * Aplica modificadores de keep highest/lowest: ordena as entradas
+     * (estável) e retorna quantas, a partir do início, foram mantidas
      */
-    private List<DiceRollEntry> applyKeepModifiers(
+    private int applyKeepModifiers(
             List<DiceRollEntry> entries,
             List<DiceModifier> modifiers
     ) {
@@ -186,44 +1026,22 @@ public class DiceEvaluator {
         for (DiceModifier mod : modifiers) {
 
             if (mod instanceof KeepHighestModifier kh) {
-                return applyKeepHighest(entries, kh.count());
+                entries.sort(Comparator.comparingInt(DiceRollEntry::total).reversed());
+                return Math.min(kh.count(), entries.size());
             }
 
             if (mod instanceof KeepLowestModifier kl) {
-                return applyKeepLowest(entries, kl.count());
+                entries.sort(Comparator.comparingInt(DiceRollEntry::total));
+                return Math.min(kl.count(), entries.size());
             }
         }
 
-        return entries;
-    }
-
-    private List<DiceRollEntry> applyKeepHighest(
-            List<DiceRollEntry> entries, 
-            int count
-    ) {
-        List<DiceRollEntry> sorted = new ArrayList<>(entries);
-        sorted.sort(Comparator.comparingInt(DiceRollEntry::total).reversed());
-
-        return IntStream.range(0, sorted.size())
-                .mapToObj(i -> sorted.get(i).withKept(i < count))
-                .toList();
+        return entries.size();
     }
 
-    private List<DiceRollEntry> applyKeepLowest(
-            List<DiceRollEntry> entries, 
-            int count
-    ) {
-        List<DiceRollEntry> sorted = new ArrayList<>(entries);
-        sorted.sort(Comparator.comparingInt(DiceRollEntry::total));
+    private int applyOperation(int left, TokenType operator, int right) {
 
-        return IntStream.range(0, sorted.size())
-                .mapToObj(i -> sorted.get(i).withKept(i < count))
-                .toList();
-    }
-
-    private int applyOperation(int left, BinaryOperationNode bin, int right) {
-
-        return switch (bin.operator()) {
+        return switch (operator) {
             case PLUS -> left + right;
             case MINUS -> left - right;
             case MULTIPLY -> left * right;
@@ -234,7 +1052,7 @@ public class DiceEvaluator {
                 yield left / right;
             }
             default -> throw new IllegalArgumentException(
-                    "Invalid operator: " + bin.operator()
+                    "Invalid operator: " + operator
             );
         };
     }
@@ -246,6 +1064,9 @@ public class DiceEvaluator {
         if (modifier instanceof KeepLowestModifier kl) {
             return "kl" + kl.count();
         }
+        if (modifier instanceof SuccessCountModifier success) {
+            return "successes" + success.condition().operator().symbol() + success.condition().value();
+        }
         if (modifier instanceof ExplosionModifier exp) {
             StringBuilder sb = new StringBuilder();
             if (exp.compound()) sb.append("!!");
@@ -260,19 +1081,142 @@ public class DiceEvaluator {
         return modifier.getClass().getSimpleName();
     }
 
+    /**
+     * Recebe os dados de um pool na ordem em que são rolados e já os
+     * registra no builder com o status final de kept. Com kh/kl mantém um
+     * heap com os k melhores até agora (o pior na raiz, e no empate o mais
+     * recente, como na ordenação estável do caminho FULL); quem sai do heap
+     * tem suas rolagens desmarcadas. Guarda só inteiros por dado mantido.
+     */
+    private static final class PoolRecorder {
+
+        private final DiceRollResultBuilder builder;
+        private final ExplosionCondition success;
+        private final int sign;
+        private final int[] heap;
+        private final int[] value;
+        private final int[] order;
+        private final int[] from;
+        private final int[] to;
+        private int size;
+        private int added;
+        private int total;
+
+        private PoolRecorder(DiceRollResultBuilder builder, List<DiceModifier> modifiers, int quantity) {
+            this.builder = builder;
+            SuccessCountModifier successCount = successModifier(modifiers);
+            this.success = successCount != null ? successCount.condition() : null;
+
+            int k = -1;
+            int keepSign = 0;
+            for (DiceModifier mod : modifiers) {
+                if (mod instanceof KeepHighestModifier kh) {
+                    k = kh.count();
+                    keepSign = 1;
+                    break;
+                }
+                if (mod instanceof KeepLowestModifier kl) {
+                    k = kl.count();
+                    keepSign = -1;
+                    break;
+                }
+            }
+            this.sign = keepSign;
+            int slots = keepSign == 0 ? 0 : Math.max(0, Math.min(k, quantity));
+            this.heap = new int[slots];
+            this.value = new int[slots];
+            this.order = new int[slots];
+            this.from = new int[slots];
+            this.to = new int[slots];
+        }
+
+        void add(List<IndividualDiceRoll> rolls, int dieTotal) {
+            int index = added++;
+
+            if (sign == 0) {
+                boolean passed = success == null || success.test(dieTotal);
+                builder.addRolls(rolls, passed);
+                if (success == null) {
+                    total += dieTotal;
+                } else if (passed) {
+                    total++;
+                }
+                return;
+            }
+
+            int signed = sign * dieTotal;
+            boolean grows = size < heap.length;
+            int slot;
+            if (grows) {
+                slot = size++;
+            } else if (size > 0 && signed > value[heap[0]]) {
+                // Entra no lugar do pior mantido até agora
+                slot = heap[0];
+                builder.discardRange(from[slot], to[slot]);
+                total -= sign * value[slot];
+            } else {
+                builder.addRolls(rolls, false);
+                return;
+            }
+
+            value[slot] = signed;
+            order[slot] = index;
+            from[slot] = builder.rollCount();
+            builder.addRolls(rolls, true);
+            to[slot] = builder.rollCount();
+            total += dieTotal;
+
+            if (grows) {
+                siftUp(size - 1, slot);
+            } else {
+                siftDown(slot);
+            }
+        }
+
+        /** a sai antes de b: menor valor ou, no empate, rolado depois. */
+        private boolean worse(int a, int b) {
+            return value[a] < value[b] || value[a] == value[b] && order[a] > order[b];
+        }
+
+        private void siftUp(int index, int slot) {
+            while (index > 0) {
+                int parent = (index - 1) >>> 1;
+                if (!worse(slot, heap[parent])) {
+                    break;
+                }
+                heap[index] = heap[parent];
+                index = parent;
+            }
+            heap[index] = slot;
+        }
+
+        private void siftDown(int slot) {
+            int index = 0;
+            int half = size >>> 1;
+            while (index < half) {
+                int child = 2 * index + 1;
+                if (child + 1 < size && worse(heap[child + 1], heap[child])) {
+                    child++;
+                }
+                if (!worse(heap[child], slot)) {
+                    break;
+                }
+                heap[index] = heap[child];
+                index = child;
+            }
+            heap[index] = slot;
+        }
+
+        int total() {
+            return total;
+        }
+    }
+
     /**
      * Record interno para agrupar resultados durante processamento
      */
     private record DiceRollEntry(
             List<IndividualDiceRoll> rolls,
-            int total,
-            boolean kept
-    ) {
-        DiceRollEntry withKept(boolean newKept) {
-            List<IndividualDiceRoll> updatedRolls = rolls.stream()
-                .map(roll -> roll.withKeptStatus(newKept))
-                .toList();
-            return new DiceRollEntry(updatedRolls, total, newKept);
-        }
-    }
+            int total
+    ) {}
 }
@@ -0,0 +1,25 @@
+package com.app.parser;
+
+/**
+ * Base dos erros de expressão de dados.
+ * <br>
+ * Exceções sem stack trace: entradas inválidas são esperadas em produção
+ * e capturar o stack a cada uma é custoso sob tráfego adversarial.
+ */
+public class DiceExpressionException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int position;
+
+    public DiceExpressionException(String message, int position) {
+        super(message, null, false, false);
+        this.position = position;
+    }
+
+    /** Posição (0-based) na expressão, ou -1 quando não se aplica. */
+    public int position() {
+        return position;
+    }
+
+}
@@ -0,0 +1,34 @@
+package com.app.parser;
+
+/**
+ * Expressão ou avaliação excedeu um dos {@link EvaluationLimits}.
+ */
+public class DiceLimitExceededException extends DiceExpressionException {
+
+    private static final long serialVersionUID = 1L;
+
+    /** Limite violado. */
+    public enum Limit {
+        EXPRESSION_LENGTH,
+        DEPTH,
+        DICE,
+        EXPLOSIONS,
+        DURATION
+    }
+
+    private final Limit limit;
+
+    public DiceLimitExceededException(Limit limit, String message, int position) {
+        super(message, position);
+        this.limit = limit;
+    }
+
+    public DiceLimitExceededException(Limit limit, String message) {
+        this(limit, message, -1);
+    }
+
+    public Limit limit() {
+        return limit;
+    }
+
+}
@@ -1,32 +1,56 @@
 package com.app.parser;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import com.app.parser.modifiers.DiceModifier;
 import com.app.parser.modifiers.ExplosionModifier;
 import com.app.parser.modifiers.KeepHighestModifier;
 import com.app.parser.modifiers.KeepLowestModifier;
+import com.app.parser.modifiers.SuccessCountModifier;
+import com.app.parser.nodes.AstInterner;
 import com.app.parser.nodes.BinaryOperationNode;
 import com.app.parser.nodes.DiceNode;
 import com.app.parser.nodes.Node;
 import com.app.parser.nodes.NumberNode;
+import com.app.parser.nodes.VariableNode;
+import com.app.roll.CustomDie;
 
 
 /**
- * Parser recursivo responsável por:
+ * Parser responsável por:
  * <br>
  * 1. Consumir tokens do Lexer <br>
  * 2. Construir a AST <br>
  * 3. Garantir precedência correta de operadores <br>
+ * <br>
+ * As operações binárias e os parênteses são tratados por precedência de
+ * operadores (shunting-yard) com pilhas explícitas, então expressões
+ * profundamente aninhadas ou longas cadeias ("1d6+1d6+...") não consomem
+ * a pilha nativa. A árvore gerada é a mesma da descida recursiva:
+ * operadores associativos à esquerda e * / com precedência sobre + -.
+ * <br>
+ * Nós e modificadores são internados ({@link AstInterner}): subárvores
+ * iguais de expressões diferentes retornam a mesma instância.
  */
 public class DiceParser {
 
     private final List<Token> tokens;
+    private final EvaluationLimits limits;
+    private final Map<String, Integer> variables = new LinkedHashMap<>();
     private int current = 0;
 
     public DiceParser(List<Token> tokens) {
+        this(tokens, EvaluationLimits.unlimited());
+    }
+
+    public DiceParser(List<Token> tokens, EvaluationLimits limits) {
         this.tokens = tokens;
+        this.limits = limits;
     }
 
     /**
@@ -42,49 +66,96 @@ public class DiceParser {
     }
 
     /**
-     * expression → term ((+ | -) term)*
-     * <br>
-     * Trata soma e subtração.
+     * Nomes das variáveis encontradas, indexados pelo slot
+     * (ordem da primeira ocorrência). Válido após {@link #parse()}.
      */
-    private Node expression() {
-        Node node = term();
-
-        while (match(TokenType.PLUS, TokenType.MINUS)) {
-            Token operator = previous();
-            Node right = term();
-            node = new BinaryOperationNode(node, operator.type(), right);
-        }
-
-        return node;
+    public List<String> variables() {
+        return List.copyOf(variables.keySet());
     }
 
     /**
-     * term → factor ((* | /) factor)*
+     * expression → term ((+ | -) term)* <br>
+     * term       → factor ((* | /) factor)* <br>
+     * factor     → operand | '(' expression ')'
      * <br>
-     * Trata multiplicação e divisão.
+     * Operandos vão para uma pilha de nós; operadores e '(' para uma pilha
+     * de tokens. Cada operador desempilha os de precedência maior ou igual
+     * antes de entrar, o que preserva a associatividade à esquerda.
      */
-    private Node term() {
-        Node node = factor();
+    private Node expression() {
+
+        Deque<Node> operands = new ArrayDeque<>();
+        Deque<Token> operators = new ArrayDeque<>();
+        int depth = 0;
+        boolean expectOperand = true;
 
-        while (match(TokenType.MULTIPLY, TokenType.DIVIDE)) {
-            Token operator = previous();
-            Node right = factor();
-            node = new BinaryOperationNode(node, operator.type(), right);
+        while (true) {
+
+            if (expectOperand) {
+
+                // Parênteses
+                if (match(TokenType.LEFT_PAREN)) {
+                    if (++depth > limits.maxDepth()) {
+                        throw new DiceLimitExceededException(
+                                DiceLimitExceededException.Limit.DEPTH,
+                                "Expressão excede profundidade " + limits.maxDepth(),
+                                previous().position()
+                        );
+                    }
+                    operators.push(previous());
+                    continue;
+                }
+
+                operands.push(operand());
+                expectOperand = false;
+                continue;
+            }
+
+            if (match(TokenType.PLUS, TokenType.MINUS, TokenType.MULTIPLY, TokenType.DIVIDE)) {
+                Token operator = previous();
+                while (!operators.isEmpty()
+                        && operators.peek().type() != TokenType.LEFT_PAREN
+                        && precedence(operators.peek().type()) >= precedence(operator.type())) {
+                    reduce(operands, operators.pop());
+                }
+                operators.push(operator);
+                expectOperand = true;
+                continue;
+            }
+
+            if (depth > 0 && match(TokenType.RIGHT_PAREN)) {
+                while (operators.peek().type() != TokenType.LEFT_PAREN) {
+                    reduce(operands, operators.pop());
+                }
+                operators.pop();
+                depth--;
+                continue;
+            }
+
+            break;
         }
 
-        return node;
+        while (!operators.isEmpty()) {
+            Token operator = operators.pop();
+            if (operator.type() == TokenType.LEFT_PAREN) {
+                throw error("Esperado ')'");
+            }
+            reduce(operands, operator);
+        }
+
+        return operands.pop();
     }
 
     /**
-     * factor →
+     * operand →
      *    NUMBER
+     *  | VARIABLE
      *  | dice
-     *  | '(' expression ')'
      */
-    private Node factor() {
+    private Node operand() {
 
-        // Caso comece com número e depois venha D → é Dice
-        if (check(TokenType.NUMBER) && checkNext(TokenType.D)) {
+        // Caso comece com número ou variável e depois venha D → é Dice
+        if ((check(TokenType.NUMBER) || check(TokenType.VARIABLE)) && checkNext(TokenType.D)) {
             return parseDice();
         }
 
@@ -95,50 +166,125 @@ public class DiceParser {
 
         // Número literal
         if (match(TokenType.NUMBER)) {
-            return new NumberNode(
-                Integer.parseInt(previous().lexeme())
-            );
+            return AstInterner.node(new NumberNode(number(previous())));
         }
 
-        // Parênteses
-        if (match(TokenType.LEFT_PAREN)) {
-            Node expr = expression();
-            consume(TokenType.RIGHT_PAREN, "Esperado ')'");
-            return expr;
+        // Variável
+        if (match(TokenType.VARIABLE)) {
+            return variable(previous());
         }
 
         throw error("Expressão inválida.");
     }
 
+    private void reduce(Deque<Node> operands, Token operator) {
+        Node right = operands.pop();
+        Node left = operands.pop();
+        operands.push(AstInterner.node(new BinaryOperationNode(left, operator.type(), right)));
+    }
+
+    private int precedence(TokenType type) {
+        return switch (type) {
+            case MULTIPLY, DIVIDE -> 2;
+            case PLUS, MINUS -> 1;
+            default -> 0;
+        };
+    }
+
     /* 
         ========== PARSE DICE ==========
     */
 
-    /**  Parse completo de NdM */
+    /**  Parse completo de NdM (N pode ser variável) */
     private Node parseDice() {
 
         // Quantidade
-        int quantity = Integer.parseInt(consume(TokenType.NUMBER,
-                "Esperado número antes do 'd'").lexeme());
+        int quantity = 0;
+        VariableNode quantityVariable = null;
+        if (match(TokenType.VARIABLE)) {
+            quantityVariable = variable(previous());
+        } else {
+            quantity = number(consume(TokenType.NUMBER,
+                    "Esperado número antes do 'd'"));
+        }
 
         consume(TokenType.D, "Esperado 'd'");
 
-        int sides = parseSides();
-
-        List<DiceModifier> modifiers = parseModifiers();
-
-        return new DiceNode(quantity, sides, modifiers);
+        return parseDiceBody(quantity, quantityVariable);
     }
 
     /** Caso seja d6 (sem quantidade) */
     private Node parseDiceWithImplicitQuantity() {
+        return parseDiceBody(1, null); // padrão
+    }
 
-        int quantity = 1; // padrão
-        int sides = parseSides();
+    /** Lados (literais, variável ou faces customizadas) e modificadores, após o 'd'. */
+    private Node parseDiceBody(int quantity, VariableNode quantityVariable) {
+
+        int position = previous().position();
+        int sides = 0;
+        VariableNode sidesVariable = null;
+        CustomDie customDie = null;
+        if (match(TokenType.VARIABLE)) {
+            sidesVariable = variable(previous());
+        } else if (match(TokenType.F)) {
+            customDie = AstInterner.die(CustomDie.fudge());
+        } else if (match(TokenType.LEFT_BRACE)) {
+            customDie = AstInterner.die(parseFaces());
+        } else {
+            sides = parseSides();
+        }
 
         List<DiceModifier> modifiers = parseModifiers();
 
-        return new DiceNode(quantity, sides, modifiers);
+        if (customDie != null) {
+            for (DiceModifier mod : modifiers) {
+                if (mod instanceof ExplosionModifier) {
+                    throw new DiceSyntaxException(
+                            "Dados com faces customizadas não suportam explosões", position);
+                }
+            }
+        }
+
+        return AstInterner.node(new DiceNode(
+                quantity, sides, AstInterner.modifiers(modifiers), quantityVariable, sidesVariable, customDie
+        ));
+    }
+
+    /**
+     * Faces customizadas, após o '{': <br>
+     * faces → face (',' face)* '}' <br>
+     * face  → '-'? NUMBER (':' NUMBER)?    (peso inteiro, padrão 1)
+     */
+    private CustomDie parseFaces() {
+
+        List<int[]> faces = new ArrayList<>();
+        boolean weighted = false;
+
+        do {
+            boolean negative = match(TokenType.MINUS);
+            int face = number(consume(TokenType.NUMBER, "Esperado valor da face"));
+            int weight = 1;
+            if (match(TokenType.COLON)) {
+                Token token = consume(TokenType.NUMBER, "Esperado peso após ':'");
+                weight = number(token);
+                if (weight <= 0) {
+                    throw new DiceSyntaxException("O peso da face precisa ser positivo", token.position());
+                }
+                weighted = true;
+            }
+            faces.add(new int[] { negative ? -face : face, weight });
+        } while (match(TokenType.COMMA));
+
+        consume(TokenType.RIGHT_BRACE, "Esperado '}'");
+
+        int[] values = new int[faces.size()];
+        int[] weights = new int[faces.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = faces.get(i)[0];
+            weights[i] = faces.get(i)[1];
+        }
+        return weighted ? CustomDie.weighted(values, weights) : CustomDie.of(values);
     }
 
     
@@ -153,10 +299,13 @@ public class DiceParser {
             return 100;
         }
 
-        return Integer.parseInt(
-                consume(TokenType.NUMBER,
-                "Esperado número de lados").lexeme()
-        );
+        Token token = consume(TokenType.NUMBER, "Esperado número de lados");
+        int sides = number(token);
+
+        if (sides <= 0) {
+            throw new DiceSyntaxException("O dado precisa ter ao menos 1 lado", token.position());
+        }
+        return sides;
     }
 
 
@@ -169,35 +318,46 @@ public class DiceParser {
 
             // keep highest
             if (match(TokenType.KH)) {
-                int count = Integer.parseInt(
-                        consume(TokenType.NUMBER,
-                        "Esperado número após kh").lexeme()
-                );
-                modifiers.add(new KeepHighestModifier(count));
+                int count = number(consume(TokenType.NUMBER,
+                        "Esperado número após kh"));
+                modifiers.add(AstInterner.modifier(new KeepHighestModifier(count)));
                 continue;
             }
 
             // keep lowest
             if (match(TokenType.KL)) {
-                int count = Integer.parseInt(
-                        consume(TokenType.NUMBER,
-                        "Esperado número após kl").lexeme()
-                );
-                modifiers.add(new KeepLowestModifier(count));
+                int count = number(consume(TokenType.NUMBER,
+                        "Esperado número após kl"));
+                modifiers.add(AstInterner.modifier(new KeepLowestModifier(count)));
                 continue;
             }
 
             // explosões
             if (match(TokenType.EXCLAMATION)) {
-                modifiers.add(parseExplosion(false));
+                modifiers.add(AstInterner.modifier(parseExplosion(false)));
                 continue;
             }
 
             if (match(TokenType.DOUBLE_EXCLAMATION)) {
-                modifiers.add(parseExplosion(true));
+                modifiers.add(AstInterner.modifier(parseExplosion(true)));
+                continue;
+            }
+
+            // "!=X" após o dado é a explosão "!" com condição "=X": o lexer
+            // junta '!' e '=' no token "!=", que não é operador de sucesso
+            if (match(TokenType.NOT_EQUAL)) {
+                int value = number(consume(TokenType.NUMBER,
+                        "Esperado número após operador relacional"));
+                modifiers.add(AstInterner.modifier(new ExplosionModifier(false, false,
+                        new ExplosionCondition(ConditionOperator.EQUAL, value), null, null)));
                 continue;
             }
 
+            // contagem de sucessos (sempre o último modificador)
+            if (isSuccessOperator(peek().type())) {
+                modifiers.add(AstInterner.modifier(parseSuccessCount(modifiers)));
+            }
+
             break;
         }
 
@@ -228,7 +388,7 @@ public class DiceParser {
             penetrating = true;
 
             if (match(TokenType.NUMBER)) {
-                penalty = Integer.parseInt(previous().lexeme());
+                penalty = number(previous());
             }
 
             return new ExplosionModifier(compound, true, null, null, penalty);
@@ -238,10 +398,8 @@ public class DiceParser {
         if (isRelationalOperator(peek().type())) {
 
             ConditionOperator operator = parseConditionOperator();
-            int value = Integer.parseInt(
-                    consume(TokenType.NUMBER,
-                    "Esperado número após operador relacional").lexeme()
-            );
+            int value = number(consume(TokenType.NUMBER,
+                    "Esperado número após operador relacional"));
 
             condition = new ExplosionCondition(operator, value);
 
@@ -251,7 +409,7 @@ public class DiceParser {
         // Limite para !!X
         if (compound && match(TokenType.NUMBER)) {
 
-            limit = Integer.parseInt(previous().lexeme());
+            limit = number(previous());
 
             return new ExplosionModifier(true, false, null, limit, null);
         }
@@ -260,6 +418,25 @@ public class DiceParser {
         return new ExplosionModifier(compound, false, null, null, null);
     }
 
+    /**
+     * Contagem de sucessos: operador relacional direto após o dado
+     * ("10d10>=8"). Não combina com kh/kl.
+     */
+    private DiceModifier parseSuccessCount(List<DiceModifier> previous) {
+
+        for (DiceModifier mod : previous) {
+            if (mod instanceof KeepHighestModifier || mod instanceof KeepLowestModifier) {
+                throw error("Contagem de sucessos não pode ser combinada com kh/kl.");
+            }
+        }
+
+        ConditionOperator operator = parseConditionOperator();
+        int value = number(consume(TokenType.NUMBER,
+                "Esperado número após operador relacional"));
+
+        return new SuccessCountModifier(new ExplosionCondition(operator, value));
+    }
+
     /* 
         ========== ULTILITÁRIOS ==========
     */
@@ -286,6 +463,11 @@ public class DiceParser {
             type == TokenType.NOT_EQUAL;
     }
 
+    /** Operadores de contagem de sucessos: todos os relacionais menos "!=". */
+    private boolean isSuccessOperator(TokenType type) {
+        return type != TokenType.NOT_EQUAL && isRelationalOperator(type);
+    }
+
     private boolean match(TokenType... types) {
         for (TokenType type : types) {
             if (check(type)) {
@@ -328,9 +510,25 @@ public class DiceParser {
         throw error(message);
     }
 
-    private RuntimeException error(String message) {
-        return new RuntimeException(
-                message + " no token: " + peek().lexeme()
+    /** Variável com o slot da primeira ocorrência do nome. */
+    private VariableNode variable(Token token) {
+        int slot = variables.computeIfAbsent(token.lexeme(), name -> variables.size());
+        return AstInterner.node(new VariableNode(token.lexeme(), slot));
+    }
+
+    /** Converte o lexeme numérico, rejeitando valores fora do range de int. */
+    private int number(Token token) {
+        try {
+            return Integer.parseInt(token.lexeme());
+        } catch (NumberFormatException e) {
+            throw new DiceSyntaxException("Número muito grande: " + token.lexeme(), token.position());
+        }
+    }
+
+    private DiceSyntaxException error(String message) {
+        return new DiceSyntaxException(
+                message + " no token: " + peek().lexeme(),
+                peek().position()
         );
     }
 
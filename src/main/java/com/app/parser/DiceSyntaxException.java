@@ -0,0 +1,14 @@
+package com.app.parser;
+
+/**
+ * Erro léxico ou sintático na expressão.
+ */
+public class DiceSyntaxException extends DiceExpressionException {
+
+    private static final long serialVersionUID = 1L;
+
+    public DiceSyntaxException(String message, int position) {
+        super(position >= 0 ? message + " (posição " + position + ")" : message, position);
+    }
+
+}
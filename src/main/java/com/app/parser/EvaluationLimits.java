@@ -0,0 +1,143 @@
+package com.app.parser;
+
+import java.time.Duration;
+
+/**
+ * Limites de recursos aplicados durante lexing, parsing e avaliação.
+ * <br>
+ * Protege os workers contra entradas maliciosas como "999999999d999999999"
+ * ou "((((...))))". Imutável; cada with* retorna uma nova instância.
+ */
+public final class EvaluationLimits {
+
+    private static final EvaluationLimits UNLIMITED = new EvaluationLimits(
+            Integer.MAX_VALUE, Integer.MAX_VALUE, Long.MAX_VALUE, Long.MAX_VALUE, 0L
+    );
+
+    private static final EvaluationLimits DEFAULTS = new EvaluationLimits(
+            4096, 256, 1_000_000L, 100_000L, Duration.ofSeconds(1).toNanos()
+    );
+
+    private final int maxExpressionLength;
+    private final int maxDepth;
+    private final long maxDice;
+    private final long maxExplosions;
+    private final long maxDurationNanos;
+
+    private EvaluationLimits(
+            int maxExpressionLength,
+            int maxDepth,
+            long maxDice,
+            long maxExplosions,
+            long maxDurationNanos
+    ) {
+        this.maxExpressionLength = maxExpressionLength;
+        this.maxDepth = maxDepth;
+        this.maxDice = maxDice;
+        this.maxExplosions = maxExplosions;
+        this.maxDurationNanos = maxDurationNanos;
+    }
+
+    /** Nenhum limite (comportamento histórico). */
+    public static EvaluationLimits unlimited() {
+        return UNLIMITED;
+    }
+
+    /** Limites conservadores para tráfego público. */
+    public static EvaluationLimits defaults() {
+        return DEFAULTS;
+    }
+
+    public EvaluationLimits withMaxExpressionLength(int maxExpressionLength) {
+        return new EvaluationLimits(positive(maxExpressionLength), maxDepth, maxDice, maxExplosions, maxDurationNanos);
+    }
+
+    /** Profundidade máxima de aninhamento (parênteses) da expressão. */
+    public EvaluationLimits withMaxDepth(int maxDepth) {
+        return new EvaluationLimits(maxExpressionLength, positive(maxDepth), maxDice, maxExplosions, maxDurationNanos);
+    }
+
+    /** Total de dados base rolados por avaliação. */
+    public EvaluationLimits withMaxDice(long maxDice) {
+        return new EvaluationLimits(maxExpressionLength, maxDepth, positive(maxDice), maxExplosions, maxDurationNanos);
+    }
+
+    /** Total de explosões por avaliação. */
+    public EvaluationLimits withMaxExplosions(long maxExplosions) {
+        return new EvaluationLimits(maxExpressionLength, maxDepth, maxDice, nonNegative(maxExplosions), maxDurationNanos);
+    }
+
+    /** Tempo máximo de parede por avaliação; Duration.ZERO desativa. */
+    public EvaluationLimits withMaxDuration(Duration maxDuration) {
+        return new EvaluationLimits(maxExpressionLength, maxDepth, maxDice, maxExplosions,
+                nonNegative(maxDuration.toNanos()));
+    }
+
+    public int maxExpressionLength() { return maxExpressionLength; }
+    public int maxDepth() { return maxDepth; }
+    public long maxDice() { return maxDice; }
+    public long maxExplosions() { return maxExplosions; }
+    public Duration maxDuration() { return Duration.ofNanos(maxDurationNanos); }
+
+    boolean hasDeadline() {
+        return maxDurationNanos > 0;
+    }
+
+    long maxDurationNanos() {
+        return maxDurationNanos;
+    }
+
+    /**
+     * Limites de dados e explosões multiplicados por factor (saturando),
+     * para orçamentos compartilhados por um bloco de avaliações. A duração
+     * não é multiplicada: o prazo continua valendo para o bloco inteiro.
+     */
+    EvaluationLimits scaled(int factor) {
+        return new EvaluationLimits(
+                maxExpressionLength,
+                maxDepth,
+                saturatedMultiply(maxDice, factor),
+                saturatedMultiply(maxExplosions, factor),
+                maxDurationNanos
+        );
+    }
+
+    private static long saturatedMultiply(long value, int factor) {
+        long high = Math.multiplyHigh(value, factor);
+        long product = value * factor;
+        return high != 0 || product < 0 ? Long.MAX_VALUE : product;
+    }
+
+    private static int positive(int value) {
+        if (value <= 0) {
+            throw new IllegalArgumentException("Limit must be positive, got: " + value);
+        }
+        return value;
+    }
+
+    private static long positive(long value) {
+        if (value <= 0) {
+            throw new IllegalArgumentException("Limit must be positive, got: " + value);
+        }
+        return value;
+    }
+
+    private static long nonNegative(long value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("Limit must be >= 0, got: " + value);
+        }
+        return value;
+    }
+
+    @Override
+    public String toString() {
+        return "EvaluationLimits{" +
+                "maxExpressionLength=" + maxExpressionLength +
+                ", maxDepth=" + maxDepth +
+                ", maxDice=" + maxDice +
+                ", maxExplosions=" + maxExplosions +
+                ", maxDuration=" + maxDuration() +
+                '}';
+    }
+
+}
@@ -38,5 +38,37 @@ public class ExplosionCondition {
         };
     }
 
+    /**
+     * Quantos valores em from..to satisfazem a condição, em O(1).
+     */
+    public int countMatching(int from, int to) {
+
+        if (to < from) return 0;
+        long total = (long) to - from + 1;
+        long inRange = value >= from && value <= to ? 1 : 0;
+
+        long count = switch (operator) {
+            case GREATER -> to - Math.max((long) from - 1, Math.min(value, to));
+            case GREATER_EQUAL -> to - Math.max((long) from - 1, Math.min((long) value - 1, to));
+            case LESS -> Math.min((long) to + 1, Math.max(value, from)) - from;
+            case LESS_EQUAL -> Math.min((long) to + 1, Math.max((long) value + 1, from)) - from;
+            case EQUAL -> inRange;
+            case NOT_EQUAL -> total - inRange;
+        };
+        return (int) count;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        ExplosionCondition that = (ExplosionCondition) o;
+        return operator == that.operator && value == that.value;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * operator.ordinal() + value;
+    }
 
 }
@@ -0,0 +1,392 @@
+package com.app.parser;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import com.app.parser.modifiers.DiceModifier;
+import com.app.parser.modifiers.ExplosionModifier;
+import com.app.parser.modifiers.KeepHighestModifier;
+import com.app.parser.modifiers.KeepLowestModifier;
+import com.app.parser.modifiers.SuccessCountModifier;
+import com.app.parser.nodes.AstInterner;
+import com.app.parser.nodes.BinaryOperationNode;
+import com.app.parser.nodes.DiceNode;
+import com.app.parser.nodes.Node;
+import com.app.parser.nodes.NodeFolder;
+import com.app.parser.nodes.NumberNode;
+import com.app.parser.nodes.VariableNode;
+
+/**
+ * Normaliza expressões para uso como chave de cache, journal e deduplicação.
+ * <br>
+ * "4d6KH3", "4D6 kh3" e " 4d6kh3 " geram o mesmo texto canônico. Regras:
+ * <br>
+ * 1. Dados com quantidade explícita e d% como d100 (1d100) <br>
+ * 2. Subexpressões sem dados e com resultado não negativo são calculadas <br>
+ * 3. Cadeias de + e * são achatadas; operandos com dados mantêm a ordem
+ *    relativa (ordem de rolagem observável) e operandos sem dados vão para
+ *    o fim, ordenados, com as constantes combinadas em uma só. A ordem da
+ *    primeira ocorrência das variáveis nunca muda, porque ela define os
+ *    slots ao reparsear o texto canônico; se a reordenação a mudaria, a
+ *    cadeia mantém a ordem original dos operandos <br>
+ * 4. Elementos neutros (+0, *1) são removidos <br>
+ * 5. Apenas os parênteses necessários são emitidos
+ * <br>
+ * O texto canônico é reparseável e avalia para o mesmo resultado.
+ */
+public final class ExpressionNormalizer {
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private ExpressionNormalizer() {
+    }
+
+    public static NormalizedExpression normalize(String expression) {
+        return normalize(new DiceParser(new Lexer(expression).tokenize()).parse());
+    }
+
+    public static NormalizedExpression normalize(Node node) {
+        Node canonical = finish(new Canonicalizer().fold(node));
+        String text = render(canonical);
+        return new NormalizedExpression(canonical, text, fingerprint(text));
+    }
+
+    /**
+     * FNV-1a de 64 bits com mistura final, estável entre execuções.
+     */
+    public static long fingerprint(String canonical) {
+        long hash = FNV_OFFSET;
+        for (int i = 0; i < canonical.length(); i++) {
+            hash ^= canonical.charAt(i);
+            hash *= FNV_PRIME;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+    /* 
+        ========== CANONICALIZAÇÃO ==========
+    */
+
+    /**
+     * Resultado parcial: um nó já canônico ou uma cadeia (+ ou *) ainda
+     * aberta, que só é ordenada quando deixa de poder crescer.
+     */
+    private static final class Term {
+        final Node node;
+        final TokenType chain;
+        final List<Term> operands;
+        final boolean hasDice;
+
+        Term(Node node, boolean hasDice) {
+            this.node = node;
+            this.chain = null;
+            this.operands = null;
+            this.hasDice = hasDice;
+        }
+
+        Term(TokenType chain, List<Term> operands, boolean hasDice) {
+            this.node = null;
+            this.chain = chain;
+            this.operands = operands;
+            this.hasDice = hasDice;
+        }
+    }
+
+    private static final class Canonicalizer implements NodeFolder<Term> {
+
+        @Override
+        public Term number(NumberNode node) {
+            return new Term(node, false);
+        }
+
+        @Override
+        public Term variable(VariableNode node) {
+            return new Term(node, false);
+        }
+
+        @Override
+        public Term dice(DiceNode node) {
+            return new Term(node, true);
+        }
+
+        @Override
+        public Term binary(BinaryOperationNode node, Term left, Term right) {
+
+            TokenType op = node.operator();
+            boolean hasDice = left.hasDice || right.hasDice;
+
+            if (op == TokenType.PLUS || op == TokenType.MULTIPLY) {
+                // Cadeias do outro operador são fechadas já, então finish nunca recursa
+                left = closeOtherChain(left, op);
+                right = closeOtherChain(right, op);
+
+                // Reaproveita a lista da cadeia esquerda: cada Term é consumido uma vez
+                List<Term> operands;
+                if (left.chain == op) {
+                    operands = left.operands;
+                } else {
+                    operands = new ArrayList<>();
+                    operands.add(left);
+                }
+                if (right.chain == op) {
+                    operands.addAll(right.operands);
+                } else {
+                    operands.add(right);
+                }
+                return new Term(op, operands, hasDice);
+            }
+
+            Node l = finish(left);
+            Node r = finish(right);
+            Integer folded = foldConstants(l, op, r);
+            if (folded != null) {
+                return new Term(AstInterner.node(new NumberNode(folded)), false);
+            }
+            return new Term(AstInterner.node(new BinaryOperationNode(l, op, r)), hasDice);
+        }
+    }
+
+    private static Term closeOtherChain(Term term, TokenType op) {
+        if (term.chain != null && term.chain != op) {
+            return new Term(finish(term), term.hasDice);
+        }
+        return term;
+    }
+
+    /**
+     * Fecha uma cadeia aberta, produzindo o nó canônico. Os operandos da
+     * cadeia já são nós canônicos.
+     */
+    private static Node finish(Term term) {
+
+        if (term.chain == null) {
+            return term.node;
+        }
+
+        TokenType op = term.chain;
+        List<Node> inOrder = new ArrayList<>();
+        List<Node> dice = new ArrayList<>();
+        List<Node> others = new ArrayList<>();
+        List<Integer> constants = new ArrayList<>();
+
+        for (Term operand : term.operands) {
+            Node node = operand.node;
+            if (!(node instanceof NumberNode)) {
+                inOrder.add(node);
+            }
+            if (operand.hasDice) {
+                dice.add(node);
+            } else if (node instanceof NumberNode number) {
+                constants.add(number.value());
+            } else {
+                others.add(node);
+            }
+        }
+
+        others.sort(Comparator.comparing(ExpressionNormalizer::render));
+
+        int identity = op == TokenType.PLUS ? 0 : 1;
+        int combined = identity;
+        for (int value : constants) {
+            combined = op == TokenType.PLUS ? combined + value : combined * value;
+        }
+
+        List<Node> sorted = new ArrayList<>(dice);
+        sorted.addAll(others);
+        // Os slots seguem a primeira ocorrência no texto: não reordena se
+        // isso trocaria a ordem das variáveis
+        List<Node> ordered = variableOrder(sorted).equals(variableOrder(inOrder)) ? sorted : inOrder;
+        if (combined < 0) {
+            // Estourou o range: mantém as constantes separadas
+            constants.forEach(value -> ordered.add(AstInterner.node(new NumberNode(value))));
+        } else if (combined != identity || ordered.isEmpty()) {
+            ordered.add(AstInterner.node(new NumberNode(combined)));
+        }
+
+        Node result = ordered.get(0);
+        for (int i = 1; i < ordered.size(); i++) {
+            result = AstInterner.node(new BinaryOperationNode(result, op, ordered.get(i)));
+        }
+        return result;
+    }
+
+    /** Nomes das variáveis na ordem da primeira ocorrência, da esquerda para a direita. */
+    private static List<String> variableOrder(List<Node> operands) {
+        Set<String> names = new LinkedHashSet<>();
+        Deque<Node> pending = new ArrayDeque<>();
+        for (Node operand : operands) {
+            pending.push(operand);
+            while (!pending.isEmpty()) {
+                Node node = pending.pop();
+                if (node instanceof BinaryOperationNode bin) {
+                    pending.push(bin.right());
+                    pending.push(bin.left());
+                } else if (node instanceof VariableNode variable) {
+                    names.add(variable.name());
+                } else if (node instanceof DiceNode dice) {
+                    if (dice.quantityVariable() != null) names.add(dice.quantityVariable().name());
+                    if (dice.sidesVariable() != null) names.add(dice.sidesVariable().name());
+                }
+            }
+        }
+        return new ArrayList<>(names);
+    }
+
+    /**
+     * Calcula a operação entre constantes com a mesma aritmética do
+     * avaliador; retorna null se não for representável (negativo ou divisão por zero).
+     */
+    private static Integer foldConstants(Node left, TokenType op, Node right) {
+        if (!(left instanceof NumberNode l) || !(right instanceof NumberNode r)) {
+            return null;
+        }
+        int value;
+        switch (op) {
+            case MINUS -> value = l.value() - r.value();
+            case DIVIDE -> {
+                if (r.value() == 0) return null;
+                value = l.value() / r.value();
+            }
+            case PLUS -> value = l.value() + r.value();
+            case MULTIPLY -> value = l.value() * r.value();
+            default -> {
+                return null;
+            }
+        }
+        return value >= 0 ? value : null;
+    }
+
+    /* 
+        ========== RENDERIZAÇÃO ==========
+    */
+
+    /**
+     * Texto mínimo da AST, com pilha explícita. O filho direito com a mesma
+     * precedência do pai sempre recebe parênteses (a - (b - c), a * (b / c)).
+     */
+    static String render(Node root) {
+
+        StringBuilder sb = new StringBuilder();
+        Deque<Object> pending = new ArrayDeque<>();
+        pending.push(root);
+
+        while (!pending.isEmpty()) {
+
+            Object item = pending.pop();
+
+            if (item instanceof String text) {
+                sb.append(text);
+                continue;
+            }
+
+            Node node = (Node) item;
+
+            if (node instanceof NumberNode number) {
+                sb.append(number.value());
+            } else if (node instanceof VariableNode variable) {
+                sb.append('$').append(variable.name());
+            } else if (node instanceof DiceNode dice) {
+                appendDice(sb, dice);
+            } else if (node instanceof BinaryOperationNode bin) {
+                int precedence = precedence(bin.operator());
+
+                // Empilhado em ordem inversa: esquerdo, operador, direito
+                pushOperand(pending, bin.right(), precedence(bin.right()) <= precedence);
+                pending.push(symbol(bin.operator()));
+                pushOperand(pending, bin.left(), precedence(bin.left()) < precedence);
+            }
+        }
+
+        return sb.toString();
+    }
+
+    private static void pushOperand(Deque<Object> pending, Node node, boolean parenthesize) {
+        if (parenthesize) {
+            pending.push(")");
+            pending.push(node);
+            pending.push("(");
+        } else {
+            pending.push(node);
+        }
+    }
+
+    private static int precedence(Node node) {
+        return node instanceof BinaryOperationNode bin ? precedence(bin.operator()) : 3;
+    }
+
+    private static int precedence(TokenType operator) {
+        return operator == TokenType.MULTIPLY || operator == TokenType.DIVIDE ? 2 : 1;
+    }
+
+    private static String symbol(TokenType operator) {
+        return switch (operator) {
+            case PLUS -> "+";
+            case MINUS -> "-";
+            case MULTIPLY -> "*";
+            case DIVIDE -> "/";
+            default -> throw new IllegalArgumentException("Invalid operator: " + operator);
+        };
+    }
+
+    /**
+     * Variáveis recebem um espaço depois quando o próximo caractere poderia
+     * ser lido como parte do nome ("$lvl d6", "1d$s kh1").
+     */
+    private static void appendDice(StringBuilder sb, DiceNode dice) {
+        if (dice.quantityVariable() != null) {
+            sb.append('$').append(dice.quantityVariable().name()).append(' ');
+        } else {
+            sb.append(dice.quantity());
+        }
+        sb.append('d');
+        if (dice.sidesVariable() != null) {
+            sb.append('$').append(dice.sidesVariable().name());
+            if (!dice.modifiers().isEmpty()) sb.append(' ');
+        } else if (dice.customDie() != null) {
+            sb.append(dice.customDie().label());
+        } else {
+            sb.append(dice.sides());
+        }
+        for (DiceModifier modifier : dice.modifiers()) {
+            appendModifier(sb, modifier);
+        }
+    }
+
+    /**
+     * Modificadores na sintaxe de entrada. Condições começando com '=' ou '!'
+     * recebem um espaço para não serem lidas como o token "!=".
+     */
+    private static void appendModifier(StringBuilder sb, DiceModifier modifier) {
+        if (modifier instanceof KeepHighestModifier kh) {
+            sb.append("kh").append(kh.count());
+        } else if (modifier instanceof KeepLowestModifier kl) {
+            sb.append("kl").append(kl.count());
+        } else if (modifier instanceof ExplosionModifier exp) {
+            sb.append(exp.compound() ? "!!" : "!");
+            if (exp.penetrating()) {
+                sb.append('p');
+                if (exp.penalty() != null) sb.append(exp.penalty());
+            } else if (exp.condition() != null) {
+                String symbol = exp.condition().operator().symbol();
+                if (symbol.charAt(0) == '=' || symbol.charAt(0) == '!') sb.append(' ');
+                sb.append(symbol).append(exp.condition().value());
+            } else if (exp.limit() != null) {
+                sb.append(exp.limit());
+            }
+        } else if (modifier instanceof SuccessCountModifier success) {
+            String symbol = success.condition().operator().symbol();
+            if (symbol.charAt(0) == '=' || symbol.charAt(0) == '!') sb.append(' ');
+            sb.append(symbol).append(success.condition().value());
+        }
+    }
+
+}
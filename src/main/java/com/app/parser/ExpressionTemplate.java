@@ -0,0 +1,190 @@
+package com.app.parser;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import com.app.parser.nodes.AstInterner;
+import com.app.parser.nodes.BinaryOperationNode;
+import com.app.parser.nodes.DiceNode;
+import com.app.parser.nodes.FlatAst;
+import com.app.parser.nodes.Node;
+import com.app.parser.nodes.NodeFolder;
+import com.app.parser.nodes.NumberNode;
+import com.app.parser.nodes.VariableNode;
+import com.app.roll.DetailLevel;
+import com.app.roll.DiceRollResult;
+
+/**
+ * Expressão com variáveis compilada uma única vez, ex: "1d20+$str+$prof".
+ * <br>
+ * Cada variável ocupa um slot (ordem da primeira ocorrência) e a avaliação
+ * recebe um int[] com os valores por slot, sem relexar nem reparsear.
+ * Imutável e thread-safe: milhares de fichas podem compartilhar o mesmo
+ * template, cada uma com seu próprio array de bindings.
+ * <br>
+ * Variáveis valem como operandos e como quantidade ou lados do dado
+ * ("$lvl d6", "1d$die"). O nome é guloso, então separe-o do 'd' seguinte
+ * com espaço.
+ */
+public final class ExpressionTemplate {
+
+    private final String expression;
+    private final Node ast;
+    private final FlatAst flat;
+    private final List<String> variables;
+
+    private ExpressionTemplate(String expression, Node ast, List<String> variables) {
+        this.expression = expression;
+        this.ast = ast;
+        this.flat = FlatAst.from(ast);
+        this.variables = variables;
+    }
+
+    public static ExpressionTemplate compile(String expression) {
+        return compile(expression, EvaluationLimits.unlimited());
+    }
+
+    public static ExpressionTemplate compile(String expression, EvaluationLimits limits) {
+        DiceParser parser = new DiceParser(new Lexer(expression, limits).tokenize(), limits);
+        Node ast = parser.parse();
+        return new ExpressionTemplate(expression, ast, parser.variables());
+    }
+
+    public String expression() { return expression; }
+
+    /** AST com as variáveis ainda livres. */
+    public Node ast() { return ast; }
+
+    /** Nomes das variáveis indexados por slot. */
+    public List<String> variables() { return variables; }
+
+    /** Slot da variável (sem o '$'). */
+    public int slot(String name) {
+        int slot = variables.indexOf(name);
+        if (slot < 0) {
+            throw new IllegalArgumentException("Variável desconhecida: $" + name);
+        }
+        return slot;
+    }
+
+    /**
+     * Monta o array de bindings a partir dos valores por nome; todas as
+     * variáveis do template precisam estar presentes.
+     */
+    public int[] bindings(Map<String, Integer> values) {
+        int[] bindings = new int[variables.size()];
+        for (int slot = 0; slot < bindings.length; slot++) {
+            Integer value = values.get(variables.get(slot));
+            if (value == null) {
+                throw new IllegalArgumentException("Variável sem valor: $" + variables.get(slot));
+            }
+            bindings[slot] = value;
+        }
+        return bindings;
+    }
+
+    /**
+     * Retorna apenas o total, com o evaluator do chamador.
+     */
+    public int evaluate(DiceEvaluator evaluator, int[] bindings) {
+        return evaluator.evaluate(flat, checked(bindings));
+    }
+
+    /**
+     * Avalia e retorna resultado detalhado, com o texto do template como expressão.
+     */
+    public DiceRollResult evaluateWithDetails(DiceEvaluator evaluator, int[] bindings) {
+        return evaluator.evaluateWithDetails(expression, flat, checked(bindings));
+    }
+
+    /**
+     * Variante com nível de detalhe (ex: {@link DetailLevel#summary()}).
+     */
+    public DiceRollResult evaluateWithDetails(DiceEvaluator evaluator, int[] bindings, DetailLevel level) {
+        return evaluator.evaluateWithDetails(expression, flat, checked(bindings), level);
+    }
+
+    /**
+     * AST com as variáveis substituídas pelos valores, internada; serve para
+     * análise ({@code ExpressionAnalyzer}), normalização e caches por AST.
+     */
+    public Node bind(int[] bindings) {
+        return new Binder(checked(bindings)).fold(ast);
+    }
+
+    private int[] checked(int[] bindings) {
+        if (bindings.length < variables.size()) {
+            throw new IllegalArgumentException(
+                    "Esperados " + variables.size() + " bindings " + variables
+                            + ", recebidos " + bindings.length
+            );
+        }
+        return bindings;
+    }
+
+    @Override
+    public String toString() {
+        return "ExpressionTemplate{" + expression + ", variables=" + variables + '}';
+    }
+
+    /**
+     * Reconstrói a AST trocando variáveis por literais.
+     */
+    private static final class Binder implements NodeFolder<Node> {
+
+        private final int[] bindings;
+
+        Binder(int[] bindings) {
+            this.bindings = Arrays.copyOf(bindings, bindings.length);
+        }
+
+        @Override
+        public Node number(NumberNode node) {
+            return node;
+        }
+
+        @Override
+        public Node variable(VariableNode node) {
+            return AstInterner.node(new NumberNode(bindings[node.slot()]));
+        }
+
+        @Override
+        public Node dice(DiceNode node) {
+            if (!node.hasVariables()) {
+                return node;
+            }
+            int quantity = node.quantity();
+            if (node.quantityVariable() != null) {
+                quantity = bindings[node.quantityVariable().slot()];
+                if (quantity < 0) {
+                    throw new DiceExpressionException(
+                            "Quantidade de dados negativa em $" + node.quantityVariable().name() + ": " + quantity, -1
+                    );
+                }
+            }
+            int sides = node.sides();
+            if (node.sidesVariable() != null) {
+                sides = bindings[node.sidesVariable().slot()];
+                if (sides <= 0) {
+                    throw new DiceExpressionException(
+                            "O dado precisa ter ao menos 1 lado ($" + node.sidesVariable().name() + ": " + sides + ")", -1
+                    );
+                }
+            }
+            if (node.customDie() != null) {
+                return AstInterner.node(new DiceNode(quantity, node.customDie(), node.modifiers()));
+            }
+            return AstInterner.node(new DiceNode(quantity, sides, node.modifiers()));
+        }
+
+        @Override
+        public Node binary(BinaryOperationNode node, Node left, Node right) {
+            if (left == node.left() && right == node.right()) {
+                return node;
+            }
+            return AstInterner.node(new BinaryOperationNode(left, node.operator(), right));
+        }
+    }
+
+}
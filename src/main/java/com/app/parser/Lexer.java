@@ -10,12 +10,19 @@ import java.util.List;
 public class Lexer {
 
     private final String source;
+    private final EvaluationLimits limits;
     private final List<Token> tokens = new ArrayList<>();
 
+    private int start = 0;
     private int current = 0;
 
     public Lexer(String source) {
+        this(source, EvaluationLimits.unlimited());
+    }
+
+    public Lexer(String source, EvaluationLimits limits) {
         this.source = source;
+        this.limits = limits;
     }
 
 
@@ -25,11 +32,20 @@ public class Lexer {
      */
     public List<Token> tokenize() {
 
+        if (source.length() > limits.maxExpressionLength()) {
+            throw new DiceLimitExceededException(
+                    DiceLimitExceededException.Limit.EXPRESSION_LENGTH,
+                    "Expressão excede " + limits.maxExpressionLength() + " caracteres",
+                    limits.maxExpressionLength()
+            );
+        }
+
         while (!isAtEnd()) {
+            start = current;
             scanToken();
         }
 
-        tokens.add(new Token(TokenType.EOF, ""));
+        tokens.add(new Token(TokenType.EOF, "", current));
         return tokens;
     }
 
@@ -58,9 +74,16 @@ public class Lexer {
             // Dice
             case 'd', 'D' -> addToken(TokenType.D);
             case '%' -> addToken(TokenType.PERCENT);
+            case 'F', 'f' -> addToken(TokenType.F);
+
+            // Faces customizadas: {1,2,3} ou {1:3,2:1}
+            case '{' -> addToken(TokenType.LEFT_BRACE);
+            case '}' -> addToken(TokenType.RIGHT_BRACE);
+            case ',' -> addToken(TokenType.COMMA);
+            case ':' -> addToken(TokenType.COLON);
 
             // Keep (kh, kl)
-            case 'k' -> scanKeep();
+            case 'k', 'K' -> scanKeep();
 
             // Explosões
             case '!' -> {
@@ -94,12 +117,15 @@ public class Lexer {
 
             case '=' -> addToken(TokenType.EQUAL);
 
+            // Variáveis ($nome)
+            case '$' -> variable();
+
             // Números
             default -> {
                 if (isDigit(c)) {
                     number();
                 } else {
-                    throw new RuntimeException("Caractere inválido: " + c);
+                    throw new DiceSyntaxException("Caractere inválido: " + c, start);
                 }
             }
         }
@@ -108,25 +134,37 @@ public class Lexer {
     // NÚMEROS
     private void number() {
 
-        int start = current - 1;
-
         while (!isAtEnd() && isDigit(peek())) {
             advance();
         }
 
         String value = source.substring(start, current);
-        tokens.add(new Token(TokenType.NUMBER, value));
+        tokens.add(new Token(TokenType.NUMBER, value, start));
+    }
+
+    // VARIÁVEIS: '$' seguido de [A-Za-z_][A-Za-z0-9_]*
+    private void variable() {
+
+        if (!isIdentifierStart(peek())) {
+            throw new DiceSyntaxException("Esperado nome de variável após '$'", start);
+        }
+        while (!isAtEnd() && (isIdentifierStart(peek()) || isDigit(peek()))) {
+            advance();
+        }
+
+        String name = source.substring(start + 1, current);
+        tokens.add(new Token(TokenType.VARIABLE, name, start));
     }
 
     // KEEP (kh / kl)
     private void scanKeep() {
 
-        if (match('h')) {
+        if (match('h') || match('H')) {
             addToken(TokenType.KH);
-        } else if (match('l')) {
+        } else if (match('l') || match('L')) {
             addToken(TokenType.KL);
         } else {
-            throw new RuntimeException("Token inválido após 'k'");
+            throw new DiceSyntaxException("Token inválido após 'k'", start);
         }
     }
 
@@ -157,8 +195,12 @@ public class Lexer {
         return c >= '0' && c <= '9';
     }
 
+    private boolean isIdentifierStart(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || c == '_';
+    }
+
     private void addToken(TokenType type) {
-        tokens.add(new Token(type, ""));
+        tokens.add(new Token(type, "", start));
     }
 
 }
@@ -0,0 +1,11 @@
+package com.app.parser;
+
+import com.app.parser.nodes.Node;
+
+/**
+ * Forma canônica de uma expressão: AST canônica, texto mínimo
+ * reparseável e fingerprint estável de 64 bits para uso como chave.
+ */
+public record NormalizedExpression(Node ast, String canonical, long fingerprint) {
+
+}
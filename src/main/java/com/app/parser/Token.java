@@ -3,18 +3,25 @@ package com.app.parser;
 /**
  * Representa um token gerado pelo Lexer. <br>
  * <br>
- * type   → tipo do token <br>
- * lexeme → texto original da expressão
+ * type     → tipo do token <br>
+ * lexeme   → texto original da expressão <br>
+ * position → posição (0-based) do token na expressão, ou -1
  */
 public class Token {
 
 
     private final TokenType type;
     private final String lexeme;
+    private final int position;
 
     public Token(TokenType type, String lexeme) {
+        this(type, lexeme, -1);
+    }
+
+    public Token(TokenType type, String lexeme, int position) {
         this.type = type;
         this.lexeme = lexeme;
+        this.position = position;
     }
 
     public TokenType type() {
@@ -25,6 +32,10 @@ public class Token {
         return lexeme;
     }
 
+    public int position() {
+        return position;
+    }
+
     @Override
     public String toString() {
         return "Token{" +
@@ -4,6 +4,7 @@ package com.app.parser;
 public enum TokenType {
 
     NUMBER,          // 123
+    VARIABLE,        // $nome
 
     PLUS,            // +
     MINUS,           // -
@@ -15,6 +16,12 @@ public enum TokenType {
 
     D,               // d
     PERCENT,         // %
+    F,               // F (Fudge)
+
+    LEFT_BRACE,      // {
+    RIGHT_BRACE,     // }
+    COMMA,           // ,
+    COLON,           // :
 
     KH,              // kh
     KL,              // kl
@@ -3,6 +3,7 @@ package com.app.parser.modifiers;
 /**
  * Representa qualquer modificador de dado.
  */
-public sealed interface DiceModifier permits KeepHighestModifier, KeepLowestModifier, ExplosionModifier {
+public sealed interface DiceModifier permits KeepHighestModifier, KeepLowestModifier, ExplosionModifier,
+        SuccessCountModifier {
 
 }
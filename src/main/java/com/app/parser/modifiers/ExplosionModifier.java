@@ -1,5 +1,7 @@
 package com.app.parser.modifiers;
 
+import java.util.Objects;
+
 import com.app.parser.ExplosionCondition;
 
 /**
@@ -27,4 +29,20 @@ public final class ExplosionModifier implements DiceModifier {
     public Integer limit() { return limit; }
     public Integer penalty() { return penalty; }
 
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof ExplosionModifier that)) return false;
+        return compound == that.compound &&
+                penetrating == that.penetrating &&
+                Objects.equals(condition, that.condition) &&
+                Objects.equals(limit, that.limit) &&
+                Objects.equals(penalty, that.penalty);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(compound, penetrating, condition, limit, penalty);
+    }
+
 }
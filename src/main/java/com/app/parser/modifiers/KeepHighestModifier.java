@@ -15,4 +15,16 @@ public final class KeepHighestModifier implements DiceModifier {
         return count;
     }
 
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof KeepHighestModifier that)) return false;
+        return count == that.count;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * KeepHighestModifier.class.getSimpleName().hashCode() + count;
+    }
+
 }
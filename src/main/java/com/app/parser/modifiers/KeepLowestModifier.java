@@ -15,4 +15,16 @@ public final class KeepLowestModifier implements DiceModifier {
         return count;
     }
 
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof KeepLowestModifier that)) return false;
+        return count == that.count;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * KeepLowestModifier.class.getSimpleName().hashCode() + count;
+    }
+
 }
@@ -0,0 +1,35 @@
+package com.app.parser.modifiers;
+
+import com.app.parser.ExplosionCondition;
+
+/**
+ * Conta os dados cujo total satisfaz a condição em vez de somá-los.
+ * <br>
+ * Exemplo: 10d10>=8 → quantidade de dados com 8 ou mais. Com explosões,
+ * cada dado conta pelo seu total (rolagem original mais as explosões).
+ */
+public final class SuccessCountModifier implements DiceModifier {
+
+    private final ExplosionCondition condition;
+
+    public SuccessCountModifier(ExplosionCondition condition) {
+        this.condition = condition;
+    }
+
+    public ExplosionCondition condition() {
+        return condition;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof SuccessCountModifier that)) return false;
+        return condition.equals(that.condition);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * SuccessCountModifier.class.getSimpleName().hashCode() + condition.hashCode();
+    }
+
+}
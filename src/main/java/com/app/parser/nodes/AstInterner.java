@@ -0,0 +1,144 @@
+package com.app.parser.nodes;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.app.parser.modifiers.DiceModifier;
+import com.app.roll.CustomDie;
+
+/**
+ * Tabelas de internamento (hash-consing) para nós e modificadores.
+ * <br>
+ * Estruturas iguais passam a compartilhar uma única instância canônica,
+ * então subárvores comuns como "1d20", "+5" ou "4d6kh3" ocupam memória uma
+ * vez só em bibliotecas grandes de macros, e caches downstream podem usar
+ * identidade como chave. As tabelas guardam referências fracas: uma
+ * instância sai da tabela quando nenhuma AST a referencia mais.
+ * <br>
+ * Definições de dados customizados também são internadas, então a tabela
+ * de alias de cada dado distinto é montada uma vez e compartilhada.
+ */
+public final class AstInterner {
+
+    private static final Table<Node> NODES = new Table<>();
+    private static final Table<DiceModifier> MODIFIERS = new Table<>();
+    private static final Table<List<DiceModifier>> MODIFIER_LISTS = new Table<>();
+    private static final Table<CustomDie> DICE = new Table<>();
+
+    private AstInterner() {
+    }
+
+    /** Instância canônica do nó. Os filhos já devem ser canônicos. */
+    @SuppressWarnings("unchecked")
+    public static <T extends Node> T node(T node) {
+        return (T) NODES.intern(node);
+    }
+
+    /** Instância canônica do modificador. */
+    @SuppressWarnings("unchecked")
+    public static <T extends DiceModifier> T modifier(T modifier) {
+        return (T) MODIFIERS.intern(modifier);
+    }
+
+    /** Instância canônica da definição de dado customizado. */
+    public static CustomDie die(CustomDie die) {
+        return DICE.intern(die);
+    }
+
+    /** Lista imutável canônica de modificadores. */
+    public static List<DiceModifier> modifiers(List<DiceModifier> modifiers) {
+        if (modifiers.isEmpty()) {
+            return List.of();
+        }
+        return MODIFIER_LISTS.intern(List.copyOf(modifiers));
+    }
+
+    /**
+     * Tabela fraca e concorrente: as chaves são referências fracas às
+     * instâncias canônicas num {@link ConcurrentHashMap}, então a consulta
+     * (o caso comum, de subárvores já vistas) não usa lock e parsers em
+     * threads diferentes não se serializam. Entradas coletadas são
+     * removidas pela {@link ReferenceQueue} nas chamadas seguintes.
+     */
+    private static final class Table<T> {
+
+        private final ConcurrentHashMap<Object, WeakKey<T>> entries = new ConcurrentHashMap<>();
+        private final ReferenceQueue<T> queue = new ReferenceQueue<>();
+
+        T intern(T value) {
+            expungeStale();
+
+            WeakKey<T> found = entries.get(new Probe(value));
+            if (found != null) {
+                T canonical = found.get();
+                if (canonical != null) {
+                    return canonical;
+                }
+            }
+
+            // Corrida entre threads: a primeira instância publicada vence
+            WeakKey<T> key = new WeakKey<>(value, queue);
+            WeakKey<T> winner = entries.merge(key, key,
+                    (current, fresh) -> current.get() != null ? current : fresh);
+            T canonical = winner.get();
+            return canonical != null ? canonical : value;
+        }
+
+        private void expungeStale() {
+            Reference<? extends T> stale;
+            while ((stale = queue.poll()) != null) {
+                entries.remove(stale, stale);
+            }
+        }
+    }
+
+    /** Chave fraca; depois de coletada só é igual a si mesma. */
+    static final class WeakKey<T> extends WeakReference<T> {
+
+        private final int hash;
+
+        WeakKey(T referent, ReferenceQueue<T> queue) {
+            super(referent, queue);
+            this.hash = referent.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof WeakKey<?> that) || hash != that.hash) return false;
+            Object referent = get();
+            return referent != null && referent.equals(that.get());
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    /** Chave de consulta forte, sem alocar uma referência fraca. */
+    static final class Probe {
+
+        private final Object value;
+        private final int hash;
+
+        Probe(Object value) {
+            this.value = value;
+            this.hash = value.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof WeakKey<?> key && hash == key.hash && value.equals(key.get());
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+}
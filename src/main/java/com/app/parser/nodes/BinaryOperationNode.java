@@ -1,5 +1,8 @@
 package com.app.parser.nodes;
 
+import java.util.ArrayDeque;
+import java.util.Deque;
+
 import com.app.parser.TokenType;
 
 public final class BinaryOperationNode implements Node {
@@ -7,15 +10,56 @@ public final class BinaryOperationNode implements Node {
     private final Node left;
     private final Node right;
     private final TokenType operator;
+    private final int hash;
 
     public BinaryOperationNode(Node left, TokenType operator, Node right) {
         this.left = left;
         this.right = right;
         this.operator = operator;
+        this.hash = 31 * (31 * left.hashCode() + operator.ordinal()) + right.hashCode();
     }
 
     public Node left() { return left; }
     public Node right() { return right; }
     public TokenType operator() { return operator; }
 
+    /**
+     * Igualdade estrutural, comparada com pilha explícita para suportar
+     * cadeias longas sem recursão. Subárvores canônicas (internadas)
+     * são resolvidas por identidade.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof BinaryOperationNode that)) return false;
+
+        Deque<Node> pending = new ArrayDeque<>();
+        pending.push(this);
+        pending.push(that);
+
+        while (!pending.isEmpty()) {
+            Node b = pending.pop();
+            Node a = pending.pop();
+
+            if (a == b) continue;
+            if (a.hashCode() != b.hashCode()) return false;
+
+            if (a instanceof BinaryOperationNode x && b instanceof BinaryOperationNode y) {
+                if (x.operator != y.operator) return false;
+                pending.push(x.left);
+                pending.push(y.left);
+                pending.push(x.right);
+                pending.push(y.right);
+            } else if (!a.equals(b)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
 }
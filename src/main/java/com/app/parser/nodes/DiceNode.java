@@ -1,8 +1,11 @@
 package com.app.parser.nodes;
 
 import java.util.List;
+import java.util.Objects;
 
 import com.app.parser.modifiers.DiceModifier;
+import com.app.parser.modifiers.ExplosionModifier;
+import com.app.roll.CustomDie;
 
 
 /**
@@ -10,21 +13,106 @@ import com.app.parser.modifiers.DiceModifier;
  * <br>
  * Exemplo:
  * 4d6kh3!!
+ * <br>
+ * Quantidade e lados podem vir de variáveis ("$lvl d6"); nesse caso o
+ * valor literal correspondente é 0 e o avaliador o lê dos bindings.
+ * <br>
+ * Dados de faces customizadas ("4dF", "d{1,1,2,3,5,8}") carregam o
+ * {@link CustomDie}; lados passa a ser a quantidade de faces. Eles não
+ * aceitam explosões.
  */
 public final class DiceNode implements Node {
 
     private final int quantity;
     private final int sides;
     private final List<DiceModifier> modifiers;
+    private final VariableNode quantityVariable;
+    private final VariableNode sidesVariable;
+    private final CustomDie customDie;
+    private final int hash;
 
     public DiceNode(int quantity, int sides, List<DiceModifier> modifiers) {
-        this.quantity = quantity;
-        this.sides = sides;
-        this.modifiers = modifiers;
+        this(quantity, sides, modifiers, null, null);
+    }
+
+    /** Dado de faces customizadas. */
+    public DiceNode(int quantity, CustomDie customDie, List<DiceModifier> modifiers) {
+        this(quantity, customDie.faceCount(), modifiers, null, null, customDie);
+    }
+
+    public DiceNode(
+            int quantity,
+            int sides,
+            List<DiceModifier> modifiers,
+            VariableNode quantityVariable,
+            VariableNode sidesVariable
+    ) {
+        this(quantity, sides, modifiers, quantityVariable, sidesVariable, null);
+    }
+
+    public DiceNode(
+            int quantity,
+            int sides,
+            List<DiceModifier> modifiers,
+            VariableNode quantityVariable,
+            VariableNode sidesVariable,
+            CustomDie customDie
+    ) {
+        if (customDie != null) {
+            if (sidesVariable != null) {
+                throw new IllegalArgumentException("Dado customizado não pode ter lados variáveis");
+            }
+            for (DiceModifier mod : modifiers) {
+                if (mod instanceof ExplosionModifier) {
+                    throw new IllegalArgumentException("Dados com faces customizadas não explodem: " + customDie);
+                }
+            }
+        }
+        this.quantity = quantityVariable == null ? quantity : 0;
+        this.sides = customDie != null ? customDie.faceCount() : sidesVariable == null ? sides : 0;
+        this.modifiers = List.copyOf(modifiers);
+        this.quantityVariable = quantityVariable;
+        this.sidesVariable = sidesVariable;
+        this.customDie = customDie;
+        this.hash = 31 * (31 * this.quantity + this.sides) + this.modifiers.hashCode()
+                + 17 * Objects.hashCode(quantityVariable) + Objects.hashCode(sidesVariable)
+                + 13 * Objects.hashCode(customDie);
     }
 
     public int quantity() { return quantity; }
     public int sides() { return sides; }
     public List<DiceModifier> modifiers() { return modifiers; }
 
+    /** Variável da quantidade, ou null se literal. */
+    public VariableNode quantityVariable() { return quantityVariable; }
+
+    /** Variável dos lados, ou null se literal. */
+    public VariableNode sidesVariable() { return sidesVariable; }
+
+    /** Faces customizadas, ou null para um dado comum 1..lados. */
+    public CustomDie customDie() { return customDie; }
+
+    /** Se quantidade ou lados dependem de bindings. */
+    public boolean hasVariables() {
+        return quantityVariable != null || sidesVariable != null;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof DiceNode that)) return false;
+        return hash == that.hash &&
+                quantity == that.quantity &&
+                sides == that.sides &&
+                modifiers.equals(that.modifiers) &&
+                Objects.equals(quantityVariable, that.quantityVariable) &&
+                Objects.equals(sidesVariable, that.sidesVariable) &&
+                Objects.equals(customDie, that.customDie);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
 }
@@ -0,0 +1,307 @@
+package com.app.parser.nodes;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.app.parser.TokenType;
+import com.app.parser.modifiers.DiceModifier;
+import com.app.roll.CustomDie;
+
+/**
+ * Representação achatada da AST para caches com muitas expressões.
+ * <br>
+ * Os nós ficam em pós-ordem em arrays paralelos, sem um objeto por nó:
+ * <pre>
+ * kind      primary          secondary        modifierSet
+ * NUMBER    valor            -                -
+ * VARIABLE  slot             -                -
+ * DICE      quantidade       lados            índice na tabela (-1 = nenhum)
+ * BINARY    índice esquerdo  operador         -
+ * </pre>
+ * Quantidade ou lados vindos de variável são guardados como -(slot + 1).
+ * Em pós-ordem o filho direito de um BINARY é sempre o nó imediatamente
+ * anterior, e a raiz é o último nó, então avaliar é um laço linear com uma
+ * pilha de valores. Os modificadores ficam numa única tabela de conjuntos
+ * distintos compartilhada por todos os DICE da expressão. Dados de faces
+ * customizadas guardam o {@link CustomDie} num array à parte (null nos
+ * demais nós).
+ */
+public final class FlatAst {
+
+    /** Tipo de cada nó. */
+    public enum Kind {
+        NUMBER,
+        VARIABLE,
+        DICE,
+        BINARY
+    }
+
+    private static final Kind[] KINDS = Kind.values();
+    private static final TokenType[] OPERATORS = TokenType.values();
+
+    private final byte[] kinds;
+    private final int[] primary;
+    private final int[] secondary;
+    private final int[] modifierSets;
+    private final CustomDie[] customDice;
+    private final List<List<DiceModifier>> modifierTable;
+    private final List<String> variables;
+
+    private FlatAst(
+            byte[] kinds,
+            int[] primary,
+            int[] secondary,
+            int[] modifierSets,
+            CustomDie[] customDice,
+            List<List<DiceModifier>> modifierTable,
+            List<String> variables
+    ) {
+        this.kinds = kinds;
+        this.primary = primary;
+        this.secondary = secondary;
+        this.modifierSets = modifierSets;
+        this.customDice = customDice;
+        this.modifierTable = modifierTable;
+        this.variables = variables;
+    }
+
+    /**
+     * Converte uma AST de objetos (percurso iterativo, sem recursão).
+     */
+    public static FlatAst from(Node root) {
+
+        Encoder encoder = new Encoder();
+
+        // Nós pendentes do percurso e índices das subárvores já emitidas
+        Node[] pending = new Node[16];
+        boolean[] expanded = new boolean[16];
+        int[] emitted = new int[16];
+        int top = 0;
+        int emittedTop = 0;
+
+        pending[top++] = root;
+
+        while (top > 0) {
+
+            top--;
+            Node node = pending[top];
+            boolean wasExpanded = expanded[top];
+            pending[top] = null;
+
+            if (node instanceof BinaryOperationNode bin && !wasExpanded) {
+                if (top + 3 > pending.length) {
+                    pending = Arrays.copyOf(pending, pending.length * 2);
+                    expanded = Arrays.copyOf(expanded, expanded.length * 2);
+                }
+                pending[top] = bin;
+                expanded[top++] = true;
+                pending[top] = bin.right();
+                expanded[top++] = false;
+                pending[top] = bin.left();
+                expanded[top++] = false;
+                continue;
+            }
+
+            int index;
+            if (node instanceof BinaryOperationNode bin) {
+                emittedTop--;                      // filho direito (sempre index - 1)
+                int left = emitted[--emittedTop];
+                index = encoder.binary(left, bin.operator());
+            } else if (node instanceof NumberNode number) {
+                index = encoder.number(number.value());
+            } else if (node instanceof VariableNode variable) {
+                index = encoder.variable(variable);
+            } else if (node instanceof DiceNode dice) {
+                int quantity = dice.quantityVariable() == null
+                        ? dice.quantity()
+                        : -(encoder.slot(dice.quantityVariable()) + 1);
+                int sides = dice.sidesVariable() == null
+                        ? dice.sides()
+                        : -(encoder.slot(dice.sidesVariable()) + 1);
+                index = encoder.dice(quantity, sides, dice.modifiers(), dice.customDie());
+            } else {
+                throw new IllegalStateException("Unknown node type: " + node.getClass().getName());
+            }
+
+            if (emittedTop == emitted.length) {
+                emitted = Arrays.copyOf(emitted, emitted.length * 2);
+            }
+            emitted[emittedTop++] = index;
+        }
+
+        return encoder.build();
+    }
+
+    /**
+     * Reconstrói a AST de objetos.
+     */
+    public Node toNode() {
+        Node[] stack = new Node[Math.max(1, size())];
+        int top = 0;
+
+        for (int i = 0; i < size(); i++) {
+            switch (kind(i)) {
+                case NUMBER -> stack[top++] = new NumberNode(value(i));
+                case VARIABLE -> stack[top++] = variableNode(slot(i));
+                case DICE -> stack[top++] = new DiceNode(
+                        quantity(i), sides(i), modifiers(i),
+                        quantitySlot(i) < 0 ? null : variableNode(quantitySlot(i)),
+                        sidesSlot(i) < 0 ? null : variableNode(sidesSlot(i)),
+                        customDie(i)
+                );
+                case BINARY -> {
+                    Node right = stack[--top];
+                    Node left = stack[--top];
+                    stack[top++] = new BinaryOperationNode(left, operator(i), right);
+                }
+            }
+        }
+
+        return stack[0];
+    }
+
+    public int size() { return kinds.length; }
+
+    /** Índice da raiz (último nó em pós-ordem). */
+    public int root() { return kinds.length - 1; }
+
+    public Kind kind(int node) { return KINDS[kinds[node]]; }
+
+    /** Valor de um NUMBER. */
+    public int value(int node) { return primary[node]; }
+
+    /** Slot de um VARIABLE. */
+    public int slot(int node) { return primary[node]; }
+
+    /** Quantidade literal de um DICE (0 se vier de variável). */
+    public int quantity(int node) { return Math.max(0, primary[node]); }
+
+    /** Lados literais de um DICE (0 se vierem de variável). */
+    public int sides(int node) { return Math.max(0, secondary[node]); }
+
+    /** Slot da quantidade de um DICE, ou -1 se literal. */
+    public int quantitySlot(int node) { return primary[node] < 0 ? -primary[node] - 1 : -1; }
+
+    /** Slot dos lados de um DICE, ou -1 se literais. */
+    public int sidesSlot(int node) { return secondary[node] < 0 ? -secondary[node] - 1 : -1; }
+
+    /** Modificadores de um DICE (lista compartilhada da tabela). */
+    public List<DiceModifier> modifiers(int node) {
+        int set = modifierSets[node];
+        return set < 0 ? List.of() : modifierTable.get(set);
+    }
+
+    /** Faces customizadas de um DICE, ou null se for um dado comum. */
+    public CustomDie customDie(int node) {
+        return customDice == null ? null : customDice[node];
+    }
+
+    /** Filho esquerdo de um BINARY. */
+    public int left(int node) { return primary[node]; }
+
+    /** Filho direito de um BINARY (sempre o nó anterior em pós-ordem). */
+    public int right(int node) { return node - 1; }
+
+    /** Operador de um BINARY. */
+    public TokenType operator(int node) { return OPERATORS[secondary[node]]; }
+
+    /** Conjuntos distintos de modificadores usados pela expressão. */
+    public List<List<DiceModifier>> modifierTable() { return modifierTable; }
+
+    /** Nomes das variáveis indexados por slot (null nos slots não usados). */
+    public List<String> variables() { return variables; }
+
+    private VariableNode variableNode(int slot) {
+        return new VariableNode(variables.get(slot), slot);
+    }
+
+    /**
+     * Acumula os nós em pós-ordem e deduplica conjuntos de modificadores.
+     */
+    private static final class Encoder {
+
+        private byte[] kinds = new byte[16];
+        private int[] primary = new int[16];
+        private int[] secondary = new int[16];
+        private int[] modifierSets = new int[16];
+        private CustomDie[] customDice;
+        private int size;
+
+        private final List<List<DiceModifier>> table = new ArrayList<>();
+        private final Map<List<DiceModifier>, Integer> tableIndex = new HashMap<>();
+        private final List<String> names = new ArrayList<>();
+
+        int number(int value) {
+            return add(Kind.NUMBER, value, 0, -1);
+        }
+
+        int variable(VariableNode variable) {
+            return add(Kind.VARIABLE, slot(variable), 0, -1);
+        }
+
+        /** Registra o nome do slot e o retorna. */
+        int slot(VariableNode variable) {
+            while (names.size() <= variable.slot()) {
+                names.add(null);
+            }
+            names.set(variable.slot(), variable.name());
+            return variable.slot();
+        }
+
+        int dice(int quantity, int sides, List<DiceModifier> modifiers, CustomDie customDie) {
+            int set = -1;
+            if (!modifiers.isEmpty()) {
+                set = tableIndex.computeIfAbsent(modifiers, key -> {
+                    table.add(key);
+                    return table.size() - 1;
+                });
+            }
+            int index = add(Kind.DICE, quantity, sides, set);
+            if (customDie != null) {
+                if (customDice == null) {
+                    customDice = new CustomDie[kinds.length];
+                } else if (customDice.length < kinds.length) {
+                    customDice = Arrays.copyOf(customDice, kinds.length);
+                }
+                customDice[index] = customDie;
+            }
+            return index;
+        }
+
+        int binary(int left, TokenType operator) {
+            return add(Kind.BINARY, left, operator.ordinal(), -1);
+        }
+
+        private int add(Kind kind, int first, int second, int set) {
+            if (size == kinds.length) {
+                int capacity = size * 2;
+                kinds = Arrays.copyOf(kinds, capacity);
+                primary = Arrays.copyOf(primary, capacity);
+                secondary = Arrays.copyOf(secondary, capacity);
+                modifierSets = Arrays.copyOf(modifierSets, capacity);
+            }
+            kinds[size] = (byte) kind.ordinal();
+            primary[size] = first;
+            secondary[size] = second;
+            modifierSets[size] = set;
+            return size++;
+        }
+
+        FlatAst build() {
+            return new FlatAst(
+                    Arrays.copyOf(kinds, size),
+                    Arrays.copyOf(primary, size),
+                    Arrays.copyOf(secondary, size),
+                    Arrays.copyOf(modifierSets, size),
+                    customDice == null ? null : Arrays.copyOf(customDice, size),
+                    List.copyOf(table),
+                    Collections.unmodifiableList(new ArrayList<>(names))
+            );
+        }
+    }
+
+}
@@ -0,0 +1,75 @@
+package com.app.parser.nodes;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Redução da AST de baixo para cima (pós-ordem).
+ * <br>
+ * Cada implementação define o valor de folhas e como combinar os valores
+ * dos filhos; {@link #fold(Node)} faz o percurso com pilhas explícitas,
+ * então análises sobre cadeias longas não consomem a pilha nativa.
+ */
+public interface NodeFolder<T> {
+
+    T number(NumberNode node);
+
+    T variable(VariableNode node);
+
+    T dice(DiceNode node);
+
+    T binary(BinaryOperationNode node, T left, T right);
+
+    /**
+     * Percorre a AST a partir da raiz, sempre reduzindo o filho esquerdo
+     * antes do direito.
+     */
+    default T fold(Node root) {
+
+        Node[] pending = new Node[16];
+        boolean[] expanded = new boolean[16];
+        int top = 0;
+        List<T> results = new ArrayList<>();
+
+        pending[top++] = root;
+
+        while (top > 0) {
+
+            top--;
+            Node node = pending[top];
+            boolean wasExpanded = expanded[top];
+            pending[top] = null;
+
+            if (node instanceof BinaryOperationNode bin) {
+                if (!wasExpanded) {
+                    if (top + 3 > pending.length) {
+                        pending = Arrays.copyOf(pending, pending.length * 2);
+                        expanded = Arrays.copyOf(expanded, expanded.length * 2);
+                    }
+                    pending[top] = bin;
+                    expanded[top++] = true;
+                    pending[top] = bin.right();
+                    expanded[top++] = false;
+                    pending[top] = bin.left();
+                    expanded[top++] = false;
+                } else {
+                    T right = results.remove(results.size() - 1);
+                    T left = results.remove(results.size() - 1);
+                    results.add(binary(bin, left, right));
+                }
+            } else if (node instanceof NumberNode number) {
+                results.add(number(number));
+            } else if (node instanceof VariableNode variable) {
+                results.add(variable(variable));
+            } else if (node instanceof DiceNode dice) {
+                results.add(dice(dice));
+            } else {
+                throw new IllegalStateException("Unknown node type: " + node.getClass().getName());
+            }
+        }
+
+        return results.get(0);
+    }
+
+}
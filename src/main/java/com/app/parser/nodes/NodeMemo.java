@@ -0,0 +1,42 @@
+package com.app.parser.nodes;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Memo concorrente de valores derivados de uma AST (resumos, custos,
+ * distribuições), com as mesmas chaves fracas das tabelas do
+ * {@link AstInterner}: a consulta não usa lock e a entrada some quando
+ * nenhuma AST referencia mais o nó. O valor não deve referenciar o nó.
+ * <br>
+ * O cálculo roda fora do mapa, então pode consultar o próprio memo
+ * recursivamente; em corrida entre threads o primeiro valor publicado
+ * vence.
+ */
+public final class NodeMemo<K extends Node, V> {
+
+    private final ConcurrentHashMap<Object, V> values = new ConcurrentHashMap<>();
+    private final ReferenceQueue<K> queue = new ReferenceQueue<>();
+
+    public V get(K node, Function<? super K, ? extends V> compute) {
+        expungeStale();
+
+        V cached = values.get(new AstInterner.Probe(node));
+        if (cached != null) {
+            return cached;
+        }
+        V value = compute.apply(node);
+        V raced = values.putIfAbsent(new AstInterner.WeakKey<>(node, queue), value);
+        return raced != null ? raced : value;
+    }
+
+    private void expungeStale() {
+        Reference<? extends K> stale;
+        while ((stale = queue.poll()) != null) {
+            values.remove(stale);
+        }
+    }
+
+}
@@ -0,0 +1,34 @@
+package com.app.parser.nodes;
+
+/**
+ * Representa uma variável ($nome) resolvida no momento da avaliação.
+ * <br>
+ * O slot é a posição do valor no array de bindings, atribuída pelo
+ * parser na ordem da primeira ocorrência do nome.
+ */
+public final class VariableNode implements Node {
+
+    private final String name;
+    private final int slot;
+
+    public VariableNode(String name, int slot) {
+        this.name = name;
+        this.slot = slot;
+    }
+
+    public String name() { return name; }
+    public int slot() { return slot; }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof VariableNode that)) return false;
+        return slot == that.slot && name.equals(that.name);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * name.hashCode() + slot;
+    }
+
+}
@@ -0,0 +1,10 @@
+package com.app.replay;
+
+import com.app.roll.DiceRollResult;
+
+/**
+ * Resultado de uma rolagem reproduzível junto do registro que permite regenerá-la.
+ */
+public record RecordedRoll(DiceRollResult result, RollRecord record) {
+
+}
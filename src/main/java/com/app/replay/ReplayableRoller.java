@@ -0,0 +1,86 @@
+package com.app.replay;
+
+import java.util.Objects;
+
+import com.app.parser.DiceEvaluator;
+import com.app.parser.DiceParser;
+import com.app.parser.EvaluationLimits;
+import com.app.parser.Lexer;
+import com.app.parser.nodes.Node;
+import com.app.roll.DetailLevel;
+import com.app.roll.DiceRoll;
+import com.app.roll.DiceRollResult;
+
+/**
+ * Executa rolagens sobre um único stream reproduzível (algoritmo + seed),
+ * produzindo para cada uma o {@link RollRecord} usado pelo replay.
+ * <br>
+ * Não é thread-safe: o stream é sequencial por definição.
+ */
+public final class ReplayableRoller {
+
+    private static final int[] NO_BINDINGS = new int[0];
+
+    private final DiceRoll roll;
+    private final DiceEvaluator evaluator;
+    private final int parallelThreshold;
+    private final int parallelChunk;
+    private final DetailLevel detailLevel;
+
+    /** Avaliação sequencial com detalhe completo. */
+    public ReplayableRoller(String algorithm, long seed) {
+        this(algorithm, seed, Integer.MAX_VALUE, DiceEvaluator.DEFAULT_PARALLEL_CHUNK, DetailLevel.full());
+    }
+
+    /**
+     * Roller com pools paralelos e nível de detalhe; a configuração vai
+     * em cada {@link RollRecord} para que o replay use a mesma.
+     */
+    public ReplayableRoller(
+            String algorithm,
+            long seed,
+            int parallelThreshold,
+            int parallelChunk,
+            DetailLevel detailLevel
+    ) {
+        this.roll = DiceRoll.seeded(algorithm, seed);
+        this.evaluator = new DiceEvaluator(roll, EvaluationLimits.unlimited(), parallelThreshold, parallelChunk);
+        this.parallelThreshold = parallelThreshold;
+        this.parallelChunk = parallelChunk;
+        this.detailLevel = Objects.requireNonNull(detailLevel, "Detail level cannot be null");
+    }
+
+    /** Roller com o algoritmo padrão ({@value DiceRoll#DEFAULT_ALGORITHM}). */
+    public static ReplayableRoller withSeed(long seed) {
+        return new ReplayableRoller(DiceRoll.DEFAULT_ALGORITHM, seed);
+    }
+
+    /**
+     * Rola a expressão e devolve o resultado completo e o registro compacto.
+     */
+    public RecordedRoll roll(String expression) {
+        Node ast = new DiceParser(new Lexer(expression).tokenize()).parse();
+
+        long offset = roll.position();
+        DiceRollResult result = evaluator.evaluateWithDetails(expression, ast, NO_BINDINGS, detailLevel);
+
+        RollRecord record = new RollRecord(
+                result.rollId(),
+                result.timestamp(),
+                expression,
+                roll.algorithm(),
+                roll.seed(),
+                offset,
+                parallelThreshold,
+                parallelChunk,
+                detailLevel
+        );
+        return new RecordedRoll(result, record);
+    }
+
+    /** Posição atual do stream. */
+    public long position() {
+        return roll.position();
+    }
+
+}
@@ -0,0 +1,115 @@
+package com.app.replay;
+
+import java.time.Instant;
+import java.util.Objects;
+
+import com.app.parser.DiceEvaluator;
+import com.app.roll.DetailLevel;
+
+/**
+ * Registro compacto de auditoria de uma rolagem.
+ * <br>
+ * Em vez de guardar todos os dados rolados, guarda apenas o necessário
+ * para regenerar o {@link com.app.roll.DiceRollResult} idêntico:
+ * expressão, algoritmo do RNG, seed, a posição do stream no início da
+ * rolagem e a configuração do avaliador que afeta o resultado (pools
+ * paralelos mudam a ordem de consumo do stream; o nível de detalhe muda
+ * o que o resultado guarda).
+ */
+public record RollRecord(
+        String rollId,
+        Instant timestamp,
+        String expression,
+        String algorithm,
+        long seed,
+        long offset,
+        int parallelThreshold,
+        int parallelChunk,
+        DetailLevel detailLevel
+) {
+
+    private static final char SEPARATOR = '|';
+
+    public RollRecord {
+        Objects.requireNonNull(rollId, "Roll ID cannot be null");
+        Objects.requireNonNull(timestamp, "Timestamp cannot be null");
+        Objects.requireNonNull(expression, "Expression cannot be null");
+        Objects.requireNonNull(algorithm, "Algorithm cannot be null");
+        Objects.requireNonNull(detailLevel, "Detail level cannot be null");
+        if (offset < 0) {
+            throw new IllegalArgumentException("Offset must be >= 0, got: " + offset);
+        }
+        if (parallelThreshold <= 0 || parallelChunk <= 0) {
+            throw new IllegalArgumentException("Parallel threshold and chunk must be positive");
+        }
+    }
+
+    /** Registro de uma rolagem sequencial com {@link DetailLevel#full()}. */
+    public RollRecord(
+            String rollId,
+            Instant timestamp,
+            String expression,
+            String algorithm,
+            long seed,
+            long offset
+    ) {
+        this(rollId, timestamp, expression, algorithm, seed, offset,
+                Integer.MAX_VALUE, DiceEvaluator.DEFAULT_PARALLEL_CHUNK, DetailLevel.full());
+    }
+
+    /**
+     * Serializa em uma única linha de texto.
+     * <br>
+     * Formato: rollId|epochSecond|nano|algorithm|seed|offset|
+     * parallelThreshold|parallelChunk|detailLevel|expression
+     */
+    public String encode() {
+        return new StringBuilder(96 + expression.length())
+                .append(rollId).append(SEPARATOR)
+                .append(timestamp.getEpochSecond()).append(SEPARATOR)
+                .append(timestamp.getNano()).append(SEPARATOR)
+                .append(algorithm).append(SEPARATOR)
+                .append(seed).append(SEPARATOR)
+                .append(offset).append(SEPARATOR)
+                .append(parallelThreshold).append(SEPARATOR)
+                .append(parallelChunk).append(SEPARATOR)
+                .append(detailLevel).append(SEPARATOR)
+                .append(expression)
+                .toString();
+    }
+
+    /**
+     * Lê um registro gerado por {@link #encode()}. Linhas no formato
+     * anterior, sem a configuração do avaliador (7 campos), são lidas como
+     * rolagens sequenciais com detalhe completo.
+     */
+    public static RollRecord decode(String line) {
+        String[] parts = line.split("\\|", 10);
+        if (parts.length != 7 && parts.length != 10) {
+            throw new IllegalArgumentException("Invalid roll record: " + line);
+        }
+        Instant timestamp = Instant.ofEpochSecond(Long.parseLong(parts[1]), Long.parseLong(parts[2]));
+        if (parts.length == 7) {
+            return new RollRecord(
+                    parts[0],
+                    timestamp,
+                    parts[6],
+                    parts[3],
+                    Long.parseLong(parts[4]),
+                    Long.parseLong(parts[5])
+            );
+        }
+        return new RollRecord(
+                parts[0],
+                timestamp,
+                parts[9],
+                parts[3],
+                Long.parseLong(parts[4]),
+                Long.parseLong(parts[5]),
+                Integer.parseInt(parts[6]),
+                Integer.parseInt(parts[7]),
+                DetailLevel.parse(parts[8])
+        );
+    }
+
+}
@@ -0,0 +1,87 @@
+package com.app.replay;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.app.parser.DiceEvaluator;
+import com.app.parser.DiceParser;
+import com.app.parser.EvaluationLimits;
+import com.app.parser.Lexer;
+import com.app.parser.nodes.Node;
+import com.app.roll.DiceRoll;
+import com.app.roll.DiceRollResult;
+
+/**
+ * Regenera um {@link DiceRollResult} a partir de um {@link RollRecord}.
+ * <br>
+ * O stream é recriado com o mesmo algoritmo e seed e avançado até o offset
+ * registrado, e o avaliador usa a mesma configuração de pools paralelos e
+ * nível de detalhe, então rolagens, explosões e marcações de kept são
+ * idênticas às originais.
+ * <br>
+ * Avançar até o offset custa O(offset) nos algoritmos sem salto
+ * arbitrário; para auditar uma sessão inteira use {@link #replayAll}, que
+ * reaproveita o stream entre registros em ordem.
+ */
+public final class RollReplayer {
+
+    private static final int[] NO_BINDINGS = new int[0];
+
+    private RollReplayer() {
+    }
+
+    public static DiceRollResult replay(RollRecord record) {
+        return replay(record, DiceRoll.seeded(record.algorithm(), record.seed(), record.offset()));
+    }
+
+    /**
+     * Regenera os registros na ordem dada. Cada stream (algoritmo + seed)
+     * é criado uma vez e avançado apenas a distância entre um registro e o
+     * seguinte; só é recriado do início quando o offset volta para trás.
+     */
+    public static List<DiceRollResult> replayAll(List<RollRecord> records) {
+        Map<StreamKey, DiceRoll> streams = new HashMap<>();
+        List<DiceRollResult> results = new ArrayList<>(records.size());
+
+        for (RollRecord record : records) {
+            StreamKey key = new StreamKey(record.algorithm(), record.seed());
+            DiceRoll roll = streams.get(key);
+            if (roll == null || roll.position() > record.offset()) {
+                roll = DiceRoll.seeded(record.algorithm(), record.seed(), record.offset());
+                streams.put(key, roll);
+            } else {
+                roll.advanceTo(record.offset());
+            }
+            results.add(replay(record, roll));
+        }
+        return results;
+    }
+
+    private static DiceRollResult replay(RollRecord record, DiceRoll roll) {
+        Node ast = new DiceParser(new Lexer(record.expression()).tokenize()).parse();
+
+        DiceRollResult result = new DiceEvaluator(
+                roll,
+                EvaluationLimits.unlimited(),
+                record.parallelThreshold(),
+                record.parallelChunk()
+        ).evaluateWithDetails(record.expression(), ast, NO_BINDINGS, record.detailLevel());
+
+        return DiceRollResult.restore(
+                record.rollId(),
+                result.expression(),
+                result.allRolls(),
+                result.keptMask(),
+                result.summary().orElse(null),
+                result.finalTotal(),
+                record.timestamp(),
+                result.appliedModifiers()
+        );
+    }
+
+    private record StreamKey(String algorithm, long seed) {
+    }
+
+}
@@ -0,0 +1,52 @@
+package com.app.roll;
+
+import java.util.random.RandomGenerator;
+import java.util.random.RandomGenerator.ArbitrarilyJumpableGenerator;
+
+/**
+ * Decorador que conta quantos valores brutos (nextLong) foram consumidos.
+ * <br>
+ * Todos os métodos padrão de {@link RandomGenerator} derivam de nextLong,
+ * então a contagem representa exatamente a posição no stream do gerador.
+ */
+final class CountingRandomGenerator implements RandomGenerator {
+
+    /** Maior distância representada sem perda num double (2^53). */
+    private static final long MAX_EXACT_JUMP = 1L << 53;
+
+    private final RandomGenerator delegate;
+    private long draws;
+
+    CountingRandomGenerator(RandomGenerator delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public long nextLong() {
+        draws++;
+        return delegate.nextLong();
+    }
+
+    /**
+     * Avança o stream pela quantidade informada de valores: em O(1) com
+     * {@link ArbitrarilyJumpableGenerator#jump(double)} quando o algoritmo
+     * suporta saltos arbitrários (e a distância é exata em double), senão
+     * descartando um valor por vez. Os algoritmos LXM e Xoshiro do JDK só
+     * saltam distâncias fixas, então usam o descarte.
+     */
+    void skip(long count) {
+        if (delegate instanceof ArbitrarilyJumpableGenerator jumpable && count <= MAX_EXACT_JUMP) {
+            jumpable.jump((double) count);
+        } else {
+            for (long i = 0; i < count; i++) {
+                delegate.nextLong();
+            }
+        }
+        draws += count;
+    }
+
+    long draws() {
+        return draws;
+    }
+
+}
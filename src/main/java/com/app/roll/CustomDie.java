@@ -0,0 +1,226 @@
+package com.app.roll;
+
+import java.util.Arrays;
+import java.util.function.IntPredicate;
+import java.util.random.RandomGenerator;
+
+/**
+ * Dado com faces arbitrárias: Fudge ("dF": -1, 0, +1), lista de faces
+ * ("d{1,1,2,3,5,8}") ou faces com pesos inteiros ("d{1:60,5:30,20:10}").
+ * <br>
+ * A tabela de alias (Walker/Vose) é montada uma vez na construção, em
+ * aritmética inteira, e dá amostragem ponderada exata em O(1): um índice
+ * uniforme e um corte. Dados sem pesos dispensam o corte. Imutável; o
+ * parser interna as definições ({@code AstInterner.die}), então cada
+ * dado distinto monta sua tabela uma única vez.
+ */
+public final class CustomDie {
+
+    private static final CustomDie FUDGE = new CustomDie(new int[] { -1, 0, 1 }, null, true);
+
+    private final int[] faces;
+    private final int[] weights;
+    private final boolean fudge;
+    private final long totalWeight;
+    private final int min;
+    private final int max;
+    private final int hash;
+    private final String label;
+
+    // Tabela de alias: a face i fica com a fatia [0, cut[i]) de totalWeight
+    // e cede o resto para alias[i]; null quando todas as faces pesam igual
+    private final long[] cut;
+    private final int[] alias;
+
+    private CustomDie(int[] faces, int[] weights, boolean fudge) {
+        if (faces.length == 0) {
+            throw new IllegalArgumentException("O dado precisa ter ao menos 1 face");
+        }
+        this.faces = faces;
+        this.weights = weights;
+        this.fudge = fudge;
+
+        long total = 0;
+        for (int i = 0; i < faces.length; i++) {
+            int weight = weight(i);
+            if (weight <= 0) {
+                throw new IllegalArgumentException(
+                        "Peso da face " + faces[i] + " precisa ser positivo, got: " + weight);
+            }
+            total += weight;
+        }
+        this.totalWeight = total;
+        this.min = Arrays.stream(faces).min().getAsInt();
+        this.max = Arrays.stream(faces).max().getAsInt();
+        this.hash = 31 * (31 * Arrays.hashCode(faces) + Arrays.hashCode(weights)) + (fudge ? 1 : 0);
+        this.label = buildLabel();
+
+        if (weights == null) {
+            this.cut = null;
+            this.alias = null;
+        } else {
+            this.cut = new long[faces.length];
+            this.alias = new int[faces.length];
+            buildAlias();
+        }
+    }
+
+    /** Fudge/FATE: -1, 0 e +1 com a mesma chance. */
+    public static CustomDie fudge() {
+        return FUDGE;
+    }
+
+    /** Faces equiprováveis; faces repetidas contam mais de uma vez. */
+    public static CustomDie of(int... faces) {
+        return new CustomDie(faces.clone(), null, false);
+    }
+
+    /** Faces com pesos inteiros positivos (mesma ordem). */
+    public static CustomDie weighted(int[] faces, int[] weights) {
+        if (faces.length != weights.length) {
+            throw new IllegalArgumentException(
+                    "Esperado um peso por face: " + faces.length + " faces, " + weights.length + " pesos");
+        }
+        boolean uniform = true;
+        for (int weight : weights) {
+            uniform &= weight == 1;
+        }
+        return new CustomDie(faces.clone(), uniform ? null : weights.clone(), false);
+    }
+
+    /**
+     * Vose em inteiros: cada face começa com peso·n e a meta de cada
+     * coluna é totalWeight; as faces abaixo da meta são completadas pelas
+     * de cima.
+     */
+    private void buildAlias() {
+        int n = faces.length;
+        long[] scaled = new long[n];
+        int[] small = new int[n];
+        int[] large = new int[n];
+        int smallTop = 0;
+        int largeTop = 0;
+
+        for (int i = 0; i < n; i++) {
+            scaled[i] = (long) weights[i] * n;
+            if (scaled[i] < totalWeight) {
+                small[smallTop++] = i;
+            } else {
+                large[largeTop++] = i;
+            }
+        }
+
+        while (smallTop > 0 && largeTop > 0) {
+            int s = small[--smallTop];
+            int l = large[--largeTop];
+            cut[s] = scaled[s];
+            alias[s] = l;
+            scaled[l] -= totalWeight - scaled[s];
+            if (scaled[l] < totalWeight) {
+                small[smallTop++] = l;
+            } else {
+                large[largeTop++] = l;
+            }
+        }
+
+        // Sobras ficam com a coluna inteira
+        while (largeTop > 0) {
+            int l = large[--largeTop];
+            cut[l] = totalWeight;
+            alias[l] = l;
+        }
+        while (smallTop > 0) {
+            int s = small[--smallTop];
+            cut[s] = totalWeight;
+            alias[s] = s;
+        }
+    }
+
+    /** Sorteia uma face em O(1). Usado por {@link DiceRoll#roll(CustomDie)}. */
+    int sample(RandomGenerator rng) {
+        int index = rng.nextInt(faces.length);
+        if (cut != null && rng.nextLong(totalWeight) >= cut[index]) {
+            index = alias[index];
+        }
+        return faces[index];
+    }
+
+    public boolean isFudge() { return fudge; }
+    public int faceCount() { return faces.length; }
+    public int face(int index) { return faces[index]; }
+    public int weight(int index) { return weights == null ? 1 : weights[index]; }
+    public long totalWeight() { return totalWeight; }
+    public int min() { return min; }
+    public int max() { return max; }
+
+    /** Peso somado das faces que satisfazem a condição. */
+    public long weight(IntPredicate condition) {
+        long weight = 0;
+        for (int i = 0; i < faces.length; i++) {
+            if (condition.test(faces[i])) {
+                weight += weight(i);
+            }
+        }
+        return weight;
+    }
+
+    public double mean() {
+        double sum = 0.0;
+        for (int i = 0; i < faces.length; i++) {
+            sum += (double) faces[i] * weight(i);
+        }
+        return sum / totalWeight;
+    }
+
+    public double variance() {
+        double mean = mean();
+        double sum = 0.0;
+        for (int i = 0; i < faces.length; i++) {
+            double d = faces[i] - mean;
+            sum += d * d * weight(i);
+        }
+        return sum / totalWeight;
+    }
+
+    /**
+     * Definição na sintaxe de entrada, sem o 'd': "F", "{1,1,2,3,5,8}" ou
+     * "{1:60,5:30,20:10}".
+     */
+    public String label() {
+        return label;
+    }
+
+    private String buildLabel() {
+        if (fudge) {
+            return "F";
+        }
+        StringBuilder sb = new StringBuilder().append('{');
+        for (int i = 0; i < faces.length; i++) {
+            if (i > 0) sb.append(',');
+            sb.append(faces[i]);
+            if (weights != null) sb.append(':').append(weights[i]);
+        }
+        return sb.append('}').toString();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof CustomDie that)) return false;
+        return hash == that.hash
+                && fudge == that.fudge
+                && Arrays.equals(faces, that.faces)
+                && Arrays.equals(weights, that.weights);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return "d" + label();
+    }
+
+}
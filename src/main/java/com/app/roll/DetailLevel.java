@@ -0,0 +1,86 @@
+package com.app.roll;
+
+/**
+ * Quanto de cada rolagem o {@link DiceRollResult} guarda.
+ * <br>
+ * FULL guarda todos os dados. SUMMARY guarda só o {@link RollSummary}
+ * (histograma por face e contagens de mantidos e explosões). CAPPED(n)
+ * guarda os n primeiros dados mais o resumo. Nos dois últimos a memória
+ * do resultado não cresce com o tamanho do pool.
+ * <br>
+ * Imutável.
+ */
+public final class DetailLevel {
+
+    private static final DetailLevel FULL = new DetailLevel(Integer.MAX_VALUE, false);
+    private static final DetailLevel SUMMARY = new DetailLevel(0, true);
+
+    private final int maxRolls;
+    private final boolean summary;
+
+    private DetailLevel(int maxRolls, boolean summary) {
+        this.maxRolls = maxRolls;
+        this.summary = summary;
+    }
+
+    /** Todas as rolagens, sem resumo (padrão). */
+    public static DetailLevel full() {
+        return FULL;
+    }
+
+    /** Apenas o resumo. */
+    public static DetailLevel summary() {
+        return SUMMARY;
+    }
+
+    /** As primeiras maxRolls rolagens mais o resumo. */
+    public static DetailLevel capped(int maxRolls) {
+        if (maxRolls < 0) {
+            throw new IllegalArgumentException("maxRolls must be >= 0, got: " + maxRolls);
+        }
+        return maxRolls == 0 ? SUMMARY : new DetailLevel(maxRolls, true);
+    }
+
+    /** Quantas rolagens individuais são guardadas. */
+    public int maxRolls() {
+        return maxRolls;
+    }
+
+    /** Indica se o resultado carrega um {@link RollSummary}. */
+    public boolean hasSummary() {
+        return summary;
+    }
+
+    /** Lê o formato de {@link #toString()}: FULL, SUMMARY ou CAPPED(n). */
+    public static DetailLevel parse(String text) {
+        if (text.equals("FULL")) return FULL;
+        if (text.equals("SUMMARY")) return SUMMARY;
+        if (text.startsWith("CAPPED(") && text.endsWith(")")) {
+            try {
+                return capped(Integer.parseInt(text.substring(7, text.length() - 1)));
+            } catch (NumberFormatException e) {
+                // cai no erro abaixo
+            }
+        }
+        throw new IllegalArgumentException("Invalid detail level: " + text);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof DetailLevel that)) return false;
+        return maxRolls == that.maxRolls && summary == that.summary;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * maxRolls + (summary ? 1 : 0);
+    }
+
+    @Override
+    public String toString() {
+        if (!summary) return "FULL";
+        return maxRolls == 0 ? "SUMMARY" : "CAPPED(" + maxRolls + ")";
+    }
+
+}
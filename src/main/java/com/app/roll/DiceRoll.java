@@ -1,5 +1,6 @@
 package com.app.roll;
 
+import java.util.SplittableRandom;
 import java.util.random.RandomGenerator;
 import java.util.random.RandomGeneratorFactory;
 
@@ -8,21 +9,114 @@ import java.util.random.RandomGeneratorFactory;
  */
 public final class DiceRoll {
 
+    /** Algoritmo usado pelo factory padrão. */
+    public static final String DEFAULT_ALGORITHM = "L64X128MixRandom";
+
     private final RandomGenerator rng;
+    private final CountingRandomGenerator counter;
+    private final String algorithm;
+    private final long seed;
     
     /** Construtor permite injetar RNG (permite seed determinística). */
     public DiceRoll(RandomGenerator rng) {
         this.rng = rng;
+        this.counter = null;
+        this.algorithm = null;
+        this.seed = 0L;
+    }
+
+    private DiceRoll(CountingRandomGenerator counter, String algorithm, long seed) {
+        this.rng = counter;
+        this.counter = counter;
+        this.algorithm = algorithm;
+        this.seed = seed;
     }
 
     
     /** Factory padrão usando L64X128MixRandom. */
     public static DiceRoll defaultRNG() {
         return new DiceRoll(
-            RandomGeneratorFactory.of("L64X128MixRandom").create()
+            RandomGeneratorFactory.of(DEFAULT_ALGORITHM).create()
         );
     }
 
+    /**
+     * Factory reproduzível: o stream fica identificado por algoritmo + seed
+     * e a posição consumida pode ser consultada em {@link #position()}.
+     */
+    public static DiceRoll seeded(String algorithm, long seed) {
+        return seeded(algorithm, seed, 0L);
+    }
+
+    /**
+     * Recria um stream reproduzível já avançado até a posição informada.
+     */
+    public static DiceRoll seeded(String algorithm, long seed, long offset) {
+        if (offset < 0) {
+            throw new IllegalArgumentException("O offset precisa ser >= 0");
+        }
+        CountingRandomGenerator counter = new CountingRandomGenerator(
+            RandomGeneratorFactory.of(algorithm).create(seed)
+        );
+        counter.skip(offset);
+        return new DiceRoll(counter, algorithm, seed);
+    }
+
+    /**
+     * Avança um stream reproduzível até a posição informada, que não pode
+     * ser anterior à atual. Permite reaproveitar o stream entre registros
+     * em ordem em vez de recriá-lo do início.
+     */
+    public void advanceTo(long position) {
+        requireReplayable();
+        long distance = position - counter.draws();
+        if (distance < 0) {
+            throw new IllegalArgumentException(
+                    "Não é possível voltar o stream de " + counter.draws() + " para " + position);
+        }
+        counter.skip(distance);
+    }
+
+    /** Indica se o stream pode ser reproduzido (criado via {@link #seeded}). */
+    public boolean isReplayable() {
+        return counter != null;
+    }
+
+    public String algorithm() {
+        requireReplayable();
+        return algorithm;
+    }
+
+    public long seed() {
+        requireReplayable();
+        return seed;
+    }
+
+    /** Quantidade de valores brutos já consumidos do stream. */
+    public long position() {
+        requireReplayable();
+        return counter.draws();
+    }
+
+    private void requireReplayable() {
+        if (counter == null) {
+            throw new IllegalStateException("DiceRoll não foi criado com seed reproduzível");
+        }
+    }
+
+    /**
+     * Cria um DiceRoll independente derivado do estado atual deste, para
+     * rolar em outra thread. Chamadas na mesma ordem sobre o mesmo stream
+     * produzem os mesmos filhos; geradores não divisíveis (como os
+     * reproduzíveis) consomem um valor do stream como seed do filho.
+     */
+    public DiceRoll split() {
+        if (rng instanceof RandomGenerator.SplittableGenerator splittable) {
+            return new DiceRoll(splittable.split());
+        }
+        return new DiceRoll(new SplittableRandom(rng.nextLong()));
+    }
+
     /** Rola um único dado com N lados. (dM) */
     public int dM(int sides) {
         if (sides <= 0) {
@@ -31,6 +125,130 @@ public final class DiceRoll {
         return rng.nextInt(1, sides + 1);
     }
 
+    /** Rola um dado de faces customizadas (Fudge, lista ou pesos) em O(1). */
+    public int roll(CustomDie die) {
+        return die.sample(rng);
+    }
+
+    /**
+     * Quantos de trials ensaios independentes têm sucesso com probabilidade p
+     * (Binomial). Custo O(1) esperado em trials: inversão sequencial quando
+     * a média é pequena e BTRD (Hörmann, 1993) caso contrário.
+     */
+    public int binomial(int trials, double p) {
+        if (trials < 0 || !(p >= 0.0 && p <= 1.0)) {
+            throw new IllegalArgumentException("Binomial inválida: n=" + trials + ", p=" + p);
+        }
+        if (trials == 0 || p == 0.0) return 0;
+        if (p == 1.0) return trials;
+        if (p > 0.5) {
+            return trials - binomial(trials, 1.0 - p);
+        }
+        return trials * p < 10.0 ? binomialInversion(trials, p) : binomialBtrd(trials, p);
+    }
+
+    /** Percorre a CDF a partir de 0: ~n·p passos. */
+    private int binomialInversion(int n, double p) {
+        double q = 1.0 - p;
+        double ratio = p / q;
+        double mass = Math.exp(n * Math.log1p(-p));
+        double u = rng.nextDouble();
+        int k = 0;
+        while (u > mass && k < n) {
+            u -= mass;
+            mass *= ratio * (n - k) / (k + 1);
+            k++;
+        }
+        return k;
+    }
+
+    /** Rejeição transformada com decomposição; requer n·p >= 10 e p <= 0.5. */
+    private int binomialBtrd(int n, double p) {
+
+        double q = 1.0 - p;
+        double spq = Math.sqrt(n * p * q);
+        double b = 1.15 + 2.53 * spq;
+        double a = -0.0873 + 0.0248 * b + 0.01 * p;
+        double c = n * p + 0.5;
+        double alpha = (2.83 + 5.1 / b) * spq;
+        double vr = 0.92 - 4.2 / b;
+        double urvr = 0.86 * vr;
+        int m = (int) ((n + 1) * p);
+        double r = p / q;
+        double nr = (n + 1) * r;
+        double npq = n * p * q;
+
+        while (true) {
+
+            double v = rng.nextDouble();
+            double u;
+            if (v <= urvr) {
+                u = v / vr - 0.43;
+                return (int) Math.floor((2 * a / (0.5 - Math.abs(u)) + b) * u + c);
+            }
+            if (v >= vr) {
+                u = rng.nextDouble() - 0.5;
+            } else {
+                u = v / vr - 0.93;
+                u = Math.signum(u) * 0.5 - u;
+                v = rng.nextDouble() * vr;
+            }
+
+            double us = 0.5 - Math.abs(u);
+            int k = (int) Math.floor((2 * a / us + b) * u + c);
+            if (k < 0 || k > n) {
+                continue;
+            }
+            v = v * alpha / (a / (us * us) + b);
+            int km = Math.abs(k - m);
+
+            if (km <= 15) {
+                // Avaliação recursiva de f(k)/f(m)
+                double f = 1.0;
+                if (m < k) {
+                    for (int i = m + 1; i <= k; i++) f *= nr / i - r;
+                } else {
+                    for (int i = k + 1; i <= m; i++) v *= nr / i - r;
+                }
+                if (v <= f) return k;
+                continue;
+            }
+
+            // Squeeze pelo log
+            v = Math.log(v);
+            double rho = (km / npq) * (((km / 3.0 + 0.625) * km + 1.0 / 6.0) / npq + 0.5);
+            double t = -(double) km * km / (2 * npq);
+            if (v < t - rho) return k;
+            if (v > t + rho) continue;
+
+            int nm = n - m + 1;
+            double h = (m + 0.5) * Math.log((m + 1) / (r * nm)) + stirlingTail(m) + stirlingTail(n - m);
+            int nk = n - k + 1;
+            if (v <= h + (n + 1) * Math.log((double) nm / nk)
+                    + (k + 0.5) * Math.log(nk * r / (k + 1))
+                    - stirlingTail(k) - stirlingTail(n - k)) {
+                return k;
+            }
+        }
+    }
+
+    private static final double[] STIRLING_TAIL = {
+            0.08106146679532726, 0.04134069595540929, 0.02767792568499834,
+            0.02079067210376509, 0.01664469118982119, 0.01387612882307075,
+            0.01189670994589177, 0.01041126526197209, 0.009255462182712733,
+            0.008330563433362871
+    };
+
+    /** log(k!) - [(k + 1/2)·log(k + 1) - (k + 1) + log(2π)/2]. */
+    private static double stirlingTail(int k) {
+        if (k < STIRLING_TAIL.length) {
+            return STIRLING_TAIL[k];
+        }
+        double kp1 = k + 1.0;
+        double kp1sq = kp1 * kp1;
+        return (1.0 / 12 - (1.0 / 360 - 1.0 / 1260 / kp1sq) / kp1sq) / kp1;
+    }
+
     /** Rola múltiplos dados. (NdM) */
     public int ndM(int quantity, int sides) {
         if (quantity <= 0 || sides <= 0) {
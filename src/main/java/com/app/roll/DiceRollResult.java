@@ -1,36 +1,65 @@
 package com.app.roll;
 
 import java.time.Instant;
-import java.util.ArrayList;
-import java.util.Collections;
+import java.util.AbstractList;
+import java.util.BitSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.RandomAccess;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.UUID;
-import java.util.stream.Collectors;
 
+/**
+ * Resultado de uma avaliação. Conforme o {@link DetailLevel}, carrega
+ * todas as rolagens, apenas um {@link RollSummary} ou as primeiras
+ * rolagens mais o resumo; as listas de rolagens cobrem só as guardadas.
+ */
 public class DiceRollResult {
     
     private final String rollId;
     private final String expression;
+    private final List<IndividualDiceRoll> rolls;
+    private final BitSet kept;
+    private final int keptCount;
     private final List<IndividualDiceRoll> allRolls;
     private final int finalTotal;
     private final Instant timestamp;
     private final String appliedModifiers;
+    private final RollSummary summary;
 
+    // Índices mantidos/descartados, montados só no primeiro get por
+    // posição das views (iterar usa a máscara direto). A máscara não muda
+    // depois da construção; em corrida, cada thread monta o mesmo array e
+    // o volatile publica um deles inteiro.
+    private volatile int[] keptIndices;
+    private volatile int[] discardedIndices;
+
+    /**
+     * kept é a máscara de rolagens mantidas; quando null é derivada de
+     * {@link IndividualDiceRoll#wasKept()}.
+     */
     private DiceRollResult(
         String rollId,
         String expression,
         List<IndividualDiceRoll> allRolls,
+        BitSet kept,
         int finalTotal,
         Instant timestamp,
-        String appliedModifiers
+        String appliedModifiers,
+        RollSummary summary
     ) {
         this.rollId = Objects.requireNonNull(rollId, "Roll ID cannot be null");
         this.expression = validateExpression(expression);
-        this.allRolls = Collections.unmodifiableList(new ArrayList<>(allRolls));
+        this.rolls = List.copyOf(allRolls);
+        this.kept = kept != null ? maskOf(kept, rolls.size()) : maskOf(rolls);
+        this.keptCount = this.kept.cardinality();
+        this.allRolls = new RollView();
         this.finalTotal = finalTotal;
         this.timestamp = Objects.requireNonNull(timestamp, "Timestamp cannot be null");
         this.appliedModifiers = appliedModifiers != null ? appliedModifiers : "none";
+        this.summary = summary;
     }
 
 
@@ -47,9 +76,108 @@ public class DiceRollResult {
                 generateRollId(),
                 expression,
                 allRolls,
+                null,
+                finalTotal,
+                Instant.now(),
+                appliedModifiers,
+                null
+        );
+    }
+
+    /**
+     * Cria o resultado com a máscara de rolagens mantidas: o bit i indica
+     * se allRolls[i] foi mantida, independente de {@link IndividualDiceRoll#wasKept()}.
+     */
+    public static DiceRollResult create(
+        String expression,
+        List<IndividualDiceRoll> allRolls,
+        BitSet kept,
+        int finalTotal,
+        String appliedModifiers
+    ) {
+        return new DiceRollResult(
+                generateRollId(),
+                expression,
+                allRolls,
+                Objects.requireNonNull(kept, "Kept mask cannot be null"),
+                finalTotal,
+                Instant.now(),
+                appliedModifiers,
+                null
+        );
+    }
+
+    /**
+     * Variante com resumo: allRolls são apenas as rolagens guardadas e
+     * summary (quando não null) cobre todas.
+     */
+    public static DiceRollResult create(
+        String expression,
+        List<IndividualDiceRoll> allRolls,
+        BitSet kept,
+        RollSummary summary,
+        int finalTotal,
+        String appliedModifiers
+    ) {
+        return new DiceRollResult(
+                generateRollId(),
+                expression,
+                allRolls,
+                Objects.requireNonNull(kept, "Kept mask cannot be null"),
                 finalTotal,
                 Instant.now(),
-                appliedModifiers
+                appliedModifiers,
+                summary
+        );
+    }
+
+    /**
+     * Recria um resultado preservando identificador e timestamp originais
+     * (usado por replay e reidratação de histórico)
+     */
+    public static DiceRollResult restore(
+        String rollId,
+        String expression,
+        List<IndividualDiceRoll> allRolls,
+        int finalTotal,
+        Instant timestamp,
+        String appliedModifiers
+    ) {
+        return new DiceRollResult(
+                rollId,
+                expression,
+                allRolls,
+                null,
+                finalTotal,
+                timestamp,
+                appliedModifiers,
+                null
+        );
+    }
+
+    /**
+     * Variante de {@link #restore} que preserva a máscara de mantidas e o
+     * resumo (resultados com {@link DetailLevel} diferente de FULL).
+     */
+    public static DiceRollResult restore(
+        String rollId,
+        String expression,
+        List<IndividualDiceRoll> allRolls,
+        BitSet kept,
+        RollSummary summary,
+        int finalTotal,
+        Instant timestamp,
+        String appliedModifiers
+    ) {
+        return new DiceRollResult(
+                rollId,
+                expression,
+                allRolls,
+                Objects.requireNonNull(kept, "Kept mask cannot be null"),
+                finalTotal,
+                timestamp,
+                appliedModifiers,
+                summary
         );
     }
 
@@ -64,29 +192,104 @@ public class DiceRollResult {
         return expression.trim();
     }
 
+    private static BitSet maskOf(BitSet kept, int size) {
+        return kept.get(0, size);
+    }
+
+    private static BitSet maskOf(List<IndividualDiceRoll> rolls) {
+        BitSet mask = new BitSet(rolls.size());
+        for (int i = 0; i < rolls.size(); i++) {
+            if (rolls.get(i).wasKept()) {
+                mask.set(i);
+            }
+        }
+        return mask;
+    }
+
     /**
      * Retorna apenas as rolagens que foram mantidas (kept)
      */
     public List<IndividualDiceRoll> keptRolls() {
-        return allRolls.stream()
-            .filter(IndividualDiceRoll::wasKept)
-            .toList();
+        return new MaskedView(true);
     }
 
     /**
      * Retorna apenas as rolagens que foram descartadas
      */
     public List<IndividualDiceRoll> discardedRolls() {
-        return allRolls.stream()
-            .filter(roll -> !roll.wasKept())
-            .toList();
+        return new MaskedView(false);
+    }
+
+    /** Primeira rolagem a partir de from com o status informado, ou size. */
+    private int nextIndex(boolean isKept, int from) {
+        if (!isKept) {
+            return Math.min(kept.nextClearBit(from), rolls.size());
+        }
+        int index = kept.nextSetBit(from);
+        return index < 0 ? rolls.size() : index;
+    }
+
+    /** Índices das rolagens com o status informado, montados uma vez. */
+    private int[] indices(boolean isKept) {
+        int[] indices = isKept ? keptIndices : discardedIndices;
+        if (indices == null) {
+            indices = new int[isKept ? keptCount : rolls.size() - keptCount];
+            int n = 0;
+            for (int i = nextIndex(isKept, 0); i < rolls.size(); i = nextIndex(isKept, i + 1)) {
+                indices[n++] = i;
+            }
+            if (isKept) {
+                keptIndices = indices;
+            } else {
+                discardedIndices = indices;
+            }
+        }
+        return indices;
     }
 
     /**
-     * Retorna os valores numéricos de todas as rolagens feitas
+     * Indica se a rolagem na posição index foi mantida
+     */
+    public boolean isKept(int index) {
+        Objects.checkIndex(index, rolls.size());
+        return kept.get(index);
+    }
+
+    /**
+     * Cópia da máscara de rolagens mantidas (bit i = allRolls[i])
+     */
+    public BitSet keptMask() {
+        return (BitSet) kept.clone();
+    }
+
+    /** Rolagens mantidas, incluindo as não guardadas quando há resumo. */
+    public int keptCount() {
+        return summary != null ? (int) summary.kept() : keptCount;
+    }
+
+    /** Resumo das rolagens; vazio com {@link DetailLevel#full()}. */
+    public Optional<RollSummary> summary() {
+        return Optional.ofNullable(summary);
+    }
+
+    /**
+     * Total de rolagens feitas; maior que allRolls().size() quando o
+     * nível de detalhe não guardou todas.
+     */
+    public long totalRollCount() {
+        return summary != null ? summary.rolls() : rolls.size();
+    }
+
+    /** Indica se alguma rolagem ficou só no resumo. */
+    public boolean isTruncated() {
+        return totalRollCount() > rolls.size();
+    }
+
+    /**
+     * Retorna os valores numéricos de todas as rolagens guardadas
      */
     public List<Integer> allValues() {
-        return allRolls.stream()
+        return rolls.stream()
             .map(IndividualDiceRoll::value)
             .toList();
     }
@@ -104,14 +307,20 @@ public class DiceRollResult {
      * Verifica se houve alguma explosão
      */
     public boolean hadExplosions() {
-        return allRolls.stream().anyMatch(IndividualDiceRoll::wasExploded);
+        if (summary != null) {
+            return summary.explosions() > 0;
+        }
+        return rolls.stream().anyMatch(IndividualDiceRoll::wasExploded);
     }
 
     /**
      * Conta quantas explosões ocorreram
      */
     public long explosionCount() {
-        return allRolls.stream()
+        if (summary != null) {
+            return summary.explosions();
+        }
+        return rolls.stream()
             .filter(IndividualDiceRoll::wasExploded)
             .count();
     }
@@ -122,51 +331,37 @@ public class DiceRollResult {
      * Exemplo: "5d20kh2 -> rolled [1, 2, 3, 4, 6], kept [4, 6], total: 10"
      */
     public String toHumanReadable() {
-        StringBuilder sb = new StringBuilder();
-        sb.append(expression).append(" -> ");
-        
-        sb.append("rolled ");
-        sb.append(allValues());
-        
-        if (!keptRolls().equals(allRolls)) {
-            sb.append(", kept ");
-            sb.append(keptValues());
-        }
-        
-        if (hadExplosions()) {
-            sb.append(" (").append(explosionCount()).append(" explosion(s))");
-        }
-        
-        sb.append(", total: ").append(finalTotal);
-        
-        return sb.toString();
+        return RollRenderer.standard()
+            .renderHumanReadable(this, new StringBuilder())
+            .toString();
     }
 
     /**
      * Retorna representação detalhada para logs e auditoria
      */
     public String toDetailedLog() {
-        return String.format(
-            "RollID[%s] Expression[%s] Timestamp[%s] Modifiers[%s]%n" +
-            "All Rolls: %s%n" +
-            "Kept Rolls: %s%n" +
-            "Discarded: %s%n" +
-            "Final Total: %d",
-            rollId,
-            expression,
-            timestamp,
-            appliedModifiers,
-            formatRolls(allRolls),
-            formatRolls(keptRolls()),
-            formatRolls(discardedRolls()),
-            finalTotal
-        );
+        return RollRenderer.standard()
+            .renderDetailedLog(this, new StringBuilder())
+            .toString();
     }
 
-    private String formatRolls(List<IndividualDiceRoll> rolls) {
-        return rolls.stream()
-            .map(IndividualDiceRoll::toString)
-            .collect(Collectors.joining(", ", "[", "]"));
+    /** Quantidade de rolagens guardadas (sem criar a view). */
+    int rollCount() {
+        return rolls.size();
+    }
+
+    /** Rolagens guardadas que foram mantidas. */
+    int storedKeptCount() {
+        return keptCount;
+    }
+
+    RollSummary summaryOrNull() {
+        return summary;
+    }
+
+    /** Rolagem como registrada; o status de kept vem de {@link #isKept(int)}. */
+    IndividualDiceRoll recordedRoll(int index) {
+        return rolls.get(index);
     }
 
     // Getters
@@ -194,4 +389,75 @@ public class DiceRollResult {
     public String toString() {
         return toHumanReadable();
     }
+
+    /**
+     * A rolagem como registrada, com o status de kept da máscara. Só gera
+     * uma nova instância quando os dois divergem.
+     */
+    private IndividualDiceRoll rollAt(int index) {
+        IndividualDiceRoll roll = rolls.get(index);
+        boolean isKept = kept.get(index);
+        return roll.wasKept() == isKept ? roll : roll.withKeptStatus(isKept);
+    }
+
+    /** Todas as rolagens, na ordem em que foram registradas. */
+    private final class RollView extends AbstractList<IndividualDiceRoll> implements RandomAccess {
+
+        @Override
+        public IndividualDiceRoll get(int index) {
+            return rollAt(index);
+        }
+
+        @Override
+        public int size() {
+            return rolls.size();
+        }
+    }
+
+    /**
+     * Rolagens mantidas ou descartadas, derivadas da máscara. Iterar (for,
+     * stream) percorre os bits sem alocar; o acesso por posição usa os
+     * índices de {@link #indices(boolean)}.
+     */
+    private final class MaskedView extends AbstractList<IndividualDiceRoll> {
+
+        private final boolean isKept;
+
+        private MaskedView(boolean isKept) {
+            this.isKept = isKept;
+        }
+
+        @Override
+        public IndividualDiceRoll get(int index) {
+            Objects.checkIndex(index, size());
+            return rollAt(indices(isKept)[index]);
+        }
+
+        @Override
+        public int size() {
+            return isKept ? keptCount : rolls.size() - keptCount;
+        }
+
+        @Override
+        public Iterator<IndividualDiceRoll> iterator() {
+            return new Iterator<>() {
+                private int next = nextIndex(isKept, 0);
+
+                @Override
+                public boolean hasNext() {
+                    return next < rolls.size();
+                }
+
+                @Override
+                public IndividualDiceRoll next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    int index = next;
+                    next = nextIndex(isKept, index + 1);
+                    return rollAt(index);
+                }
+            };
+        }
+    }
 }
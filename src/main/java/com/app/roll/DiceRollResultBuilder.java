@@ -1,18 +1,28 @@
 package com.app.roll;
 
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.List;
 
+/**
+ * Monta o {@link DiceRollResult}. Com {@link DetailLevel} SUMMARY ou
+ * CAPPED, apenas as primeiras rolagens são guardadas e todas entram no
+ * {@link RollSummary}; as marcações de kept só alcançam as guardadas.
+ */
 public final class DiceRollResultBuilder {
 
     private String expression;
     private final List<IndividualDiceRoll> rolls;
+    private final BitSet kept;
     private final List<String> modifiers;
     private Integer finalTotal;
+    private DetailLevel detailLevel = DetailLevel.full();
+    private RollSummary.Accumulator summary;
 
 
     private DiceRollResultBuilder() {
         this.rolls = new ArrayList<>();
+        this.kept = new BitSet();
         this.modifiers = new ArrayList<>();
     }
 
@@ -25,16 +35,62 @@ public final class DiceRollResultBuilder {
         return this;
     }
 
-    public DiceRollResultBuilder addRoll(IndividualDiceRoll roll) {
-        this.rolls.add(roll);
+    /**
+     * Define o nível de detalhe; precisa vir antes da primeira rolagem.
+     */
+    public DiceRollResultBuilder withDetailLevel(DetailLevel detailLevel) {
+        if (rollCount() > 0) {
+            throw new IllegalStateException("Detail level must be set before adding rolls");
+        }
+        this.detailLevel = detailLevel;
+        this.summary = detailLevel.hasSummary() ? new RollSummary.Accumulator() : null;
         return this;
     }
 
+    public DetailLevel detailLevel() {
+        return detailLevel;
+    }
+
+    public DiceRollResultBuilder addRoll(IndividualDiceRoll roll) {
+        return add(roll, roll.wasKept());
+    }
+
     public DiceRollResultBuilder addRolls(List<IndividualDiceRoll> rolls) {
-        this.rolls.addAll(rolls);
+        for (IndividualDiceRoll roll : rolls) {
+            addRoll(roll);
+        }
+        return this;
+    }
+
+    /**
+     * Adiciona as rolagens já com o status de kept, sem marcação posterior
+     * (o caminho que funciona em todos os níveis de detalhe).
+     */
+    public DiceRollResultBuilder addRolls(List<IndividualDiceRoll> rolls, boolean kept) {
+        for (IndividualDiceRoll roll : rolls) {
+            add(roll, kept);
+        }
+        return this;
+    }
+
+    private DiceRollResultBuilder add(IndividualDiceRoll roll, boolean wasKept) {
+        if (summary != null) {
+            summary.add(roll, wasKept);
+        }
+        if (rolls.size() < detailLevel.maxRolls()) {
+            if (wasKept) {
+                this.kept.set(this.rolls.size());
+            }
+            this.rolls.add(roll);
+        }
         return this;
     }
 
+    /** Quantidade de rolagens registradas até agora, guardadas ou não */
+    public int rollCount() {
+        return summary != null ? (int) summary.rolls() : rolls.size();
+    }
+
     public DiceRollResultBuilder addModifier(String modifier) {
         this.modifiers.add(modifier);
         return this;
@@ -49,13 +105,85 @@ public final class DiceRollResultBuilder {
      * Marca quais rolagens foram mantidas após aplicação de modificadores
      */
     public DiceRollResultBuilder markKeptRolls(List<Integer> keptIndices) {
-        for (int i = 0; i < rolls.size(); i++) {
-            boolean shouldKeep = keptIndices.contains(i);
-            rolls.set(i, rolls.get(i).withKeptStatus(shouldKeep));
+        BitSet mask = new BitSet(rolls.size());
+        for (int index : keptIndices) {
+            if (index >= 0 && index < rolls.size()) {
+                mask.set(index);
+            }
+        }
+        return markKept(mask);
+    }
+
+    /**
+     * Substitui a máscara de rolagens mantidas: o bit i marca a rolagem i.
+     * Bits além das rolagens registradas são ignorados.
+     */
+    public DiceRollResultBuilder markKept(BitSet keptIndices) {
+        requireStored(keptIndices.length());
+        int before = kept.cardinality();
+        kept.clear();
+        kept.or(keptIndices);
+        if (kept.length() > rolls.size()) {
+            kept.clear(rolls.size(), kept.length());
+        }
+        adjustSummary(before);
+        return this;
+    }
+
+    /**
+     * Marca as rolagens em [from, to) como mantidas ou descartadas
+     */
+    public DiceRollResultBuilder markKeptRange(int from, int to, boolean keep) {
+        requireStored(to);
+        if (from < 0 || to > rolls.size() || from > to) {
+            throw new IndexOutOfBoundsException(
+                "Range [" + from + ", " + to + ") out of bounds for " + rolls.size() + " rolls"
+            );
+        }
+        int before = kept.cardinality();
+        kept.set(from, to, keep);
+        adjustSummary(before);
+        return this;
+    }
+
+    /**
+     * Desmarca as rolagens registradas em [from, to), que precisam ter
+     * sido adicionadas como mantidas. Ao contrário de
+     * {@link #markKeptRange}, vale também para as que ficaram só no resumo
+     * (para quem decide o kept enquanto as rolagens chegam).
+     */
+    public DiceRollResultBuilder discardRange(int from, int to) {
+        if (from < 0 || to > rollCount() || from > to) {
+            throw new IndexOutOfBoundsException(
+                "Range [" + from + ", " + to + ") out of bounds for " + rollCount() + " rolls"
+            );
+        }
+        int stored = Math.min(to, rolls.size());
+        if (from < stored) {
+            kept.clear(from, stored);
+        }
+        if (summary != null) {
+            summary.adjustKept(from - to);
         }
         return this;
     }
 
+    /** Com resumo, só as rolagens guardadas podem ser remarcadas. */
+    private void requireStored(int to) {
+        if (summary != null && to > rolls.size() && rollCount() > rolls.size()) {
+            throw new IllegalStateException(
+                "Detail level " + detailLevel + " keeps " + rolls.size()
+                    + " rolls; add the others with their kept status"
+            );
+        }
+    }
+
+    private void adjustSummary(int keptBefore) {
+        if (summary != null) {
+            summary.adjustKept(kept.cardinality() - keptBefore);
+        }
+    }
+
     public DiceRollResult build() {
         validateState();
         
@@ -65,7 +193,9 @@ public final class DiceRollResultBuilder {
 
         return DiceRollResult.create(
             expression,
-            new ArrayList<>(rolls),
+            rolls,
+            kept,
+            summary != null ? summary.build() : null,
             finalTotal,
             modifiersString
         );
@@ -78,7 +208,7 @@ public final class DiceRollResultBuilder {
         if (finalTotal == null) {
             throw new IllegalStateException("Final total must be set before building");
         }
-        if (rolls.isEmpty()) {
+        if (rollCount() == 0) {
             throw new IllegalStateException("At least one roll must be added");
         }
     }
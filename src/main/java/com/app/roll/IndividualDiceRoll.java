@@ -1,15 +1,30 @@
 package com.app.roll;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.Objects;
 
 public final class IndividualDiceRoll {
 
+    /*
+        ========== FLYWEIGHT ==========
+        Instâncias compartilhadas para os dados padrão (d2..d20 e d100):
+        normal mantida/descartada e explosões até a iteração 4, com e sem
+        penetração. Variante = 0/1 (normal kept/discarded) ou
+        2 + ((iteração - 1)·2 + penetrante)·2 + descartada.
+    */
+
+    private static final int MAX_CACHED_ITERATION = 4;
+    private static final int VARIANTS = 2 + MAX_CACHED_ITERATION * 4;
+    private static final IndividualDiceRoll[][] CACHE = createCache();
+
     private final int sides;
     private final int value;
     private final boolean wasExploded;
     private final boolean wasKept;
     private final boolean wasPenetrating;
     private final Integer explosionIteration;
+    private final String faces;
 
     private IndividualDiceRoll(
             int sides,
@@ -18,13 +33,27 @@ public final class IndividualDiceRoll {
             boolean wasKept,
             boolean wasPenetrating,
             Integer explosionIteration
+    ) {
+        this(sides, value, wasExploded, wasKept, wasPenetrating, explosionIteration, null);
+    }
+
+    private IndividualDiceRoll(
+            int sides,
+            int value,
+            boolean wasExploded,
+            boolean wasKept,
+            boolean wasPenetrating,
+            Integer explosionIteration,
+            String faces
     ) {
         this.sides = validateSides(sides);
-        this.value = validateValue(value);
+        // Dados customizados têm faces arbitrárias (zero, negativas)
+        this.value = faces == null ? validateValue(value, sides) : value;
         this.wasExploded = wasExploded;
         this.wasKept = wasKept;
         this.wasPenetrating = wasPenetrating;
         this.explosionIteration = explosionIteration;
+        this.faces = faces;
     }
 
 
@@ -32,7 +61,16 @@ public final class IndividualDiceRoll {
      * Cria uma rolagem normal sem explosão
      */
     public static IndividualDiceRoll normal(int sides, int value) {
-        return new IndividualDiceRoll(sides, value, false, true, false, null);
+        IndividualDiceRoll cached = cached(sides, value, false, true, false, null);
+        return cached != null ? cached : new IndividualDiceRoll(sides, value, false, true, false, null);
+    }
+
+    /**
+     * Cria a rolagem de um dado de faces customizadas ({@link CustomDie}):
+     * faces é o {@link CustomDie#label()} e o valor pode ser zero ou negativo
+     */
+    public static IndividualDiceRoll custom(String faces, int sides, int value) {
+        return new IndividualDiceRoll(sides, value, false, true, false, null, Objects.requireNonNull(faces));
     }
 
     /**
@@ -44,13 +82,24 @@ public final class IndividualDiceRoll {
         int iteration,
         boolean penetrating
     ) {
-        return new IndividualDiceRoll(sides, value, true, true, penetrating, iteration);
+        IndividualDiceRoll cached = cached(sides, value, true, true, penetrating, iteration);
+        return cached != null ? cached : new IndividualDiceRoll(sides, value, true, true, penetrating, iteration);
     }
 
     /**
      * Marca se esta rolagem foi mantida após aplicação de modificadores (kh/kl)
      */
     public IndividualDiceRoll withKeptStatus(boolean kept) {
+        if (kept == this.wasKept) {
+            return this;
+        }
+        if (faces != null) {
+            return new IndividualDiceRoll(sides, value, wasExploded, kept, wasPenetrating, explosionIteration, faces);
+        }
+        IndividualDiceRoll cached = cached(sides, value, wasExploded, kept, wasPenetrating, explosionIteration);
+        if (cached != null) {
+            return cached;
+        }
         return new IndividualDiceRoll(
             this.sides,
             this.value,
@@ -62,6 +111,64 @@ public final class IndividualDiceRoll {
     }
 
 
+    private static IndividualDiceRoll[][] createCache() {
+        IndividualDiceRoll[][] cache = new IndividualDiceRoll[101][];
+        for (int sides : new int[] { 2, 3, 4, 6, 8, 10, 12, 20, 100 }) {
+            IndividualDiceRoll[] table = new IndividualDiceRoll[VARIANTS * sides];
+            for (int value = 1; value <= sides; value++) {
+                table[value - 1] = new IndividualDiceRoll(sides, value, false, true, false, null);
+                table[sides + value - 1] = new IndividualDiceRoll(sides, value, false, false, false, null);
+                for (int iteration = 1; iteration <= MAX_CACHED_ITERATION; iteration++) {
+                    for (int flags = 0; flags < 4; flags++) {
+                        boolean penetrating = (flags & 2) != 0;
+                        boolean kept = (flags & 1) == 0;
+                        int variant = variant(true, kept, penetrating, iteration);
+                        table[variant * sides + value - 1] =
+                                new IndividualDiceRoll(sides, value, true, kept, penetrating, iteration);
+                    }
+                }
+            }
+            cache[sides] = table;
+        }
+        return cache;
+    }
+
+    private static int variant(boolean exploded, boolean kept, boolean penetrating, int iteration) {
+        if (!exploded) {
+            return kept ? 0 : 1;
+        }
+        return 2 + (((iteration - 1) << 1) + (penetrating ? 1 : 0)) * 2 + (kept ? 0 : 1);
+    }
+
+    /**
+     * Instância compartilhada para a combinação, ou null se ela não é
+     * coberta pela tabela.
+     */
+    private static IndividualDiceRoll cached(
+            int sides,
+            int value,
+            boolean exploded,
+            boolean kept,
+            boolean penetrating,
+            Integer iteration
+    ) {
+        if (sides <= 0 || sides >= CACHE.length || value < 1 || value > sides) {
+            return null;
+        }
+        IndividualDiceRoll[] table = CACHE[sides];
+        if (table == null) {
+            return null;
+        }
+        if (exploded && (iteration == null || iteration < 1 || iteration > MAX_CACHED_ITERATION)) {
+            return null;
+        }
+        if (!exploded && (penetrating || iteration != null)) {
+            return null;
+        }
+        int it = exploded ? iteration : 0;
+        return table[variant(exploded, kept, penetrating, it) * sides + value - 1];
+    }
+
     private int validateSides(int sides) {
         if (sides <= 0) {
             throw new IllegalArgumentException(
@@ -71,10 +178,10 @@ public final class IndividualDiceRoll {
         return sides;
     }
 
-    private int validateValue(int value) {
-        if (value <= 0) {
+    private static int validateValue(int value, int sides) {
+        if (value < 1 || value > sides) {
             throw new IllegalArgumentException(
-                    "Dice value must be positive, got: " + value
+                    "Dice value must be between 1 and " + sides + ", got: " + value
             );
         }
         return value;
@@ -88,6 +195,9 @@ public final class IndividualDiceRoll {
     public boolean wasPenetrating() { return wasPenetrating; }
     public Integer explosionIteration() { return explosionIteration; }
 
+    /** Faces do dado customizado ("F", "{1,2,3}"), ou null para 1..sides. */
+    public String faces() { return faces; }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -98,34 +208,23 @@ public final class IndividualDiceRoll {
                 wasExploded == that.wasExploded &&
                 wasKept == that.wasKept &&
                 wasPenetrating == that.wasPenetrating &&
-                Objects.equals(explosionIteration, that.explosionIteration);
+                Objects.equals(explosionIteration, that.explosionIteration) &&
+                Objects.equals(faces, that.faces);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(sides, value, wasExploded, wasKept, wasPenetrating, explosionIteration);
+        return Objects.hash(sides, value, wasExploded, wasKept, wasPenetrating, explosionIteration, faces);
     }
 
     @Override
     public String toString() {
         StringBuilder sb = new StringBuilder();
-        sb.append("d").append(sides).append("=").append(value);
-        
-        if (wasExploded) {
-            sb.append(" (exploded");
-            if (explosionIteration != null) {
-                sb.append(" #").append(explosionIteration);
-            }
-            if (wasPenetrating) {
-                sb.append(", penetrating");
-            }
-            sb.append(")");
-        }
-        
-        if (!wasKept) {
-            sb.append(" [discarded]");
+        try {
+            RollRenderer.roll(sb, this, wasKept);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
         }
-        
         return sb.toString();
     }
 
@@ -0,0 +1,392 @@
+package com.app.roll;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+
+/**
+ * Renderiza um {@link DiceRollResult} direto no destino (Appendable,
+ * StringBuilder reutilizável ou ByteBuffer em UTF-8), sem listas nem
+ * strings intermediárias.
+ * <br>
+ * O formato é o mesmo de {@link DiceRollResult#toHumanReadable()} e
+ * {@link DiceRollResult#toDetailedLog()}. Com {@link #truncatingAfter(int)}
+ * listas de rolagens maiores que o limite terminam em "... +N more".
+ * Resultados com {@link RollSummary} listam as rolagens guardadas, contam
+ * as demais no "... +N more" e acrescentam o histograma de faces.
+ * <br>
+ * Instâncias são imutáveis e podem ser compartilhadas entre threads.
+ */
+public final class RollRenderer {
+
+    private static final RollRenderer STANDARD = new RollRenderer(Integer.MAX_VALUE);
+
+    private final int maxRolls;
+
+    private RollRenderer(int maxRolls) {
+        this.maxRolls = maxRolls;
+    }
+
+    /** Renderiza todas as rolagens. */
+    public static RollRenderer standard() {
+        return STANDARD;
+    }
+
+    /**
+     * Renderiza no máximo maxRolls itens por lista de rolagens.
+     */
+    public static RollRenderer truncatingAfter(int maxRolls) {
+        if (maxRolls < 0) {
+            throw new IllegalArgumentException("maxRolls must be >= 0, got: " + maxRolls);
+        }
+        return new RollRenderer(maxRolls);
+    }
+
+    public int maxRolls() {
+        return maxRolls;
+    }
+
+    /*
+        ========== DESTINOS ==========
+    */
+
+    public <A extends Appendable> A renderHumanReadable(DiceRollResult result, A out) throws IOException {
+        humanReadable(result, out);
+        return out;
+    }
+
+    public StringBuilder renderHumanReadable(DiceRollResult result, StringBuilder out) {
+        try {
+            humanReadable(result, out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out;
+    }
+
+    /**
+     * Escreve em UTF-8 a partir da posição atual do buffer.
+     *
+     * @throws BufferOverflowException se o texto não couber
+     */
+    public ByteBuffer renderHumanReadable(DiceRollResult result, ByteBuffer out) {
+        try {
+            humanReadable(result, new Utf8Sink(out));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out;
+    }
+
+    public <A extends Appendable> A renderDetailedLog(DiceRollResult result, A out) throws IOException {
+        detailedLog(result, out);
+        return out;
+    }
+
+    public StringBuilder renderDetailedLog(DiceRollResult result, StringBuilder out) {
+        try {
+            detailedLog(result, out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out;
+    }
+
+    /**
+     * Escreve em UTF-8 a partir da posição atual do buffer.
+     *
+     * @throws BufferOverflowException se o texto não couber
+     */
+    public ByteBuffer renderDetailedLog(DiceRollResult result, ByteBuffer out) {
+        try {
+            detailedLog(result, new Utf8Sink(out));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out;
+    }
+
+    /*
+        ========== FORMATOS ==========
+    */
+
+    /**
+     * "5d20kh2 -> rolled [1, 2, 3, 4, 6], kept [4, 6], total: 10"
+     * <br>
+     * Com resumo: "1000d6 -> rolled [3, 5, ... +998 more], faces {1: 160, ...}, total: 3512"
+     */
+    private void humanReadable(DiceRollResult result, Appendable out) throws IOException {
+
+        int size = result.rollCount();
+        RollSummary summary = result.summaryOrNull();
+
+        out.append(result.expression()).append(" -> ");
+
+        out.append("rolled ");
+        values(result, out, Selection.ALL);
+
+        boolean discarded = summary != null
+                ? summary.discarded() > 0
+                : result.keptCount() != size;
+        if (discarded) {
+            out.append(", kept ");
+            values(result, out, Selection.KEPT);
+        }
+
+        if (summary != null) {
+            out.append(", faces ");
+            faces(summary, out);
+        }
+
+        long explosions = 0;
+        if (summary != null) {
+            explosions = summary.explosions();
+        } else {
+            for (int i = 0; i < size; i++) {
+                if (result.recordedRoll(i).wasExploded()) explosions++;
+            }
+        }
+        if (explosions > 0) {
+            out.append(" (");
+            number(out, explosions);
+            out.append(" explosion(s))");
+        }
+
+        out.append(", total: ");
+        number(out, result.finalTotal());
+    }
+
+    private void detailedLog(DiceRollResult result, Appendable out) throws IOException {
+
+        String newline = System.lineSeparator();
+
+        out.append("RollID[").append(result.rollId())
+           .append("] Expression[").append(result.expression())
+           .append("] Timestamp[").append(result.timestamp().toString())
+           .append("] Modifiers[").append(result.appliedModifiers())
+           .append(']').append(newline);
+
+        out.append("All Rolls: ");
+        rolls(result, out, Selection.ALL);
+        out.append(newline);
+
+        out.append("Kept Rolls: ");
+        rolls(result, out, Selection.KEPT);
+        out.append(newline);
+
+        out.append("Discarded: ");
+        rolls(result, out, Selection.DISCARDED);
+        out.append(newline);
+
+        RollSummary summary = result.summaryOrNull();
+        if (summary != null) {
+            out.append("Summary: rolls=");
+            number(out, summary.rolls());
+            out.append(", kept=");
+            number(out, summary.kept());
+            out.append(", discarded=");
+            number(out, summary.discarded());
+            out.append(", explosions=");
+            number(out, summary.explosions());
+            out.append(", faces=");
+            faces(summary, out);
+            out.append(newline);
+        }
+
+        out.append("Final Total: ");
+        number(out, result.finalTotal());
+    }
+
+    private enum Selection { ALL, KEPT, DISCARDED }
+
+    private static boolean selected(DiceRollResult result, int index, Selection selection) {
+        return switch (selection) {
+            case ALL -> true;
+            case KEPT -> result.isKept(index);
+            case DISCARDED -> !result.isKept(index);
+        };
+    }
+
+    /** Rolagens da seleção que ficaram só no resumo. */
+    private static long hidden(DiceRollResult result, Selection selection) {
+        RollSummary summary = result.summaryOrNull();
+        if (summary == null) {
+            return 0;
+        }
+        int storedKept = result.storedKeptCount();
+        return switch (selection) {
+            case ALL -> summary.rolls() - result.rollCount();
+            case KEPT -> summary.kept() - storedKept;
+            case DISCARDED -> summary.discarded() - (result.rollCount() - storedKept);
+        };
+    }
+
+    private void values(DiceRollResult result, Appendable out, Selection selection) throws IOException {
+        out.append('[');
+        int written = 0;
+        long skipped = hidden(result, selection);
+        for (int i = 0; i < result.rollCount(); i++) {
+            if (!selected(result, i, selection)) continue;
+            if (written == maxRolls) {
+                skipped++;
+                continue;
+            }
+            if (written > 0) out.append(", ");
+            number(out, result.recordedRoll(i).value());
+            written++;
+        }
+        more(out, written, skipped);
+        out.append(']');
+    }
+
+    private void rolls(DiceRollResult result, Appendable out, Selection selection) throws IOException {
+        out.append('[');
+        int written = 0;
+        long skipped = hidden(result, selection);
+        for (int i = 0; i < result.rollCount(); i++) {
+            if (!selected(result, i, selection)) continue;
+            if (written == maxRolls) {
+                skipped++;
+                continue;
+            }
+            if (written > 0) out.append(", ");
+            roll(out, result.recordedRoll(i), result.isKept(i));
+            written++;
+        }
+        more(out, written, skipped);
+        out.append(']');
+    }
+
+    /** "{1: 160, 2: 171}", face: contagem em ordem crescente de face. */
+    private void faces(RollSummary summary, Appendable out) throws IOException {
+        out.append('{');
+        int written = Math.min(summary.faceCount(), maxRolls);
+        for (int i = 0; i < written; i++) {
+            if (i > 0) out.append(", ");
+            number(out, summary.faceAt(i));
+            out.append(": ");
+            number(out, summary.countAt(i));
+        }
+        more(out, written, summary.faceCount() - written);
+        out.append('}');
+    }
+
+    private static void more(Appendable out, int written, long skipped) throws IOException {
+        if (skipped == 0) return;
+        if (written > 0) out.append(", ");
+        out.append("... +");
+        number(out, skipped);
+        out.append(" more");
+    }
+
+    /** Mesmo formato de {@link IndividualDiceRoll#toString()}. */
+    static void roll(Appendable out, IndividualDiceRoll roll, boolean kept) throws IOException {
+        out.append('d');
+        if (roll.faces() != null) {
+            out.append(roll.faces());
+        } else {
+            number(out, roll.sides());
+        }
+        out.append('=');
+        number(out, roll.value());
+
+        if (roll.wasExploded()) {
+            out.append(" (exploded");
+            if (roll.explosionIteration() != null) {
+                out.append(" #");
+                number(out, roll.explosionIteration());
+            }
+            if (roll.wasPenetrating()) {
+                out.append(", penetrating");
+            }
+            out.append(')');
+        }
+
+        if (!kept) {
+            out.append(" [discarded]");
+        }
+    }
+
+    /** Escreve o número sem criar String. */
+    private static void number(Appendable out, long value) throws IOException {
+        if (out instanceof StringBuilder sb) {
+            sb.append(value);
+            return;
+        }
+        if (value == Long.MIN_VALUE) {
+            out.append("-9223372036854775808");
+            return;
+        }
+        if (value < 0) {
+            out.append('-');
+            value = -value;
+        }
+        long divisor = 1;
+        while (value / divisor >= 10) {
+            divisor *= 10;
+        }
+        for (; divisor > 0; divisor /= 10) {
+            out.append((char) ('0' + (value / divisor) % 10));
+        }
+    }
+
+    /**
+     * Appendable que codifica direto em UTF-8 no ByteBuffer.
+     */
+    private static final class Utf8Sink implements Appendable {
+
+        private final ByteBuffer buffer;
+        private char highSurrogate;
+
+        private Utf8Sink(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public Appendable append(CharSequence csq) {
+            return append(csq, 0, csq.length());
+        }
+
+        @Override
+        public Appendable append(CharSequence csq, int start, int end) {
+            for (int i = start; i < end; i++) {
+                append(csq.charAt(i));
+            }
+            return this;
+        }
+
+        @Override
+        public Appendable append(char c) {
+            if (highSurrogate != 0) {
+                char high = highSurrogate;
+                highSurrogate = 0;
+                if (Character.isLowSurrogate(c)) {
+                    int cp = Character.toCodePoint(high, c);
+                    buffer.put((byte) (0xF0 | (cp >> 18)));
+                    buffer.put((byte) (0x80 | ((cp >> 12) & 0x3F)));
+                    buffer.put((byte) (0x80 | ((cp >> 6) & 0x3F)));
+                    buffer.put((byte) (0x80 | (cp & 0x3F)));
+                    return this;
+                }
+                buffer.put((byte) '?');
+            }
+            if (c < 0x80) {
+                buffer.put((byte) c);
+            } else if (c < 0x800) {
+                buffer.put((byte) (0xC0 | (c >> 6)));
+                buffer.put((byte) (0x80 | (c & 0x3F)));
+            } else if (Character.isHighSurrogate(c)) {
+                highSurrogate = c;
+            } else if (Character.isLowSurrogate(c)) {
+                buffer.put((byte) '?');
+            } else {
+                buffer.put((byte) (0xE0 | (c >> 12)));
+                buffer.put((byte) (0x80 | ((c >> 6) & 0x3F)));
+                buffer.put((byte) (0x80 | (c & 0x3F)));
+            }
+            return this;
+        }
+    }
+
+}
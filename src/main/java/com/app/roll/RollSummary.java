@@ -0,0 +1,151 @@
+package com.app.roll;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Resumo de todas as rolagens de um resultado: quantas foram feitas,
+ * mantidas e explodidas, e um histograma de contagem por face (valor).
+ * <br>
+ * O tamanho depende apenas da quantidade de faces distintas, não da
+ * quantidade de dados. Imutável.
+ */
+public final class RollSummary {
+
+    private final long rolls;
+    private final long kept;
+    private final long explosions;
+    private final int[] faces;
+    private final long[] counts;
+
+    private RollSummary(long rolls, long kept, long explosions, int[] faces, long[] counts) {
+        this.rolls = rolls;
+        this.kept = kept;
+        this.explosions = explosions;
+        this.faces = faces;
+        this.counts = counts;
+    }
+
+    /**
+     * Recria um resumo a partir dos seus valores (usado na reidratação do
+     * histórico); histogram é face -> contagem, como em {@link #histogram()}.
+     */
+    public static RollSummary of(long rolls, long kept, long explosions, Map<Integer, Long> histogram) {
+        if (rolls < 0 || kept < 0 || kept > rolls || explosions < 0 || explosions > rolls) {
+            throw new IllegalArgumentException(
+                    "Invalid summary counts: rolls=" + rolls + ", kept=" + kept + ", explosions=" + explosions);
+        }
+        TreeMap<Integer, Long> sorted = new TreeMap<>(histogram);
+        int[] faces = new int[sorted.size()];
+        long[] counts = new long[sorted.size()];
+        int n = 0;
+        for (Map.Entry<Integer, Long> e : sorted.entrySet()) {
+            if (e.getValue() <= 0) {
+                throw new IllegalArgumentException("Face count must be positive, got: " + e);
+            }
+            faces[n] = e.getKey();
+            counts[n++] = e.getValue();
+        }
+        return new RollSummary(rolls, kept, explosions, faces, counts);
+    }
+
+    /** Total de rolagens individuais, incluindo as explosões. */
+    public long rolls() { return rolls; }
+    public long kept() { return kept; }
+    public long discarded() { return rolls - kept; }
+    public long explosions() { return explosions; }
+
+    /** Quantas rolagens deram o valor informado. */
+    public long count(int face) {
+        int index = Arrays.binarySearch(faces, face);
+        return index >= 0 ? counts[index] : 0L;
+    }
+
+    /** Histograma face -> contagem, em ordem crescente de face. */
+    public Map<Integer, Long> histogram() {
+        Map<Integer, Long> histogram = new LinkedHashMap<>();
+        for (int i = 0; i < faces.length; i++) {
+            histogram.put(faces[i], counts[i]);
+        }
+        return Collections.unmodifiableMap(histogram);
+    }
+
+    /** Quantidade de faces distintas (sem criar o mapa). */
+    int faceCount() { return faces.length; }
+    int faceAt(int index) { return faces[index]; }
+    long countAt(int index) { return counts[index]; }
+
+    @Override
+    public String toString() {
+        return "RollSummary{rolls=" + rolls + ", kept=" + kept
+                + ", explosions=" + explosions + ", faces=" + histogram() + '}';
+    }
+
+    /**
+     * Acumulador usado pelo {@link DiceRollResultBuilder}: faces pequenas
+     * vão num array denso, as demais num mapa ordenado.
+     */
+    static final class Accumulator {
+
+        private static final int DENSE_MIN = -16;
+        private static final int DENSE_SIZE = 256;
+
+        private final long[] dense = new long[DENSE_SIZE];
+        private final TreeMap<Integer, Long> sparse = new TreeMap<>();
+        private long rolls;
+        private long kept;
+        private long explosions;
+
+        void add(IndividualDiceRoll roll, boolean wasKept) {
+            int slot = roll.value() - DENSE_MIN;
+            if (slot >= 0 && slot < DENSE_SIZE) {
+                dense[slot]++;
+            } else {
+                sparse.merge(roll.value(), 1L, Long::sum);
+            }
+            rolls++;
+            if (wasKept) kept++;
+            if (roll.wasExploded()) explosions++;
+        }
+
+        /** Corrige a contagem quando uma rolagem guardada muda de status. */
+        void adjustKept(long delta) {
+            kept += delta;
+        }
+
+        long rolls() {
+            return rolls;
+        }
+
+        RollSummary build() {
+            int size = sparse.size();
+            for (long count : dense) {
+                if (count > 0) size++;
+            }
+
+            int[] faces = new int[size];
+            long[] counts = new long[size];
+            int n = 0;
+            // Faces esparsas ficam abaixo ou acima da faixa densa
+            for (Map.Entry<Integer, Long> e : sparse.headMap(DENSE_MIN).entrySet()) {
+                faces[n] = e.getKey();
+                counts[n++] = e.getValue();
+            }
+            for (int slot = 0; slot < DENSE_SIZE; slot++) {
+                if (dense[slot] > 0) {
+                    faces[n] = slot + DENSE_MIN;
+                    counts[n++] = dense[slot];
+                }
+            }
+            for (Map.Entry<Integer, Long> e : sparse.tailMap(DENSE_MIN).entrySet()) {
+                faces[n] = e.getKey();
+                counts[n++] = e.getValue();
+            }
+            return new RollSummary(rolls, kept, explosions, faces, counts);
+        }
+    }
+
+}
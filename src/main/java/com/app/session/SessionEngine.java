@@ -0,0 +1,191 @@
+package com.app.session;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+
+import com.app.history.RollHistoryBuffer;
+import com.app.parser.EvaluationLimits;
+import com.app.parser.nodes.Node;
+import com.app.roll.DiceRollResult;
+
+/**
+ * Motor de sessões para muitas mesas concorrentes.
+ * <br>
+ * Cada mesa é mapeada por hash do id para um shard fixo (uma thread por
+ * núcleo por padrão). O shard é dono dos avaliadores, streams de RNG,
+ * fatia do cache de AST e históricos das suas mesas, então nada disso
+ * usa locks. Pedidos entram por filas sem locks e os resultados voltam
+ * como {@link CompletableFuture}.
+ * <br>
+ * Garantias: <br>
+ * - rolagens de uma mesa são avaliadas na ordem de submissão (para
+ *   submissões da mesma thread); <br>
+ * - cada mesa tem seu próprio stream, derivado do seed do motor e do id,
+ *   então a sequência de uma mesa é reproduzível independente do
+ *   número de shards e do tráfego das outras mesas.
+ * <br>
+ * Os futures são completados na thread do shard; callbacks pesados
+ * devem usar as variantes *Async.
+ */
+public final class SessionEngine implements AutoCloseable {
+
+    public static final int DEFAULT_AST_CACHE_SIZE = 1024;
+
+    private final Shard[] shards;
+
+    /**
+     * @param shardCount      quantidade de threads
+     * @param seed            seed base das mesas
+     * @param limits          limites de avaliação por rolagem
+     * @param historyCapacity rolagens guardadas por mesa
+     * @param astCacheSize    expressões em cache por shard
+     */
+    public SessionEngine(
+            int shardCount,
+            long seed,
+            EvaluationLimits limits,
+            int historyCapacity,
+            int astCacheSize
+    ) {
+        if (shardCount <= 0) {
+            throw new IllegalArgumentException("shardCount must be positive, got: " + shardCount);
+        }
+        if (historyCapacity <= 0 || astCacheSize <= 0) {
+            throw new IllegalArgumentException("historyCapacity and astCacheSize must be positive");
+        }
+        Objects.requireNonNull(limits, "Limits cannot be null");
+        this.shards = new Shard[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            shards[i] = new Shard(i, seed, limits, historyCapacity, astCacheSize);
+        }
+        for (Shard shard : shards) {
+            shard.start();
+        }
+    }
+
+    /** Um shard por processador, limites padrão e histórico de 50 rolagens. */
+    public static SessionEngine create(long seed) {
+        return new SessionEngine(
+                Runtime.getRuntime().availableProcessors(),
+                seed,
+                EvaluationLimits.defaults(),
+                RollHistoryBuffer.DEFAULT_CAPACITY,
+                DEFAULT_AST_CACHE_SIZE
+        );
+    }
+
+    public int shardCount() {
+        return shards.length;
+    }
+
+    /** Shard responsável pela mesa. */
+    public int shardOf(String tableId) {
+        return Math.floorMod(spread(tableId.hashCode()), shards.length);
+    }
+
+    /**
+     * Rola a expressão na mesa. Erros de sintaxe, limites e avaliação
+     * completam o future excepcionalmente.
+     */
+    public CompletableFuture<DiceRollResult> roll(String tableId, String expression) {
+        Objects.requireNonNull(expression, "Expression cannot be null");
+        return submit(tableId, (shard, table) -> {
+            Node ast = shard.parse(expression);
+            DiceRollResult result = table.evaluator().evaluateWithDetails(expression, ast);
+            try {
+                table.history().append(result);
+            } catch (RuntimeException e) {
+                // A rolagem já consumiu o RNG: o histórico é melhor esforço
+                // e não pode impedir a entrega do resultado
+            }
+            return result;
+        });
+    }
+
+    /**
+     * Últimas limit rolagens da mesa, da mais recente para a mais antiga.
+     * Executa depois das rolagens já submetidas para a mesa.
+     */
+    public CompletableFuture<List<DiceRollResult>> history(String tableId, int limit) {
+        return submit(tableId, (shard, table) -> table.history().recent(limit));
+    }
+
+    /** Posição do stream de RNG da mesa (rolagens consumidas). */
+    public CompletableFuture<Long> position(String tableId) {
+        return submit(tableId, (shard, table) -> table.roll().position());
+    }
+
+    /**
+     * Descarta o estado da mesa (stream de RNG e histórico), liberando o
+     * buffer do histórico para o GC. Completa com false se a mesa não
+     * existia. Uma rolagem posterior na mesma mesa recria o estado do
+     * início, com a mesma sequência de uma mesa nova.
+     */
+    public CompletableFuture<Boolean> closeTable(String tableId) {
+        return submitToShard(tableId, shard -> shard.closeTable(tableId));
+    }
+
+    private <T> CompletableFuture<T> submit(String tableId, TableTask<T> task) {
+        return submitToShard(tableId, shard -> task.run(shard, shard.table(tableId)));
+    }
+
+    private <T> CompletableFuture<T> submitToShard(String tableId, ShardTask<T> task) {
+        Objects.requireNonNull(tableId, "Table id cannot be null");
+        Shard shard = shards[shardOf(tableId)];
+        CompletableFuture<T> future = new CompletableFuture<>();
+        try {
+            shard.execute(() -> {
+                try {
+                    future.complete(task.run(shard));
+                } catch (Throwable e) {
+                    // Inclui Errors (ex.: OutOfMemoryError numa rolagem
+                    // enorme): a thread do shard precisa sobreviver
+                    future.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    /**
+     * Para de aceitar pedidos, processa os já enfileirados e aguarda as
+     * threads dos shards.
+     */
+    @Override
+    public void close() {
+        for (Shard shard : shards) {
+            shard.shutdown();
+        }
+        boolean interrupted = false;
+        for (Shard shard : shards) {
+            try {
+                shard.awaitTermination();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /** Espalha os bits do hash (como HashMap) antes do módulo. */
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    @FunctionalInterface
+    private interface TableTask<T> {
+        T run(Shard shard, TableState table);
+    }
+
+    @FunctionalInterface
+    private interface ShardTask<T> {
+        T run(Shard shard);
+    }
+
+}
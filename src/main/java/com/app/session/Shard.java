@@ -0,0 +1,152 @@
+package com.app.session;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+
+import com.app.parser.DiceParser;
+import com.app.parser.EvaluationLimits;
+import com.app.parser.Lexer;
+import com.app.parser.nodes.Node;
+
+/**
+ * Thread única que executa, em ordem de chegada, as tarefas das mesas
+ * mapeadas para ela.
+ * <br>
+ * Produtores publicam na fila sem locks ({@link ConcurrentLinkedQueue}) e
+ * só acordam a thread quando ela sinalizou que vai dormir. Mesas, cache
+ * de AST e históricos pertencem à thread do shard e não são
+ * sincronizados.
+ */
+final class Shard implements Runnable {
+
+    private final Queue<Runnable> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean sleeping = new AtomicBoolean();
+    private final Thread thread;
+
+    private final long seed;
+    private final EvaluationLimits limits;
+    private final int historyCapacity;
+    private final Map<String, TableState> tables = new HashMap<>();
+    private final Map<String, Node> astCache;
+
+    private volatile boolean running = true;
+
+    Shard(int index, long seed, EvaluationLimits limits, int historyCapacity, int astCacheSize) {
+        this.seed = seed;
+        this.limits = limits;
+        this.historyCapacity = historyCapacity;
+        this.astCache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Node> eldest) {
+                return size() > astCacheSize;
+            }
+        };
+        this.thread = new Thread(this, "dice-shard-" + index);
+        this.thread.setDaemon(true);
+    }
+
+    void start() {
+        thread.start();
+    }
+
+    /** Enfileira a tarefa; chamada por qualquer thread. */
+    void execute(Runnable task) {
+        if (!running) {
+            throw new RejectedExecutionException("Session engine is closed");
+        }
+        queue.offer(task);
+        if (!running && queue.remove(task)) {
+            // Fechado durante a publicação e a tarefa não foi consumida
+            throw new RejectedExecutionException("Session engine is closed");
+        }
+        if (sleeping.get() && sleeping.compareAndSet(true, false)) {
+            LockSupport.unpark(thread);
+        }
+    }
+
+    void shutdown() {
+        running = false;
+        LockSupport.unpark(thread);
+    }
+
+    void awaitTermination() throws InterruptedException {
+        thread.join();
+    }
+
+    @Override
+    public void run() {
+        while (true) {
+            Runnable task = queue.poll();
+            if (task != null) {
+                runSafely(task);
+                continue;
+            }
+            if (!running) {
+                return;
+            }
+            // Sinaliza antes de dormir e confere de novo para não perder
+            // tarefas publicadas entre o poll e o park
+            sleeping.set(true);
+            if (queue.isEmpty() && running) {
+                LockSupport.park(this);
+            }
+            sleeping.set(false);
+        }
+    }
+
+    /** Nenhuma falha de tarefa pode encerrar a thread do shard. */
+    private static void runSafely(Runnable task) {
+        try {
+            task.run();
+        } catch (Throwable ignored) {
+            // As tarefas do motor já repassam falhas aos seus futures
+        }
+    }
+
+    /*
+        ========== ESTADO (apenas na thread do shard) ==========
+    */
+
+    TableState table(String tableId) {
+        return tables.computeIfAbsent(tableId,
+                id -> new TableState(tableSeed(seed, id), limits, historyCapacity));
+    }
+
+    /** Remove a mesa; false se ela não existia. */
+    boolean closeTable(String tableId) {
+        return tables.remove(tableId) != null;
+    }
+
+    /** AST da expressão, do cache LRU do shard. */
+    Node parse(String expression) {
+        Node ast = astCache.get(expression);
+        if (ast == null) {
+            ast = new DiceParser(new Lexer(expression, limits).tokenize(), limits).parse();
+            astCache.put(expression, ast);
+        }
+        return ast;
+    }
+
+    /**
+     * Seed da mesa: FNV-1a 64 do id misturado ao seed do motor, então a
+     * sequência de uma mesa não depende do shard nem das outras mesas.
+     */
+    static long tableSeed(long seed, String tableId) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < tableId.length(); i++) {
+            hash ^= tableId.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        long z = seed ^ hash;
+        z = (z ^ (z >>> 33)) * 0xff51afd7ed558ccdL;
+        z = (z ^ (z >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return z ^ (z >>> 33);
+    }
+
+}
@@ -0,0 +1,27 @@
+package com.app.session;
+
+import com.app.history.RollHistoryBuffer;
+import com.app.parser.DiceEvaluator;
+import com.app.parser.EvaluationLimits;
+import com.app.roll.DiceRoll;
+
+/**
+ * Estado de uma mesa, acessado apenas pela thread do seu shard.
+ */
+final class TableState {
+
+    private final DiceRoll roll;
+    private final DiceEvaluator evaluator;
+    private final RollHistoryBuffer history;
+
+    TableState(long seed, EvaluationLimits limits, int historyCapacity) {
+        this.roll = DiceRoll.seeded(DiceRoll.DEFAULT_ALGORITHM, seed);
+        this.evaluator = new DiceEvaluator(roll, limits);
+        this.history = new RollHistoryBuffer(historyCapacity, RollHistoryBuffer.DEFAULT_SLOT_SIZE);
+    }
+
+    DiceRoll roll() { return roll; }
+    DiceEvaluator evaluator() { return evaluator; }
+    RollHistoryBuffer history() { return history; }
+
+}
@@ -0,0 +1,93 @@
+package com.app.stats;
+
+/**
+ * Histograma exato para faixas pequenas (ex.: 3..18 de 3d6).
+ * <br>
+ * Um contador por valor em [min, max]; valores fora da faixa são somados
+ * nos contadores de underflow/overflow.
+ */
+public final class ExactHistogram implements RollHistogram {
+
+    private final int min;
+    private final int max;
+    private final long[] counts;
+    private long underflow;
+    private long overflow;
+    private long count;
+
+    public ExactHistogram(int min, int max) {
+        if (max < min) {
+            throw new IllegalArgumentException("max must be >= min");
+        }
+        if ((long) max - min >= Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Range too wide for an exact histogram, use LogHistogram");
+        }
+        this.min = min;
+        this.max = max;
+        this.counts = new long[max - min + 1];
+    }
+
+    @Override
+    public void accept(int value) {
+        count++;
+        if (value < min) {
+            underflow++;
+        } else if (value > max) {
+            overflow++;
+        } else {
+            counts[value - min]++;
+        }
+    }
+
+    /** Quantidade de registros exatamente iguais a value. */
+    public long countOf(int value) {
+        if (value < min || value > max) {
+            throw new IllegalArgumentException("Value outside histogram range: " + value);
+        }
+        return counts[value - min];
+    }
+
+    @Override
+    public long count() { return count; }
+
+    public long underflow() { return underflow; }
+    public long overflow() { return overflow; }
+    public int min() { return min; }
+    public int max() { return max; }
+
+    /**
+     * Percentil exato dentro da faixa. Se o rank cair em underflow ou
+     * overflow, retorna min - 1 ou max + 1 respectivamente.
+     */
+    @Override
+    public int percentile(double percentile) {
+        long rank = Percentiles.rank(percentile, count);
+
+        long seen = underflow;
+        if (seen >= rank) {
+            return min - 1;
+        }
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return min + i;
+            }
+        }
+        return max + 1;
+    }
+
+    @Override
+    public ExactHistogram merge(RollHistogram other) {
+        if (!(other instanceof ExactHistogram exact) || exact.min != min || exact.max != max) {
+            throw new IllegalArgumentException("Can only merge ExactHistogram with the same range");
+        }
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] += exact.counts[i];
+        }
+        underflow += exact.underflow;
+        overflow += exact.overflow;
+        count += exact.count;
+        return this;
+    }
+
+}
@@ -0,0 +1,130 @@
+package com.app.stats;
+
+/**
+ * Histograma com buckets logarítmicos para faixas amplas.
+ * <br>
+ * Valores com magnitude menor que 2^precisionBits são exatos; acima disso
+ * cada potência de dois é dividida em 2^(precisionBits - 1) sub-buckets,
+ * então o erro relativo de um percentil é no máximo 2^-(precisionBits - 1).
+ * Valores negativos usam um conjunto espelhado de buckets.
+ * Memória fixa independente da quantidade de registros.
+ */
+public final class LogHistogram implements RollHistogram {
+
+    /** Precisão padrão: erro relativo menor que 1/64. */
+    public static final int DEFAULT_PRECISION_BITS = 7;
+
+    private final int precisionBits;
+    private final int halfBucket;
+    private final long[] positive;
+    private final long[] negative;
+    private long count;
+    private int min = Integer.MAX_VALUE;
+    private int max = Integer.MIN_VALUE;
+
+    public LogHistogram() {
+        this(DEFAULT_PRECISION_BITS);
+    }
+
+    public LogHistogram(int precisionBits) {
+        if (precisionBits < 1 || precisionBits > 16) {
+            throw new IllegalArgumentException("precisionBits must be between 1 and 16");
+        }
+        this.precisionBits = precisionBits;
+        this.halfBucket = 1 << (precisionBits - 1);
+
+        int buckets = indexOf(1L << 31) + 1;
+        this.positive = new long[buckets];
+        this.negative = new long[buckets];
+    }
+
+    @Override
+    public void accept(int value) {
+        count++;
+        if (value < min) min = value;
+        if (value > max) max = value;
+
+        if (value >= 0) {
+            positive[indexOf(value)]++;
+        } else {
+            negative[indexOf(-(long) value)]++;
+        }
+    }
+
+    @Override
+    public long count() { return count; }
+
+    /**
+     * Percentil aproximado: retorna o maior valor equivalente do bucket
+     * onde o rank cai, limitado ao mínimo/máximo observados.
+     */
+    @Override
+    public int percentile(double percentile) {
+        long rank = Percentiles.rank(percentile, count);
+
+        long seen = 0;
+        // Negativos: do mais negativo (maior magnitude) para zero
+        for (int i = negative.length - 1; i >= 0; i--) {
+            seen += negative[i];
+            if (seen >= rank) {
+                return clamp(-lowerBound(i));
+            }
+        }
+        for (int i = 0; i < positive.length; i++) {
+            seen += positive[i];
+            if (seen >= rank) {
+                return clamp(upperBound(i));
+            }
+        }
+        return max;
+    }
+
+    @Override
+    public LogHistogram merge(RollHistogram other) {
+        if (!(other instanceof LogHistogram log) || log.precisionBits != precisionBits) {
+            throw new IllegalArgumentException("Can only merge LogHistogram with the same precision");
+        }
+        for (int i = 0; i < positive.length; i++) {
+            positive[i] += log.positive[i];
+            negative[i] += log.negative[i];
+        }
+        count += log.count;
+        min = Math.min(min, log.min);
+        max = Math.max(max, log.max);
+        return this;
+    }
+
+    public int precisionBits() { return precisionBits; }
+
+    private int indexOf(long magnitude) {
+        if (magnitude < 2L * halfBucket) {
+            return (int) magnitude;
+        }
+        int msb = 63 - Long.numberOfLeadingZeros(magnitude);
+        int shift = msb - (precisionBits - 1);
+        return (int) ((long) shift * halfBucket + (magnitude >>> shift));
+    }
+
+    private long lowerBound(int index) {
+        if (index < 2 * halfBucket) {
+            return index;
+        }
+        int shift = index / halfBucket - 1;
+        long mantissa = index - (long) shift * halfBucket;
+        return mantissa << shift;
+    }
+
+    private long upperBound(int index) {
+        if (index < 2 * halfBucket) {
+            return index;
+        }
+        int shift = index / halfBucket - 1;
+        long mantissa = index - (long) shift * halfBucket;
+        return ((mantissa + 1) << shift) - 1;
+    }
+
+    private int clamp(long value) {
+        return (int) Math.max(min, Math.min(max, value));
+    }
+
+}
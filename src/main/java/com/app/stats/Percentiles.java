@@ -0,0 +1,22 @@
+package com.app.stats;
+
+/**
+ * Utilitários compartilhados de cálculo de rank.
+ */
+final class Percentiles {
+
+    private Percentiles() {
+    }
+
+    /** Rank (1-based) do percentil sobre count registros. */
+    static long rank(double percentile, long count) {
+        if (!(percentile >= 0.0 && percentile <= 100.0)) {
+            throw new IllegalArgumentException("Percentile must be in [0, 100], got: " + percentile);
+        }
+        if (count == 0) {
+            throw new IllegalStateException("No values recorded");
+        }
+        return Math.max(1L, (long) Math.ceil(percentile / 100.0 * count));
+    }
+
+}
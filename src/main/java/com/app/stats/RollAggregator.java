@@ -0,0 +1,97 @@
+package com.app.stats;
+
+import java.util.function.IntConsumer;
+
+import com.app.roll.DiceRollResult;
+
+/**
+ * Agregador de streaming para totais de rolagem: estatísticas resumidas
+ * (Welford) mais um histograma para consulta de percentis.
+ * <br>
+ * Pode ser alimentado diretamente pelo avaliador, sem coletar resultados:
+ * <pre>
+ * evaluator.evaluateStream(ast, 1_000_000).forEach(aggregator);
+ * </pre>
+ * Não é thread-safe; cada thread deve ter sua instância, combinadas ao final
+ * com {@link #merge(RollAggregator)} sem necessidade de locks.
+ */
+public final class RollAggregator implements IntConsumer {
+
+    private final RollStatistics statistics;
+    private final RollHistogram histogram;
+
+    private RollAggregator(RollStatistics statistics, RollHistogram histogram) {
+        this.statistics = statistics;
+        this.histogram = histogram;
+    }
+
+    /** Agregador com histograma exato para a faixa [min, max]. */
+    public static RollAggregator exact(int min, int max) {
+        return new RollAggregator(new RollStatistics(), new ExactHistogram(min, max));
+    }
+
+    /** Agregador com histograma logarítmico (faixas amplas). */
+    public static RollAggregator logarithmic() {
+        return logarithmic(LogHistogram.DEFAULT_PRECISION_BITS);
+    }
+
+    public static RollAggregator logarithmic(int precisionBits) {
+        return new RollAggregator(new RollStatistics(), new LogHistogram(precisionBits));
+    }
+
+    @Override
+    public void accept(int total) {
+        statistics.accept(total);
+        histogram.accept(total);
+    }
+
+    /** Registra o total de um resultado detalhado. */
+    public void accept(DiceRollResult result) {
+        accept(result.finalTotal());
+    }
+
+    /** Registra values[from..to), ex.: o buffer preenchido por evaluateMany. */
+    public void acceptAll(int[] values, int from, int to) {
+        for (int i = from; i < to; i++) {
+            accept(values[i]);
+        }
+    }
+
+    /** Incorpora o agregador de outra thread (mesma configuração de histograma). */
+    public RollAggregator merge(RollAggregator other) {
+        statistics.merge(other.statistics);
+        histogram.merge(other.histogram);
+        return this;
+    }
+
+    public long count() { return statistics.count(); }
+    public int min() { return statistics.min(); }
+    public int max() { return statistics.max(); }
+    public double mean() { return statistics.mean(); }
+    public double variance() { return statistics.variance(); }
+    public double standardDeviation() { return statistics.standardDeviation(); }
+
+    public int percentile(double percentile) {
+        return histogram.percentile(percentile);
+    }
+
+    public RollStatistics statistics() { return statistics; }
+    public RollHistogram histogram() { return histogram; }
+
+    @Override
+    public String toString() {
+        if (count() == 0) {
+            return "RollAggregator{count=0}";
+        }
+        return "RollAggregator{" +
+                "count=" + count() +
+                ", min=" + min() +
+                ", max=" + max() +
+                ", mean=" + mean() +
+                ", stddev=" + standardDeviation() +
+                ", p50=" + percentile(50) +
+                ", p99=" + percentile(99) +
+                '}';
+    }
+
+}
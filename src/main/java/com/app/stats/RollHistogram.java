@@ -0,0 +1,23 @@
+package com.app.stats;
+
+import java.util.function.IntConsumer;
+
+/**
+ * Histograma de totais de rolagem com consulta de percentis.
+ */
+public sealed interface RollHistogram extends IntConsumer permits ExactHistogram, LogHistogram {
+
+    /** Quantidade de valores registrados. */
+    long count();
+
+    /**
+     * Menor valor v tal que pelo menos percentile% dos registros são <= v.
+     * <br>
+     * percentile deve estar em [0, 100].
+     */
+    int percentile(double percentile);
+
+    /** Incorpora outro histograma do mesmo tipo e configuração. */
+    RollHistogram merge(RollHistogram other);
+
+}
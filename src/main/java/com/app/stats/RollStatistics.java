@@ -0,0 +1,112 @@
+package com.app.stats;
+
+import java.util.function.IntConsumer;
+
+/**
+ * Estatísticas de streaming sobre totais de rolagem: contagem, mínimo,
+ * máximo, média e variância (algoritmo de Welford).
+ * <br>
+ * Não é thread-safe. Para agregação concorrente, use uma instância por
+ * thread e combine-as ao final com {@link #merge(RollStatistics)}.
+ */
+public final class RollStatistics implements IntConsumer {
+
+    private long count;
+    private int min = Integer.MAX_VALUE;
+    private int max = Integer.MIN_VALUE;
+    private double mean;
+    private double m2;
+
+    @Override
+    public void accept(int value) {
+        count++;
+        if (value < min) min = value;
+        if (value > max) max = value;
+
+        double delta = value - mean;
+        mean += delta / count;
+        m2 += delta * (value - mean);
+    }
+
+    /**
+     * Incorpora outra instância (Chan et al.), como se todos os valores
+     * tivessem sido aceitos por esta.
+     */
+    public RollStatistics merge(RollStatistics other) {
+        if (other.count == 0) {
+            return this;
+        }
+        if (count == 0) {
+            count = other.count;
+            min = other.min;
+            max = other.max;
+            mean = other.mean;
+            m2 = other.m2;
+            return this;
+        }
+
+        long total = count + other.count;
+        double delta = other.mean - mean;
+
+        mean += delta * other.count / total;
+        m2 += other.m2 + delta * delta * ((double) count * other.count / total);
+        count = total;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+        return this;
+    }
+
+    public long count() { return count; }
+
+    public int min() {
+        requireValues();
+        return min;
+    }
+
+    public int max() {
+        requireValues();
+        return max;
+    }
+
+    public double mean() {
+        requireValues();
+        return mean;
+    }
+
+    /** Variância populacional. */
+    public double variance() {
+        requireValues();
+        return m2 / count;
+    }
+
+    /** Variância amostral (n - 1). */
+    public double sampleVariance() {
+        requireValues();
+        return count > 1 ? m2 / (count - 1) : 0.0;
+    }
+
+    public double standardDeviation() {
+        return Math.sqrt(variance());
+    }
+
+    private void requireValues() {
+        if (count == 0) {
+            throw new IllegalStateException("No values recorded");
+        }
+    }
+
+    @Override
+    public String toString() {
+        if (count == 0) {
+            return "RollStatistics{count=0}";
+        }
+        return "RollStatistics{" +
+                "count=" + count +
+                ", min=" + min +
+                ", max=" + max +
+                ", mean=" + mean +
+                ", variance=" + variance() +
+                '}';
+    }
+
+}